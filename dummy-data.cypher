@@ -294,4 +294,13 @@ MATCH (biasReport:Report {id: "rep002"}), (harmfulReduction:Outcome {id: "out004
 CREATE (biasReport)-[:DOCUMENTS {evidenceLevel: "Primary Evidence", pageNumbers: "13-18"}]->(harmfulReduction);
 
 MATCH (ethicsDoc:Report {id: "rep003"}), (compliance:Outcome {id: "out005"})
-CREATE (ethicsDoc)-[:DOCUMENTS {evidenceLevel: "Policy Documentation", pageNumbers: "1-50"}]->(compliance);
\ No newline at end of file
+CREATE (ethicsDoc)-[:DOCUMENTS {evidenceLevel: "Policy Documentation", pageNumbers: "1-50"}]->(compliance);
+
+// ==== NORMALIZED NAMES ====
+
+// Lowercased names used by the case-insensitive employee lookup, in the form of
+// KnowledgeGraphReadRepository.normalizeName (trimmed, single spaces)
+MATCH (e:Employee)
+WITH e, [word IN split(replace(replace(replace(e.name, '\t', ' '), '\n', ' '), '\r', ' '), ' ') WHERE word <> ''] AS words
+WITH e, toLower(reduce(name = head(words), word IN tail(words) | name + ' ' + word)) AS normalized
+SET e.nameLower = normalized;
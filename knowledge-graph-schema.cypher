@@ -4,8 +4,11 @@
 // ==== NODE CONSTRAINTS AND INDEXES ====
 
 // Employee constraints
+CREATE CONSTRAINT employee_id IF NOT EXISTS FOR (e:Employee) REQUIRE e.id IS UNIQUE;
 CREATE CONSTRAINT employee_email IF NOT EXISTS FOR (e:Employee) REQUIRE e.email IS UNIQUE;
 CREATE INDEX employee_name IF NOT EXISTS FOR (e:Employee) ON (e.name);
+// Lowercased, whitespace-collapsed copy of name used for case-insensitive lookups
+CREATE INDEX employee_name_lower IF NOT EXISTS FOR (e:Employee) ON (e.nameLower);
 CREATE INDEX employee_department IF NOT EXISTS FOR (e:Employee) ON (e.department);
 
 // Project constraints  
@@ -22,10 +25,42 @@ CREATE INDEX report_type IF NOT EXISTS FOR (r:Report) ON (r.type);
 CREATE CONSTRAINT outcome_id IF NOT EXISTS FOR (o:Outcome) REQUIRE o.id IS UNIQUE;
 CREATE INDEX outcome_impact_level IF NOT EXISTS FOR (o:Outcome) ON (o.impactLevel);
 
+// Full-text indexes backing every free-text and category search; queried with
+// db.index.fulltext.queryNodes so lookups use the index instead of scanning with CONTAINS.
+// Reports are reached through the projects that produced them, so they have no full-text index
+CREATE FULLTEXT INDEX project_text IF NOT EXISTS FOR (p:Project) ON EACH [p.name, p.description, p.category];
+CREATE FULLTEXT INDEX outcome_text IF NOT EXISTS FOR (o:Outcome) ON EACH [o.description, o.category, o.metrics];
+DROP INDEX report_text IF EXISTS;
+
+// Change tracking: writes stamp changeVersion from the GraphChange counter, and the change feed
+// polls each label and relationship type for versions above the last one it saw
+CREATE CONSTRAINT graph_change_id IF NOT EXISTS FOR (c:GraphChange) REQUIRE c.id IS UNIQUE;
+CREATE INDEX employee_change_version IF NOT EXISTS FOR (e:Employee) ON (e.changeVersion);
+CREATE INDEX project_change_version IF NOT EXISTS FOR (p:Project) ON (p.changeVersion);
+CREATE INDEX report_change_version IF NOT EXISTS FOR (r:Report) ON (r.changeVersion);
+CREATE INDEX outcome_change_version IF NOT EXISTS FOR (o:Outcome) ON (o.changeVersion);
+CREATE INDEX worked_on_change_version IF NOT EXISTS FOR ()-[r:WORKED_ON]-() ON (r.changeVersion);
+CREATE INDEX managed_change_version IF NOT EXISTS FOR ()-[r:MANAGED]-() ON (r.changeVersion);
+CREATE INDEX achieved_change_version IF NOT EXISTS FOR ()-[r:ACHIEVED]-() ON (r.changeVersion);
+CREATE INDEX produced_change_version IF NOT EXISTS FOR ()-[r:PRODUCED]-() ON (r.changeVersion);
+CREATE INDEX documents_change_version IF NOT EXISTS FOR ()-[r:DOCUMENTS]-() ON (r.changeVersion);
+CREATE INDEX authored_change_version IF NOT EXISTS FOR ()-[r:AUTHORED]-() ON (r.changeVersion);
+CREATE INDEX reviewed_change_version IF NOT EXISTS FOR ()-[r:REVIEWED]-() ON (r.changeVersion);
+CREATE INDEX collaborated_with_change_version IF NOT EXISTS FOR ()-[r:COLLABORATED_WITH]-() ON (r.changeVersion);
+
+// Backfill nameLower for employees created before the property existed, or stored in an older form.
+// Same normal form as KnowledgeGraphReadRepository.normalizeName: trimmed, lowercased, whitespace runs
+// collapsed to one space
+MATCH (e:Employee) WHERE e.name IS NOT NULL
+WITH e, [word IN split(replace(replace(replace(e.name, '\t', ' '), '\n', ' '), '\r', ' '), ' ') WHERE word <> ''] AS words
+WITH e, toLower(reduce(name = head(words), word IN tail(words) | name + ' ' + word)) AS normalized
+WHERE e.nameLower IS NULL OR e.nameLower <> normalized
+SET e.nameLower = normalized;
+
 // ==== NODE LABELS AND PROPERTIES ====
 
 // Employee Node
-// Properties: id, name, email, department, role, joinDate, skills[]
+// Properties: id, name, nameLower, email, department, role, joinDate, skills[]
 // Example: (:Employee {id: "emp001", name: "Alice Smith", email: "alice@company.com", 
 //          department: "AI Research", role: "Senior AI Researcher", joinDate: "2021-03-15", 
 //          skills: ["Machine Learning", "AI Safety", "Deep Learning"]})
@@ -0,0 +1,26 @@
+package com.example.config;
+
+import com.example.repository.GraphExpansion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class GraphExpansionConfig
+{
+
+    // Multi-hop neighbourhood of the people and projects named in a query; the budgets
+    // bound how much of the graph one query can touch
+    @Bean
+    public GraphExpansion graphExpansion(
+        @Value("${kag.graph.expansion.enabled:true}") boolean enabled,
+        @Value("${kag.graph.expansion.relationship-types:COLLABORATED_WITH,WORKED_ON,AUTHORED,REVIEWED}") List<String> relationshipTypes,
+        @Value("${kag.graph.expansion.max-hops:2}") int maxHops,
+        @Value("${kag.graph.expansion.fan-out:25}") int fanOut,
+        @Value("${kag.graph.expansion.node-budget:40}") int nodeBudget)
+    {
+        return new GraphExpansion(enabled, relationshipTypes, maxHops, fanOut, nodeBudget);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.config;
+
+import com.example.repository.GraphQueryContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class GraphQueryExecutorConfig
+{
+
+    // Bounded pool for concurrent Neo4j lookups; when it is saturated the calling
+    // request thread runs the query itself instead of queueing without limit
+    @Bean("graphQueryExecutor")
+    public ThreadPoolTaskExecutor graphQueryExecutor(
+        @Value("${kag.graph.executor.pool-size:16}") int poolSize,
+        @Value("${kag.graph.executor.queue-capacity:64}") int queueCapacity)
+    {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("graph-query-");
+        // Carry the query intent over to the pool so profiled statements are tagged with it
+        executor.setTaskDecorator(GraphQueryContext::propagate);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class IngestExecutorConfig
+{
+
+    // Workers for bulk ingest; each loads one node file, so this bounds how many
+    // labels are written concurrently
+    @Bean("ingestExecutor")
+    public ThreadPoolTaskExecutor ingestExecutor(@Value("${kag.ingest.parallelism:4}") int parallelism)
+    {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix("graph-ingest-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.config;
+
+import com.example.repository.RetrievalRanking;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RetrievalRankingConfig
+{
+
+    // Per-type caps applied inside the graph queries, so context and prompt size stay
+    // constant however many nodes match
+    @Bean
+    public RetrievalRanking retrievalRanking(
+        @Value("${kag.graph.top-k.employees:20}") int employees,
+        @Value("${kag.graph.top-k.projects:10}") int projects,
+        @Value("${kag.graph.top-k.outcomes:20}") int outcomes,
+        @Value("${kag.graph.top-k.reports:10}") int reports,
+        @Value("${kag.graph.ranking.impact-weight:1.0}") double impactWeight,
+        @Value("${kag.graph.ranking.recency-weight:0.5}") double recencyWeight)
+    {
+        return new RetrievalRanking(employees, projects, outcomes, reports, impactWeight, recencyWeight);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.controller;
+
+import com.example.service.ingest.BulkIngestService;
+import com.example.service.ingest.IngestJob;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Comparator;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/kag/admin/ingest")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Bulk Ingest", description = "Loads JSONL and CSV exports into the knowledge graph")
+public class IngestController {
+    
+    private final BulkIngestService bulkIngestService;
+    
+    @PostMapping
+    @Operation(
+        summary = "Start Bulk Ingest",
+        description = "Loads every employees, projects, outcomes, reports and relationship file in the given " +
+                     "directory under kag.ingest.directory. Runs in the background; poll the returned job for progress."
+    )
+    public ResponseEntity<IngestJob.Report> startIngest(
+            @Parameter(description = "Directory relative to kag.ingest.directory", example = "nightly")
+            @RequestParam String directory) {
+        try {
+            IngestJob job = bulkIngestService.start(directory);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.report());
+        } catch (IllegalArgumentException e) {
+            log.warn("Bulk ingest rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/{jobId}")
+    @Operation(
+        summary = "Get Ingest Progress",
+        description = "Rows read, written, skipped, rejected and failed per file, throughput and the first errors"
+    )
+    public ResponseEntity<IngestJob.Report> getIngest(@PathVariable String jobId) {
+        return bulkIngestService.job(jobId)
+            .map(job -> ResponseEntity.ok(job.report()))
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping
+    @Operation(summary = "List Ingest Jobs", description = "All bulk ingest jobs since startup, newest first")
+    public ResponseEntity<List<IngestJob.Report>> listIngests() {
+        return ResponseEntity.ok(bulkIngestService.jobs().stream()
+            .map(IngestJob::report)
+            .sorted(Comparator.comparing(IngestJob.Report::startedAt).reversed())
+            .toList());
+    }
+}
@@ -1,7 +1,11 @@
 package com.example.controller;
 
+import com.example.repository.QueryProfiler;
+import com.example.service.kag.GraphVersion;
 import com.example.service.kag.KAGService;
 import com.example.service.kag.KAGResponse;
+import com.example.service.nlp.BatchExtractionResult;
+import com.example.service.nlp.EntityExtractionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,6 +15,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/kag")
@@ -20,6 +25,9 @@ import org.springframework.web.bind.annotation.*;
 public class KAGController {
     
     private final KAGService kagService;
+    private final EntityExtractionService entityExtractionService;
+    private final GraphVersion graphVersion;
+    private final QueryProfiler queryProfiler;
     
     @PostMapping("/query")
     @Operation(
@@ -71,6 +79,41 @@ public class KAGController {
         }
     }
     
+    @PostMapping("/reactive/query")
+    @Operation(
+        summary = "Process KAG Query (non-blocking)",
+        description = "Same pipeline as POST /api/kag/query, but the knowledge graph is read through the " +
+                     "reactive Neo4j driver and the AI response is streamed, so the request holds no " +
+                     "server thread while waiting on Neo4j or the LLM."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Query processed successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid query format"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public Mono<ResponseEntity<KAGResponse>> processQueryReactive(@RequestBody QueryRequest request) {
+        log.info("Received reactive KAG query: {}", request.getQuery());
+        
+        if (request.getQuery() == null || request.getQuery().trim().isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest()
+                .body(KAGResponse.builder()
+                    .userQuery(request.getQuery())
+                    .error("Query cannot be empty")
+                    .build()));
+        }
+        
+        return kagService.processQueryReactive(request.getQuery())
+            .map(response -> {
+                if (response.hasError()) {
+                    log.error("KAG processing error: {}", response.getError());
+                    return ResponseEntity.internalServerError().body(response);
+                }
+                log.info("Reactive KAG query processed successfully with {} knowledge graph entities", 
+                        response.getKnowledgeGraphEntityCount());
+                return ResponseEntity.ok(response);
+            });
+    }
+    
     @GetMapping("/query")
     @Operation(
         summary = "Process KAG Query (GET)",
@@ -86,6 +129,62 @@ public class KAGController {
         return processQuery(request);
     }
     
+    @PostMapping("/entities/batch")
+    @Operation(
+        summary = "Batch Entity Extraction",
+        description = "Extracts entities and intent for a list of queries in one call, annotating them " +
+                     "together with CoreNLP's multi-threaded path. Results are returned in input order " +
+                     "together with throughput figures."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Queries processed successfully"),
+        @ApiResponse(responseCode = "400", description = "No queries supplied")
+    })
+    public ResponseEntity<BatchExtractionResult> extractEntitiesBatch(@RequestBody BatchQueryRequest request) {
+        if (request.getQueries() == null || request.getQueries().isEmpty()
+                || request.getQueries().stream().anyMatch(query -> query == null || query.isBlank())) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        log.info("Received batch entity extraction request with {} queries", request.getQueries().size());
+        return ResponseEntity.ok(entityExtractionService.extractEntitiesBatch(request.getQueries()));
+    }
+    
+    @PostMapping("/admin/graph-version")
+    @Operation(
+        summary = "Bump Graph Version",
+        description = "Marks the knowledge graph as changed. Every cached knowledge graph context is dropped " +
+                     "and the next queries read from Neo4j again. Call after loading or editing graph data."
+    )
+    public ResponseEntity<java.util.Map<String, Object>> bumpGraphVersion(
+            @Parameter(description = "Why the graph changed, recorded in the log")
+            @RequestParam(defaultValue = "admin request") String reason) {
+        long version = graphVersion.bump(reason);
+        return ResponseEntity.ok(java.util.Map.of("graphVersion", version));
+    }
+    
+    @PostMapping("/admin/query-profiling")
+    @Operation(
+        summary = "Set Query Profiling Rate",
+        description = "Sets the fraction of Neo4j statements run with PROFILE, from 0 (off) to 1 (all). " +
+                     "Profiled statements publish db hits and log their plan."
+    )
+    public ResponseEntity<java.util.Map<String, Object>> setQueryProfiling(
+            @Parameter(description = "Fraction of statements to profile, between 0 and 1")
+            @RequestParam double sampleRate) {
+        queryProfiler.setSampleRate(sampleRate);
+        return ResponseEntity.ok(java.util.Map.of("sampleRate", queryProfiler.getSampleRate()));
+    }
+    
+    @GetMapping("/admin/query-profiles")
+    @Operation(
+        summary = "Get Query Profiles",
+        description = "Returns the latest profile of each Neo4j statement: db hits, rows, server timings and plan"
+    )
+    public ResponseEntity<java.util.Map<String, QueryProfiler.Profile>> getQueryProfiles() {
+        return ResponseEntity.ok(queryProfiler.getLatestProfiles());
+    }
+    
     @GetMapping("/examples")
     @Operation(
         summary = "Get Example Queries",
@@ -125,6 +224,13 @@ public class KAGController {
         public void setQuery(String query) { this.query = query; }
     }
     
+    public static class BatchQueryRequest {
+        private java.util.List<String> queries;
+        
+        public java.util.List<String> getQueries() { return queries; }
+        public void setQueries(java.util.List<String> queries) { this.queries = queries; }
+    }
+    
     public static class ExampleQueries {
         private java.util.List<ExampleQuery> examples = new java.util.ArrayList<>();
         
@@ -0,0 +1,44 @@
+package com.example.repository;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Builds Lucene query strings for {@code db.index.fulltext.queryNodes} from user supplied text.
+ * Text is always quoted as a phrase, so operators and special characters in it are matched literally.
+ */
+public final class FullTextQuery {
+
+    private FullTextQuery() {
+    }
+
+    /**
+     * Phrase query over every property of the index, or an empty string for blank text.
+     */
+    public static String phrase(String text) {
+        if (text == null || text.isBlank()) {
+            return "";
+        }
+        return "\"" + text.trim().replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * Phrase query restricted to one indexed property, or an empty string for blank text.
+     */
+    public static String phrase(String field, String text) {
+        String phrase = phrase(text);
+        return phrase.isEmpty() ? "" : field + ":" + phrase;
+    }
+
+    /**
+     * Disjunction of the non-empty clauses.
+     */
+    public static String anyOf(String... clauses) {
+        return Arrays.stream(clauses)
+            .filter(Objects::nonNull)
+            .filter(clause -> !clause.isEmpty())
+            .distinct()
+            .collect(Collectors.joining(" OR "));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.repository;
+
+import com.example.repository.KnowledgeGraphReadRepository.ContextRows;
+import com.example.repository.KnowledgeGraphReadRepository.EmployeeProjects;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The per-intent context reads, answered either by Neo4j ({@link KnowledgeGraphReadRepository}) or by the
+ * in-memory graph snapshot. Both rank and cap every list with the same {@link RetrievalRanking}.
+ * {@code keywords} are all keywords extracted from the query; nodes matching more of them rank higher.
+ */
+public interface GraphContextReader {
+
+    ContextRows findPeopleByProjectContext(String category, Collection<String> keywords);
+
+    ContextRows findOutcomesContext(String category, String keyword, Collection<String> keywords);
+
+    ContextRows findProjectOutcomesContext(String category, Collection<String> keywords);
+
+    ContextRows findReportsContext(String category, Collection<String> keywords);
+
+    ContextRows findComprehensiveContext(String category, String keyword, Collection<String> keywords,
+                                         Collection<String> employeeIds, Collection<String> projectIds);
+
+    /**
+     * Employees, projects, outcomes and reports reachable from the seed employees and projects within the
+     * budgets of {@code expansion}, seeds excluded.
+     */
+    ContextRows findNeighbourhoodContext(Collection<String> employeeIds, Collection<String> projectIds,
+                                         GraphExpansion expansion);
+
+    /**
+     * Names must already be normalized with {@link KnowledgeGraphReadRepository#normalizeName(String)}.
+     */
+    List<EmployeeProjects> findEmployeesByNames(Collection<String> names);
+
+    /**
+     * Whether reads are served from memory, in which case they are cheap enough to run on the caller's thread.
+     */
+    default boolean isInMemory() {
+        return false;
+    }
+}
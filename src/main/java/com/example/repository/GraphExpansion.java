@@ -0,0 +1,51 @@
+package com.example.repository;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Budgets for walking out from the resolved seed entities of a query. The walk follows
+ * {@code relationshipTypes} in both directions for at most {@code maxHops}, leaves each seed through at most
+ * {@code fanOut} neighbours, never continues through any other node with more than {@code fanOut} such
+ * relationships, and keeps the {@code nodeBudget} nodes closest to the seeds. Neo4j and the in-memory
+ * snapshot apply the same budgets.
+ */
+public record GraphExpansion(boolean enabled, List<String> relationshipTypes, int maxHops, int fanOut, int nodeBudget) {
+
+    private static final Pattern RELATIONSHIP_TYPE = Pattern.compile("[A-Z][A-Z0-9_]*");
+
+    public GraphExpansion {
+        relationshipTypes = List.copyOf(relationshipTypes);
+        // Types and hop limit are spliced into the Cypher pattern, so only plain constants are accepted
+        for (String type : relationshipTypes) {
+            if (!RELATIONSHIP_TYPE.matcher(type).matches()) {
+                throw new IllegalArgumentException("Invalid relationship type for graph expansion: " + type);
+            }
+        }
+        if (maxHops < 1 || fanOut < 1 || nodeBudget < 1) {
+            throw new IllegalArgumentException("Graph expansion hops, fan-out and node budget must be positive");
+        }
+    }
+
+    public boolean isActive() {
+        return enabled && !relationshipTypes.isEmpty();
+    }
+
+    /**
+     * Subquery body walking the hops after the first from {@code first}, returning each node {@code n} reached
+     * and its {@code steps}. The fan-out test sits inside the quantified path pattern, so the planner checks it
+     * on every expand instead of filtering whole paths afterwards.
+     */
+    String cypherWalk() {
+        if (maxHops == 1) {
+            return "RETURN first AS n, 0 AS steps";
+        }
+        String types = cypherTypes();
+        return "MATCH path = (first)((a)-[" + types + "]-(b) WHERE COUNT { (a)-[" + types + "]-() } <= $fanOut)" +
+            "{0," + (maxHops - 1) + "}(n) RETURN n, length(path) AS steps";
+    }
+
+    String cypherTypes() {
+        return ":" + String.join("|", relationshipTypes);
+    }
+}
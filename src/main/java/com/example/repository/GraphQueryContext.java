@@ -0,0 +1,52 @@
+package com.example.repository;
+
+import java.util.function.Supplier;
+
+/**
+ * Names the query intent a graph read is made for, so {@link QueryProfiler} can tag its metrics.
+ * Blocking code carries it in a thread local that the graph query executor copies to its workers;
+ * reactive code carries it in the Reactor context under {@link #INTENT_KEY}.
+ */
+public final class GraphQueryContext {
+
+    public static final String INTENT_KEY = "kag.graph.intent";
+    public static final String NONE = "none";
+
+    private static final ThreadLocal<String> INTENT = new ThreadLocal<>();
+
+    private GraphQueryContext() {
+    }
+
+    public static String currentIntent() {
+        String intent = INTENT.get();
+        return intent != null ? intent : NONE;
+    }
+
+    public static <T> T withIntent(String intent, Supplier<T> work) {
+        String previous = INTENT.get();
+        INTENT.set(intent);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                INTENT.remove();
+            } else {
+                INTENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Wraps a task so it runs with the intent of the thread that created it.
+     */
+    public static Runnable propagate(Runnable task) {
+        String intent = INTENT.get();
+        if (intent == null) {
+            return task;
+        }
+        return () -> withIntent(intent, () -> {
+            task.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,559 @@
+package com.example.repository;
+
+import com.example.repository.projection.EmployeeView;
+import com.example.repository.projection.OutcomeView;
+import com.example.repository.projection.ProjectSummary;
+import com.example.repository.projection.ProjectView;
+import com.example.repository.projection.ReportView;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.TransactionConfig;
+import org.neo4j.driver.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Read-only queries that return plain values rather than mapped entities, run directly on the {@link Driver}.
+ * Nodes are returned as Cypher map projections of the few properties the prompt and citations read and
+ * mapped straight into the {@code projection} records, so no relationship sets are ever hydrated.
+ * <p>
+ * The {@code find*Context} methods answer one query intent each with a single Cypher statement: the
+ * projects for the category are looked up once and every related list is collected from them in
+ * {@code COLLECT} subqueries, so the whole context comes back in one row and one round trip.
+ * Entry nodes are found through the full-text indexes in {@code knowledge-graph-schema.cypher} with every
+ * extracted keyword, capped at {@code kag.graph.search-limit}, so no statement scans a label. Every list is
+ * then ordered by the {@link RetrievalRanking} score and cut to its top-k inside the statement.
+ */
+@Repository
+public class KnowledgeGraphReadRepository implements GraphContextReader {
+
+    public record NamedNode(String id, String name) {}
+
+    public record EmployeeProjects(EmployeeView employee, List<ProjectView> projects) {}
+
+    public record Edge(String sourceId, String targetId) {}
+
+    public record NodeChange(String label, String id, long version) {}
+
+    public record RelationshipChange(String type, String sourceId, String targetId, long version) {}
+
+    record Statement(String name, String cypher, Map<String, Object> parameters) {}
+
+    /**
+     * Everything one intent query returned. Lists the intent does not fetch are empty.
+     */
+    public record ContextRows(List<EmployeeView> employees, List<ProjectView> projects, List<OutcomeView> outcomes,
+                              List<ReportView> reports, List<ProjectSummary> projectSummaries) {
+
+        public static ContextRows empty() {
+            return new ContextRows(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        }
+    }
+
+    // Map projections holding only the properties the projection records read
+    private static final String EMPLOYEE = " {.id, .name, .role, .department, .email, .changeVersion}";
+    private static final String PROJECT = " {.id, .name, .description, .category, .status, .startDate, .changeVersion}";
+    private static final String OUTCOME = " {.id, .description, .impactLevel, .metrics, .category, .changeVersion}";
+    private static final String REPORT = " {.id, .title, .type, .date, .filePath, .summary, .changeVersion}";
+
+    private static final String IMPACT = RetrievalRanking.impactCypher("o");
+
+    // Entry projects from the project_text full-text index, ranked by score and recency, as {project, rank} maps
+    private static final String RANKED_PROJECTS =
+        "CALL { CALL db.index.fulltext.queryNodes('project_text', $projectQuery, {limit: $limit}) YIELD node, score " +
+        "       WITH node, score + $recencyWeight * " + RetrievalRanking.recencyCypher("node.startDate") + " AS rank " +
+        "       ORDER BY rank DESC RETURN collect({project: node, rank: rank}) AS ranked } ";
+
+    private static final String TOP_PROJECTS = "[r IN ranked[0..$projectLimit] | r.project" + PROJECT + "]";
+
+    // People rank by the summed rank of the matched projects they worked on
+    private static final String TOP_EMPLOYEES =
+        "COLLECT { UNWIND ranked AS r WITH r.project AS p, r.rank AS rank " +
+        "          MATCH (e:Employee)-[:WORKED_ON]->(p) " +
+        "          WITH e, sum(rank) AS score ORDER BY score DESC LIMIT $employeeLimit " +
+        "          RETURN e" + EMPLOYEE + " }";
+
+    private static final String CATEGORY_FILTER = "WHERE p.category CONTAINS $category ";
+
+    private static final String PEOPLE_BY_PROJECT_CONTEXT =
+        RANKED_PROJECTS +
+        "RETURN " + TOP_PROJECTS + " AS projects, " +
+        TOP_EMPLOYEES + " AS employees, " +
+        topOutcomes(CATEGORY_FILTER) + " AS outcomes, " +
+        topReports(CATEGORY_FILTER) + " AS reports";
+
+    private static final String OUTCOMES_CONTEXT =
+        "CALL { CALL db.index.fulltext.queryNodes('outcome_text', $outcomeQuery, {limit: $limit}) YIELD node AS o, score " +
+        "       WITH o, score + $impactWeight * " + IMPACT + " AS rank ORDER BY rank DESC LIMIT $outcomeLimit " +
+        "       RETURN collect(o" + OUTCOME + ") AS outcomes } " +
+        "CALL { CALL db.index.fulltext.queryNodes('project_text', $projectQuery, {limit: $limit}) YIELD node, score " +
+        "       WITH node, score WHERE (node)-[:ACHIEVED]->(:Outcome) " +
+        "       WITH node, score + $recencyWeight * " + RetrievalRanking.recencyCypher("node.startDate") + " AS rank " +
+        "       ORDER BY rank DESC LIMIT $projectLimit RETURN collect(node" + PROJECT + ") AS projects } " +
+        "RETURN outcomes, projects";
+
+    private static final String PROJECT_OUTCOMES_CONTEXT =
+        RANKED_PROJECTS +
+        "RETURN " +
+        topOutcomes("") + " AS outcomes, " +
+        "COLLECT { UNWIND ranked[0..$projectLimit] AS r WITH r.project AS p, r.rank AS rank " +
+        "          MATCH (e:Employee)-[:WORKED_ON]->(p) " +
+        "          MATCH (p)-[:ACHIEVED]->(o:Outcome) " +
+        "          OPTIONAL MATCH (report:Report)-[:DOCUMENTS]->(o) " +
+        "          WITH p, rank, collect(DISTINCT e.name) AS teamMembers, collect(DISTINCT o.description) AS outcomes, " +
+        "               collect(DISTINCT o.metrics) AS metrics, collect(DISTINCT report.title) AS supportingReports " +
+        "          RETURN {projectName: p.name, projectDescription: p.description, teamMembers: teamMembers, " +
+        "                  outcomes: outcomes, metrics: metrics, supportingReports: supportingReports} ORDER BY rank DESC } AS projectSummaries";
+
+    private static final String REPORTS_CONTEXT =
+        RANKED_PROJECTS +
+        "RETURN " +
+        topReports("") + " AS reports, " +
+        topOutcomes("") + " AS outcomes";
+
+    // People come from the resolved ids when there are any, otherwise from the ranked projects.
+    // Text-matched and project outcomes compete for the same top-k by rank.
+    private static final String COMPREHENSIVE_CONTEXT =
+        RANKED_PROJECTS +
+        "CALL { CALL db.index.fulltext.queryNodes('outcome_text', $outcomeQuery, {limit: $limit}) YIELD node AS o, score " +
+        "       RETURN collect({outcome: o, rank: score + $impactWeight * " + IMPACT + "}) AS textOutcomes } " +
+        "OPTIONAL MATCH (e:Employee) WHERE e.id IN $employeeIds " +
+        "WITH ranked, textOutcomes, collect(e) AS idEmployees " +
+        "WITH ranked, textOutcomes, idEmployees, size(idEmployees) = 0 AS byCategory, " +
+        "     COLLECT { UNWIND ranked AS r WITH r.project AS p, r.rank AS rank " + CATEGORY_FILTER +
+        "               MATCH (p)-[:ACHIEVED]->(o:Outcome) RETURN {outcome: o, rank: rank + $impactWeight * " + IMPACT + "} } AS achievedOutcomes " +
+        "RETURN " +
+        "CASE WHEN byCategory THEN " + TOP_EMPLOYEES + " " +
+        "     ELSE [e IN idEmployees | e" + EMPLOYEE + "] END AS employees, " +
+        "CASE WHEN byCategory THEN " + TOP_PROJECTS + " " +
+        "     ELSE COLLECT { UNWIND idEmployees AS e MATCH (e)-[:WORKED_ON]->(p:Project) " +
+        "                    RETURN DISTINCT p" + PROJECT + " AS project ORDER BY project.startDate DESC LIMIT $projectLimit } + " +
+        "          COLLECT { MATCH (p:Project) WHERE p.id IN $projectIds RETURN p" + PROJECT + " } END AS projects, " +
+        "COLLECT { UNWIND textOutcomes + achievedOutcomes AS candidate WITH candidate.outcome AS o, max(candidate.rank) AS score " +
+        "          ORDER BY score DESC LIMIT $outcomeLimit RETURN o" + OUTCOME + " } AS outcomes, " +
+        topReports(CATEGORY_FILTER) + " AS reports";
+
+    // Resolves every candidate name in one statement through the employee_name_lower index
+    private static final String EMPLOYEES_BY_NAMES =
+        "UNWIND $names AS name " +
+        "MATCH (e:Employee) WHERE e.nameLower = name " +
+        "WITH DISTINCT e " +
+        "RETURN e" + EMPLOYEE + " AS employee, " +
+        "COLLECT { MATCH (e)-[:WORKED_ON]->(p:Project) " +
+        "          RETURN DISTINCT p" + PROJECT + " AS project ORDER BY project.startDate DESC LIMIT $projectLimit } AS projects";
+
+    // Nodes within the expansion budgets of the seeds, nearest and most widely connected first.
+    // Each seed is left through at most $fanOut neighbours, so a hub seed costs no more than any other.
+    private static String neighbourhood(GraphExpansion expansion) {
+        return "CALL { MATCH (e:Employee) WHERE e.id IN $employeeIds RETURN e AS seed " +
+            "       UNION MATCH (p:Project) WHERE p.id IN $projectIds RETURN p AS seed } " +
+            "WITH collect(seed) AS seeds " +
+            "UNWIND seeds AS seed " +
+            "CALL { WITH seed MATCH (seed)-[" + expansion.cypherTypes() + "]-(first) " +
+            "       WITH DISTINCT first ORDER BY first.id LIMIT $fanOut RETURN first } " +
+            "CALL { WITH first " + expansion.cypherWalk() + " } " +
+            "WITH seeds, seed, n, steps WHERE NOT n IN seeds " +
+            "WITH n, 1 + min(steps) AS hops, count(DISTINCT seed) AS reach " +
+            "ORDER BY hops, reach DESC, n.id LIMIT $nodeBudget " +
+            "WITH collect(n) AS nodes " +
+            "RETURN [x IN nodes WHERE x:Employee | x" + EMPLOYEE + "] AS employees, " +
+            "       [x IN nodes WHERE x:Project | x" + PROJECT + "] AS projects, " +
+            "       [x IN nodes WHERE x:Outcome | x" + OUTCOME + "] AS outcomes, " +
+            "       [x IN nodes WHERE x:Report | x" + REPORT + "] AS reports";
+    }
+
+    // Outcomes of the ranked projects, ranked by their best project plus impact
+    private static String topOutcomes(String projectFilter) {
+        return "COLLECT { UNWIND ranked AS r WITH r.project AS p, r.rank AS rank " + projectFilter +
+            "          MATCH (p)-[:ACHIEVED]->(o:Outcome) " +
+            "          WITH o, max(rank) AS best " +
+            "          WITH o, best + $impactWeight * " + IMPACT + " AS score ORDER BY score DESC LIMIT $outcomeLimit " +
+            "          RETURN o" + OUTCOME + " }";
+    }
+
+    // Reports of the ranked projects, ranked by their best project plus recency
+    private static String topReports(String projectFilter) {
+        return "COLLECT { UNWIND ranked AS r WITH r.project AS p, r.rank AS rank " + projectFilter +
+            "          MATCH (p)-[:PRODUCED]->(report:Report) " +
+            "          WITH report, max(rank) AS best " +
+            "          WITH report, best + $recencyWeight * " + RetrievalRanking.recencyCypher("report.date") + " AS score " +
+            "          ORDER BY score DESC LIMIT $reportLimit " +
+            "          RETURN report" + REPORT + " }";
+    }
+
+    private final Driver driver;
+    private final SessionConfig sessionConfig;
+    private final TransactionConfig transactionConfig;
+    private final int searchLimit;
+    private final RetrievalRanking ranking;
+    private final QueryProfiler profiler;
+
+    /**
+     * Every statement runs with {@code queryTimeout} as its transaction timeout, so Neo4j aborts it once the
+     * caller has given up on it instead of letting it run on.
+     */
+    public KnowledgeGraphReadRepository(Driver driver,
+                                        @org.springframework.beans.factory.annotation.Value("${spring.data.neo4j.database:}") String database,
+                                        @org.springframework.beans.factory.annotation.Value("${kag.graph.search-limit:50}") int searchLimit,
+                                        @org.springframework.beans.factory.annotation.Value("${kag.graph.stage-timeout:5s}") Duration queryTimeout,
+                                        RetrievalRanking ranking,
+                                        QueryProfiler profiler) {
+        this.driver = driver;
+        this.sessionConfig = database == null || database.isBlank()
+            ? SessionConfig.defaultConfig()
+            : SessionConfig.forDatabase(database);
+        this.transactionConfig = TransactionConfig.builder().withTimeout(queryTimeout).build();
+        this.searchLimit = searchLimit;
+        this.ranking = ranking;
+        this.profiler = profiler;
+    }
+
+    public List<NamedNode> findEmployeeNames() {
+        return findNames("employeeNames", "MATCH (e:Employee) WHERE e.name IS NOT NULL RETURN e.id AS id, e.name AS name");
+    }
+
+    public List<NamedNode> findProjectNames() {
+        return findNames("projectNames", "MATCH (p:Project) WHERE p.name IS NOT NULL RETURN p.id AS id, p.name AS name");
+    }
+
+    private List<NamedNode> findNames(String name, String cypher) {
+        return run(new Statement(name, cypher, Map.of()),
+            record -> new NamedNode(record.get("id").asString(), record.get("name").asString()));
+    }
+
+    // Full label and relationship scans, used only to build the in-memory graph snapshot
+    public List<EmployeeView> findAllEmployees() {
+        return findAll("allEmployees", "MATCH (e:Employee) RETURN e" + EMPLOYEE + " AS node", KnowledgeGraphReadRepository::toEmployeeView);
+    }
+
+    public List<ProjectView> findAllProjects() {
+        return findAll("allProjects", "MATCH (p:Project) RETURN p" + PROJECT + " AS node", KnowledgeGraphReadRepository::toProjectView);
+    }
+
+    public List<OutcomeView> findAllOutcomes() {
+        return findAll("allOutcomes", "MATCH (o:Outcome) RETURN o" + OUTCOME + " AS node", KnowledgeGraphReadRepository::toOutcomeView);
+    }
+
+    public List<ReportView> findAllReports() {
+        return findAll("allReports", "MATCH (r:Report) RETURN r" + REPORT + " AS node", KnowledgeGraphReadRepository::toReportView);
+    }
+
+    // Current state of changed nodes, used to patch the in-memory graph snapshot
+    public List<EmployeeView> findEmployeesByIds(Collection<String> ids) {
+        return findByIds("employeesByIds", "MATCH (e:Employee) WHERE e.id IN $ids RETURN e" + EMPLOYEE + " AS node", ids,
+            KnowledgeGraphReadRepository::toEmployeeView);
+    }
+
+    public List<ProjectView> findProjectsByIds(Collection<String> ids) {
+        return findByIds("projectsByIds", "MATCH (p:Project) WHERE p.id IN $ids RETURN p" + PROJECT + " AS node", ids,
+            KnowledgeGraphReadRepository::toProjectView);
+    }
+
+    public List<OutcomeView> findOutcomesByIds(Collection<String> ids) {
+        return findByIds("outcomesByIds", "MATCH (o:Outcome) WHERE o.id IN $ids RETURN o" + OUTCOME + " AS node", ids,
+            KnowledgeGraphReadRepository::toOutcomeView);
+    }
+
+    public List<ReportView> findReportsByIds(Collection<String> ids) {
+        return findByIds("reportsByIds", "MATCH (r:Report) WHERE r.id IN $ids RETURN r" + REPORT + " AS node", ids,
+            KnowledgeGraphReadRepository::toReportView);
+    }
+
+    /**
+     * Every {@code (:sourceLabel)-[:type]->(:targetLabel)} relationship as a pair of node ids.
+     * Labels and type are spliced into the statement, so callers must pass constants, never user input.
+     */
+    public List<Edge> findEdges(String sourceLabel, String type, String targetLabel) {
+        String cypher = "MATCH (a:" + sourceLabel + ")-[:" + type + "]->(b:" + targetLabel + ") " +
+            "RETURN a.id AS source, b.id AS target";
+        return run(new Statement("edges", cypher, Map.of()), record -> new Edge(
+            record.get("source").isNull() ? null : record.get("source").asString(),
+            record.get("target").isNull() ? null : record.get("target").asString()));
+    }
+
+    /**
+     * Names of the given nodes, for refreshing name indexes after a change. The label must be a constant.
+     */
+    public List<NamedNode> findNamesByIds(String label, Collection<String> ids) {
+        String cypher = "MATCH (n:" + label + ") WHERE n.id IN $ids AND n.name IS NOT NULL RETURN n.id AS id, n.name AS name";
+        return run(new Statement("namesByIds", cypher, Map.of("ids", List.copyOf(ids))),
+            record -> new NamedNode(record.get("id").asString(), record.get("name").asString()));
+    }
+
+    /**
+     * Ids of the nodes directly related to the given nodes, in either direction. The label must be a constant.
+     */
+    public List<String> findNeighbourIds(String label, Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String cypher = "MATCH (n:" + label + ")--(m) WHERE n.id IN $ids AND m.id IS NOT NULL RETURN DISTINCT m.id AS id";
+        return run(new Statement("neighbourIds", cypher, Map.of("ids", List.copyOf(ids))),
+            record -> record.get("id").asString());
+    }
+
+    // ---- Change feed: writes stamp changeVersion from the GraphChange counter node ----
+
+    public long findChangeVersion() {
+        List<Long> versions = run(new Statement("changeVersion",
+                "OPTIONAL MATCH (c:GraphChange {id: 'graph'}) RETURN coalesce(c.seq, 0) AS seq", Map.of()),
+            record -> record.get("seq").asLong());
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    /**
+     * Nodes of {@code label} stamped after {@code since} up to {@code until}, at most {@code limit} of them.
+     * The label must be a constant.
+     */
+    public List<NodeChange> findChangedNodes(String label, long since, long until, int limit) {
+        String cypher = "MATCH (n:" + label + ") WHERE n.changeVersion > $since AND n.changeVersion <= $until " +
+            "RETURN n.id AS id, n.changeVersion AS version LIMIT $limit";
+        return run(new Statement("changedNodes", cypher, Map.of("since", since, "until", until, "limit", limit)),
+            record -> new NodeChange(label, record.get("id").asString(null), record.get("version").asLong()));
+    }
+
+    /**
+     * Relationships of {@code type} stamped after {@code since} up to {@code until}, at most {@code limit} of them.
+     * Labels and type must be constants.
+     */
+    public List<RelationshipChange> findChangedRelationships(String sourceLabel, String type, String targetLabel,
+                                                             long since, long until, int limit) {
+        String cypher = "MATCH (a:" + sourceLabel + ")-[r:" + type + "]->(b:" + targetLabel + ") " +
+            "WHERE r.changeVersion > $since AND r.changeVersion <= $until " +
+            "RETURN a.id AS source, b.id AS target, r.changeVersion AS version LIMIT $limit";
+        return run(new Statement("changedRelationships", cypher, Map.of("since", since, "until", until, "limit", limit)),
+            record -> new RelationshipChange(type, record.get("source").asString(null), record.get("target").asString(null),
+                record.get("version").asLong()));
+    }
+
+    private <T> List<T> findAll(String name, String cypher, Function<Value, T> mapper) {
+        return run(new Statement(name, cypher, Map.of()), record -> mapper.apply(record.get("node")));
+    }
+
+    private <T> List<T> findByIds(String name, String cypher, Collection<String> ids, Function<Value, T> mapper) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return run(new Statement(name, cypher, Map.of("ids", List.copyOf(ids))), record -> mapper.apply(record.get("node")));
+    }
+
+    /**
+     * Employees whose lowercased name equals one of {@code names}, each with the projects they worked on.
+     * Names must already be normalized with {@link #normalizeName(String)}.
+     */
+    @Override
+    public List<EmployeeProjects> findEmployeesByNames(Collection<String> names) {
+        if (names.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return run(employeesByNamesStatement(names), KnowledgeGraphReadRepository::toEmployeeProjects);
+    }
+
+    /**
+     * Normal form stored in {@code Employee.nameLower}: trimmed, lowercased, single spaces.
+     */
+    public static String normalizeName(String name) {
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public ContextRows findPeopleByProjectContext(String category, Collection<String> keywords) {
+        return fetchContext(peopleByProjectStatement(category, keywords));
+    }
+
+    @Override
+    public ContextRows findOutcomesContext(String category, String keyword, Collection<String> keywords) {
+        return fetchContext(outcomesStatement(category, keyword, keywords));
+    }
+
+    @Override
+    public ContextRows findProjectOutcomesContext(String category, Collection<String> keywords) {
+        return fetchContext(projectOutcomesStatement(category, keywords));
+    }
+
+    @Override
+    public ContextRows findReportsContext(String category, Collection<String> keywords) {
+        return fetchContext(reportsStatement(category, keywords));
+    }
+
+    @Override
+    public ContextRows findComprehensiveContext(String category, String keyword, Collection<String> keywords,
+                                                Collection<String> employeeIds, Collection<String> projectIds) {
+        return fetchContext(comprehensiveStatement(category, keyword, keywords, employeeIds, projectIds));
+    }
+
+    @Override
+    public ContextRows findNeighbourhoodContext(Collection<String> employeeIds, Collection<String> projectIds,
+                                                GraphExpansion expansion) {
+        return fetchContext(neighbourhoodStatement(employeeIds, projectIds, expansion));
+    }
+
+    // Statements are built here and shared with ReactiveKnowledgeGraphReadRepository
+    Statement peopleByProjectStatement(String category, Collection<String> keywords) {
+        return statement("peopleByProjectContext", PEOPLE_BY_PROJECT_CONTEXT, Map.of(
+            "category", category,
+            "projectQuery", textQuery(keywords, FullTextQuery.phrase("category", category), FullTextQuery.phrase("name", category))));
+    }
+
+    Statement outcomesStatement(String category, String keyword, Collection<String> keywords) {
+        return statement("outcomesContext", OUTCOMES_CONTEXT, Map.of(
+            "outcomeQuery", textQuery(keywords, FullTextQuery.phrase("category", category), FullTextQuery.phrase("description", keyword)),
+            "projectQuery", textQuery(keywords, FullTextQuery.phrase("category", category))));
+    }
+
+    Statement projectOutcomesStatement(String category, Collection<String> keywords) {
+        return statement("projectOutcomesContext", PROJECT_OUTCOMES_CONTEXT, Map.of(
+            "projectQuery", textQuery(keywords, FullTextQuery.phrase("category", category))));
+    }
+
+    Statement reportsStatement(String category, Collection<String> keywords) {
+        return statement("reportsContext", REPORTS_CONTEXT, Map.of(
+            "projectQuery", textQuery(keywords, FullTextQuery.phrase("category", category))));
+    }
+
+    Statement comprehensiveStatement(String category, String keyword, Collection<String> keywords,
+                                     Collection<String> employeeIds, Collection<String> projectIds) {
+        return statement("comprehensiveContext", COMPREHENSIVE_CONTEXT, Map.of(
+            "category", category,
+            "projectQuery", textQuery(keywords, FullTextQuery.phrase("category", category), FullTextQuery.phrase("name", category)),
+            "outcomeQuery", textQuery(keywords, FullTextQuery.phrase(category), FullTextQuery.phrase(keyword)),
+            "employeeIds", List.copyOf(employeeIds),
+            "projectIds", List.copyOf(projectIds)));
+    }
+
+    Statement neighbourhoodStatement(Collection<String> employeeIds, Collection<String> projectIds, GraphExpansion expansion) {
+        return statement("neighbourhoodContext", neighbourhood(expansion), Map.of(
+            "employeeIds", List.copyOf(employeeIds),
+            "projectIds", List.copyOf(projectIds),
+            "fanOut", expansion.fanOut(),
+            "nodeBudget", expansion.nodeBudget()));
+    }
+
+    Statement employeesByNamesStatement(Collection<String> names) {
+        return statement("employeesByNames", EMPLOYEES_BY_NAMES, Map.of("names", List.copyOf(names)));
+    }
+
+    private Statement statement(String name, String cypher, Map<String, Object> statementParameters) {
+        Map<String, Object> parameters = ranking.parameters();
+        parameters.put("limit", searchLimit);
+        parameters.putAll(statementParameters);
+        return new Statement(name, cypher, parameters);
+    }
+
+    /**
+     * The given clauses plus a phrase for every extracted keyword. Lucene adds up the scores of the clauses a
+     * node matches, so nodes matching more of the query rank higher.
+     */
+    private static String textQuery(Collection<String> keywords, String... clauses) {
+        List<String> all = new ArrayList<>(List.of(clauses));
+        keywords.forEach(keyword -> all.add(FullTextQuery.phrase(keyword)));
+        return FullTextQuery.anyOf(all.toArray(String[]::new));
+    }
+
+    private ContextRows fetchContext(Statement statement) {
+        List<ContextRows> rows = run(statement, KnowledgeGraphReadRepository::toContextRows);
+        return rows.isEmpty() ? ContextRows.empty() : rows.get(0);
+    }
+
+    /**
+     * Runs a statement on the driver directly, so its {@link org.neo4j.driver.summary.ResultSummary} can be
+     * handed to the {@link QueryProfiler} once all records have been read.
+     */
+    private <T> List<T> run(Statement statement, Function<Record, T> mapper) {
+        QueryProfiler.Execution execution = profiler.prepare(statement.cypher());
+        String intent = GraphQueryContext.currentIntent();
+        try (Session session = driver.session(sessionConfig)) {
+            Result result = session.run(execution.cypher(), statement.parameters(), transactionConfig);
+            List<T> rows = new ArrayList<>(result.list(mapper::apply));
+            profiler.record(statement.name(), intent, result.consume());
+            return rows;
+        }
+    }
+
+    // Shared with ReactiveKnowledgeGraphReadRepository, so both run against the same database and timeout
+    SessionConfig sessionConfig() {
+        return sessionConfig;
+    }
+
+    TransactionConfig transactionConfig() {
+        return transactionConfig;
+    }
+
+    static ContextRows toContextRows(Record record) {
+        return new ContextRows(
+            column(record, "employees", KnowledgeGraphReadRepository::toEmployeeView),
+            column(record, "projects", KnowledgeGraphReadRepository::toProjectView),
+            column(record, "outcomes", KnowledgeGraphReadRepository::toOutcomeView),
+            column(record, "reports", KnowledgeGraphReadRepository::toReportView),
+            column(record, "projectSummaries", KnowledgeGraphReadRepository::toProjectSummary));
+    }
+
+    static EmployeeProjects toEmployeeProjects(Record record) {
+        return new EmployeeProjects(
+            toEmployeeView(record.get("employee")),
+            column(record, "projects", KnowledgeGraphReadRepository::toProjectView));
+    }
+
+    private static <T> List<T> column(Record record, String key, Function<Value, T> mapper) {
+        if (!record.containsKey(key) || record.get(key).isNull()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(record.get(key).asList(mapper));
+    }
+
+    private static EmployeeView toEmployeeView(Value map) {
+        return new EmployeeView(text(map, "id"), text(map, "name"), text(map, "role"),
+            text(map, "department"), text(map, "email"), changeVersion(map));
+    }
+
+    private static ProjectView toProjectView(Value map) {
+        return new ProjectView(text(map, "id"), text(map, "name"), text(map, "description"),
+            text(map, "category"), text(map, "status"), text(map, "startDate"), changeVersion(map));
+    }
+
+    private static OutcomeView toOutcomeView(Value map) {
+        return new OutcomeView(text(map, "id"), text(map, "description"), text(map, "impactLevel"),
+            text(map, "metrics"), text(map, "category"), changeVersion(map));
+    }
+
+    private static ReportView toReportView(Value map) {
+        return new ReportView(text(map, "id"), text(map, "title"), text(map, "type"),
+            text(map, "date"), text(map, "filePath"), text(map, "summary"), changeVersion(map));
+    }
+
+    private static ProjectSummary toProjectSummary(Value map) {
+        return new ProjectSummary(
+            text(map, "projectName"),
+            text(map, "projectDescription"),
+            texts(map, "teamMembers"),
+            texts(map, "outcomes"),
+            texts(map, "metrics"),
+            texts(map, "supportingReports"));
+    }
+
+    private static String text(Value value, String key) {
+        Value field = value.get(key);
+        return field.isNull() ? null : field.asString();
+    }
+
+    // Nodes written before change stamping, or by hand, have no changeVersion
+    private static long changeVersion(Value map) {
+        Value field = map.get("changeVersion");
+        return field.isNull() ? 0 : field.asLong();
+    }
+
+    private static List<String> texts(Value value, String key) {
+        Value field = value.get(key);
+        return field.isNull() ? null : field.asList(Value::asString);
+    }
+}
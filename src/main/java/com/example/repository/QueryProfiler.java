@@ -0,0 +1,137 @@
+package com.example.repository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.neo4j.driver.summary.Plan;
+import org.neo4j.driver.summary.ProfiledPlan;
+import org.neo4j.driver.summary.ResultSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the driver's {@link ResultSummary} for every read repository statement.
+ * Server-side timings are published for all of them, tagged with the statement name and query intent.
+ * A configurable share of statements is run with {@code PROFILE}; for those the database hits, rows and
+ * plan are recorded as well, and the latest profile of each statement is kept for inspection.
+ */
+@Component
+@Slf4j
+public class QueryProfiler {
+
+    /**
+     * Cypher to send and whether it was prefixed with {@code PROFILE}.
+     */
+    public record Execution(String cypher, boolean profiled) {}
+
+    public record Profile(String query, String intent, long dbHits, long rows, long availableAfterMillis,
+                          long consumedAfterMillis, String plan, Instant capturedAt) {}
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Profile> latestProfiles = new ConcurrentHashMap<>();
+
+    private volatile double sampleRate;
+
+    public QueryProfiler(MeterRegistry meterRegistry,
+                         @Value("${kag.graph.profiling.sample-rate:0.0}") double sampleRate) {
+        this.meterRegistry = meterRegistry;
+        setSampleRate(sampleRate);
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Fraction of statements run with {@code PROFILE}, between 0 and 1. Profiling costs extra work on the
+     * server, so keep it low in production and raise it only while investigating.
+     */
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = Math.max(0.0, Math.min(1.0, sampleRate));
+        log.info("Neo4j query profiling sample rate set to {}", this.sampleRate);
+    }
+
+    public Execution prepare(String cypher) {
+        double rate = sampleRate;
+        boolean profiled = rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+        return new Execution(profiled ? "PROFILE " + cypher : cypher, profiled);
+    }
+
+    public void record(String query, String intent, ResultSummary summary) {
+        long availableAfter = Math.max(0, summary.resultAvailableAfter(TimeUnit.MILLISECONDS));
+        long consumedAfter = Math.max(0, summary.resultConsumedAfter(TimeUnit.MILLISECONDS));
+        Timer.builder("kag.graph.query.available")
+            .description("Time until Neo4j had the first result of a statement ready")
+            .tag("query", query)
+            .tag("intent", intent)
+            .register(meterRegistry)
+            .record(availableAfter, TimeUnit.MILLISECONDS);
+        Timer.builder("kag.graph.query.consumed")
+            .description("Time Neo4j spent streaming the rest of a statement's results")
+            .tag("query", query)
+            .tag("intent", intent)
+            .register(meterRegistry)
+            .record(consumedAfter, TimeUnit.MILLISECONDS);
+
+        if (!summary.hasProfile()) {
+            return;
+        }
+        ProfiledPlan profile = summary.profile();
+        long dbHits = totalDbHits(profile);
+        DistributionSummary.builder("kag.graph.query.db-hits")
+            .description("Database hits of profiled statements")
+            .tag("query", query)
+            .tag("intent", intent)
+            .register(meterRegistry)
+            .record(dbHits);
+
+        String plan = render(profile);
+        latestProfiles.put(query, new Profile(query, intent, dbHits, profile.records(), availableAfter, consumedAfter,
+            plan, Instant.now()));
+        log.info("Profiled {} ({}): {} db hits, {} rows, available after {} ms, consumed after {} ms\n{}",
+            query, intent, dbHits, profile.records(), availableAfter, consumedAfter, plan);
+    }
+
+    /**
+     * Latest profile of each statement, keyed by statement name.
+     */
+    public Map<String, Profile> getLatestProfiles() {
+        return new TreeMap<>(latestProfiles);
+    }
+
+    private static long totalDbHits(ProfiledPlan plan) {
+        long hits = plan.dbHits();
+        for (ProfiledPlan child : plan.children()) {
+            hits += totalDbHits(child);
+        }
+        return hits;
+    }
+
+    private static String render(ProfiledPlan plan) {
+        StringBuilder sb = new StringBuilder();
+        render(plan, 0, sb);
+        return sb.toString();
+    }
+
+    private static void render(ProfiledPlan plan, int depth, StringBuilder sb) {
+        sb.append("  ".repeat(depth))
+            .append(plan.operatorType())
+            .append(" (db hits: ").append(plan.dbHits())
+            .append(", rows: ").append(plan.records());
+        if (!plan.identifiers().isEmpty()) {
+            sb.append(", ").append(String.join(", ", plan.identifiers()));
+        }
+        sb.append(")\n");
+        for (Plan child : plan.children()) {
+            render((ProfiledPlan) child, depth + 1, sb);
+        }
+    }
+}
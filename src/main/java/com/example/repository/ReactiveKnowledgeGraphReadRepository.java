@@ -0,0 +1,98 @@
+package com.example.repository;
+
+import com.example.repository.KnowledgeGraphReadRepository.ContextRows;
+import com.example.repository.KnowledgeGraphReadRepository.EmployeeProjects;
+import com.example.repository.KnowledgeGraphReadRepository.Statement;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.reactivestreams.ReactiveResult;
+import org.neo4j.driver.reactivestreams.ReactiveSession;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Non-blocking counterpart of {@link KnowledgeGraphReadRepository}: the same statements, mappings, database and
+ * transaction timeout, run in a {@link ReactiveSession} so no thread is held while Neo4j works on them.
+ */
+@Repository
+public class ReactiveKnowledgeGraphReadRepository {
+
+    private final Driver driver;
+    private final KnowledgeGraphReadRepository statements;
+    private final QueryProfiler profiler;
+
+    public ReactiveKnowledgeGraphReadRepository(Driver driver, KnowledgeGraphReadRepository statements,
+                                                QueryProfiler profiler) {
+        this.driver = driver;
+        this.statements = statements;
+        this.profiler = profiler;
+    }
+
+    public Mono<ContextRows> findPeopleByProjectContext(String category, Collection<String> keywords) {
+        return fetchContext(statements.peopleByProjectStatement(category, keywords));
+    }
+
+    public Mono<ContextRows> findOutcomesContext(String category, String keyword, Collection<String> keywords) {
+        return fetchContext(statements.outcomesStatement(category, keyword, keywords));
+    }
+
+    public Mono<ContextRows> findProjectOutcomesContext(String category, Collection<String> keywords) {
+        return fetchContext(statements.projectOutcomesStatement(category, keywords));
+    }
+
+    public Mono<ContextRows> findReportsContext(String category, Collection<String> keywords) {
+        return fetchContext(statements.reportsStatement(category, keywords));
+    }
+
+    public Mono<ContextRows> findComprehensiveContext(String category, String keyword, Collection<String> keywords,
+                                                      Collection<String> employeeIds, Collection<String> projectIds) {
+        return fetchContext(statements.comprehensiveStatement(category, keyword, keywords, employeeIds, projectIds));
+    }
+
+    public Mono<ContextRows> findNeighbourhoodContext(Collection<String> employeeIds, Collection<String> projectIds,
+                                                      GraphExpansion expansion) {
+        return fetchContext(statements.neighbourhoodStatement(employeeIds, projectIds, expansion));
+    }
+
+    /**
+     * Names must already be normalized with {@link KnowledgeGraphReadRepository#normalizeName(String)}.
+     */
+    public Mono<List<EmployeeProjects>> findEmployeesByNames(Collection<String> names) {
+        if (names.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return run(statements.employeesByNamesStatement(names), KnowledgeGraphReadRepository::toEmployeeProjects);
+    }
+
+    private Mono<ContextRows> fetchContext(Statement statement) {
+        return run(statement, KnowledgeGraphReadRepository::toContextRows)
+            .map(rows -> rows.isEmpty() ? ContextRows.empty() : rows.get(0));
+    }
+
+    /**
+     * Streams the records, then consumes the result so its summary reaches the {@link QueryProfiler}.
+     * The intent is taken from the subscriber's context under {@link GraphQueryContext#INTENT_KEY}.
+     */
+    private <T> Mono<List<T>> run(Statement statement, Function<Record, T> mapper) {
+        return Mono.deferContextual(context -> {
+            String intent = context.getOrDefault(GraphQueryContext.INTENT_KEY, GraphQueryContext.NONE);
+            QueryProfiler.Execution execution = profiler.prepare(statement.cypher());
+            return Mono.usingWhen(
+                    Mono.fromSupplier(() -> driver.session(ReactiveSession.class, statements.sessionConfig())),
+                    session -> Mono.from(session.run(execution.cypher(), statement.parameters(), statements.transactionConfig()))
+                        .flatMap((ReactiveResult result) -> Flux.from(result.records())
+                            .map(mapper)
+                            .collectList()
+                            .flatMap(rows -> Mono.from(result.consume())
+                                .doOnNext(summary -> profiler.record(statement.name(), intent, summary))
+                                .thenReturn(rows))),
+                    ReactiveSession::close)
+                .defaultIfEmpty(List.of());
+        });
+    }
+}
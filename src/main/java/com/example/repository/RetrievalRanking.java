@@ -0,0 +1,70 @@
+package com.example.repository;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * How retrieved nodes are ranked and how many of each type a context may hold.
+ * A project ranks by its full-text score plus {@code recencyWeight} times the recency of its start date;
+ * people rank by the summed rank of the matched projects they worked on, outcomes by their best project or
+ * text rank plus {@code impactWeight} times their impact level, and reports by their best project rank plus
+ * the weighted recency of their date. The Cypher statements and the in-memory snapshot use the same formulas.
+ */
+public record RetrievalRanking(int employeeLimit, int projectLimit, int outcomeLimit, int reportLimit,
+                               double impactWeight, double recencyWeight) {
+
+    // Cypher for recency(): months since a 'yyyy-MM-dd' string, 0 when missing or malformed
+    static String recencyCypher(String property) {
+        return "coalesce(1.0 / (1 + abs(date().year * 12 + date().month - toInteger(left(" + property + ", 4)) * 12 " +
+            "- toInteger(substring(" + property + ", 5, 2))) / 12.0), 0.0)";
+    }
+
+    // Cypher for impact()
+    static String impactCypher(String outcome) {
+        return "CASE toLower(" + outcome + ".impactLevel) WHEN 'critical' THEN 1.0 WHEN 'high' THEN 0.8 " +
+            "WHEN 'medium' THEN 0.5 WHEN 'low' THEN 0.2 ELSE 0.0 END";
+    }
+
+    /**
+     * 1 for this month, 0.5 a year ago, 0 when the date is missing or malformed.
+     */
+    public static double recency(String isoDate, LocalDate today) {
+        if (isoDate == null || isoDate.length() < 7) {
+            return 0.0;
+        }
+        try {
+            int year = Integer.parseInt(isoDate.substring(0, 4));
+            int month = Integer.parseInt(isoDate.substring(5, 7));
+            int months = Math.abs(today.getYear() * 12 + today.getMonthValue() - year * 12 - month);
+            return 1.0 / (1 + months / 12.0);
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
+    public static double impact(String impactLevel) {
+        if (impactLevel == null) {
+            return 0.0;
+        }
+        return switch (impactLevel.toLowerCase(Locale.ROOT)) {
+            case "critical" -> 1.0;
+            case "high" -> 0.8;
+            case "medium" -> 0.5;
+            case "low" -> 0.2;
+            default -> 0.0;
+        };
+    }
+
+    Map<String, Object> parameters() {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("employeeLimit", employeeLimit);
+        parameters.put("projectLimit", projectLimit);
+        parameters.put("outcomeLimit", outcomeLimit);
+        parameters.put("reportLimit", reportLimit);
+        parameters.put("impactWeight", impactWeight);
+        parameters.put("recencyWeight", recencyWeight);
+        return parameters;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.repository.projection;
+
+/**
+ * Read-only employee fields used by the prompt context and citations.
+ * {@code changeVersion} is the change version of the last stamped write, 0 for nodes never stamped.
+ */
+public record EmployeeView(String id, String name, String role, String department, String email, long changeVersion) {}
@@ -0,0 +1,8 @@
+package com.example.repository.projection;
+
+/**
+ * Read-only outcome fields used by the prompt context and citations.
+ * {@code changeVersion} is the change version of the last stamped write, 0 for nodes never stamped.
+ */
+public record OutcomeView(String id, String description, String impactLevel, String metrics, String category,
+                          long changeVersion) {}
@@ -0,0 +1,9 @@
+package com.example.repository.projection;
+
+import java.util.List;
+
+/**
+ * A project with the names of its team members, its outcomes and metrics, and the reports documenting them.
+ */
+public record ProjectSummary(String projectName, String projectDescription, List<String> teamMembers,
+                             List<String> outcomes, List<String> metrics, List<String> supportingReports) {}
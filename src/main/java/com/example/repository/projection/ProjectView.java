@@ -0,0 +1,8 @@
+package com.example.repository.projection;
+
+/**
+ * Read-only project fields used by the prompt context and citations.
+ * {@code changeVersion} is the change version of the last stamped write, 0 for nodes never stamped.
+ */
+public record ProjectView(String id, String name, String description, String category, String status, String startDate,
+                          long changeVersion) {}
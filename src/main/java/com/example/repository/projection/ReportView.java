@@ -0,0 +1,8 @@
+package com.example.repository.projection;
+
+/**
+ * Read-only report fields used by the prompt context and citations. The full report content is not loaded.
+ * {@code changeVersion} is the change version of the last stamped write, 0 for nodes never stamped.
+ */
+public record ReportView(String id, String title, String type, String date, String filePath, String summary,
+                         long changeVersion) {}
@@ -1,5 +1,7 @@
 package com.example.service.ai;
 
+import reactor.core.publisher.Flux;
+
 /**
  * Abstract interface for AI/LLM service providers
  * This allows for easy integration of multiple AI providers like Ollama, OpenAI, etc.
@@ -16,6 +18,16 @@ public interface AIService
      */
     String chat(String message, String systemMessage, String model);
 
+    /**
+     * Send a streaming chat request to the AI provider without blocking the caller
+     *
+     * @param message       The user message
+     * @param systemMessage The system message (optional)
+     * @param model         The model to use (optional, defaults to the configured model)
+     * @return The AI response, emitted in chunks as the provider produces them
+     */
+    Flux<String> stream(String message, String systemMessage, String model);
+
     public String getModelName();
 
 }
\ No newline at end of file
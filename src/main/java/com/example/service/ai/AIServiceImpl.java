@@ -8,6 +8,7 @@ import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 @Slf4j
 @Service
@@ -42,6 +43,22 @@ public class AIServiceImpl extends AbstractAIService
         }
     }
 
+    @Override
+    public Flux<String> stream(String message, String systemMessage, String model)
+    {
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
+        String requestId = String.valueOf(System.nanoTime());
+        logLLMRequest(requestId, timestamp, message, systemMessage, model);
+        Prompt prompt = new Prompt(message);
+        return chatModel.stream(prompt)
+            .filter(response -> response.getResult() != null && response.getResult().getOutput().getText() != null)
+            .map(response -> response.getResult().getOutput().getText())
+            .onErrorResume(e -> {
+                log.error("Error in streaming chat call: {}", e.getMessage(), e);
+                return Flux.just("Error calling AI service: " + e.getMessage());
+            });
+    }
+
     @Override
     public String getModelName()
     {
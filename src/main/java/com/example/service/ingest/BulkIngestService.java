@@ -0,0 +1,308 @@
+package com.example.service.ingest;
+
+import com.example.repository.KnowledgeGraphReadRepository;
+import com.example.service.kag.GraphVersion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Loads JSONL and CSV exports of employees, projects, outcomes, reports and their relationships into Neo4j.
+ * Each file is streamed and written in batched {@code UNWIND ... MERGE} transactions, so memory stays constant
+ * however large the export. Node files load in parallel, one worker per label; relationship files follow once
+ * all nodes exist, one type at a time, since every relationship write locks both end nodes. Batches run as managed
+ * transactions, which the driver retries on transient failures within {@code spring.neo4j.max-transaction-retry-time};
+ * that is safe because every write is a MERGE on ids. If a node file fails, the other label workers stop at their
+ * next batch and the job ends only once all of them have. Written entities are stamped for
+ * the {@link com.example.service.kag.GraphChangeFeed}, which tells caches and the snapshot about them; with the
+ * feed disabled the graph version is bumped once the job has written anything.
+ * <p>
+ * Files are read from directories under {@code kag.ingest.directory}; see {@link IngestKind} for file names.
+ */
+@Service
+@Slf4j
+public class BulkIngestService {
+
+    private final Driver driver;
+    private final GraphVersion graphVersion;
+    private final IngestFileReader fileReader;
+    private final Executor ingestExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Path root;
+    private final String database;
+    private final int batchSize;
+    private final boolean changeFeedEnabled;
+    private final Map<String, IngestJob> jobs = new ConcurrentHashMap<>();
+    // Jobs run one at a time so two imports never compete for the same nodes
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "graph-ingest");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BulkIngestService(
+            Driver driver,
+            GraphVersion graphVersion,
+            ObjectMapper objectMapper,
+            @Qualifier("ingestExecutor") Executor ingestExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${kag.ingest.directory:./ingest}") Path root,
+            @Value("${spring.data.neo4j.database:neo4j}") String database,
+            @Value("${kag.ingest.batch-size:5000}") int batchSize,
+            @Value("${kag.graph.change-feed.enabled:true}") boolean changeFeedEnabled) {
+        this.driver = driver;
+        this.graphVersion = graphVersion;
+        this.fileReader = new IngestFileReader(objectMapper);
+        this.ingestExecutor = ingestExecutor;
+        this.meterRegistry = meterRegistry;
+        this.root = root.toAbsolutePath().normalize();
+        this.database = database;
+        this.batchSize = batchSize;
+        this.changeFeedEnabled = changeFeedEnabled;
+
+        Gauge.builder("kag.ingest.running", jobs, all -> all.values().stream()
+                .filter(job -> job.getStatus() == IngestJob.Status.RUNNING).count())
+            .description("Bulk ingest jobs currently running")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queues an ingest of every recognised file in {@code directory}, relative to {@code kag.ingest.directory}.
+     */
+    public IngestJob start(String directory) {
+        Path source = root.resolve(directory).normalize();
+        if (!source.startsWith(root) || !Files.isDirectory(source)) {
+            throw new IllegalArgumentException("No ingest directory '" + directory + "' under " + root);
+        }
+        Map<Path, IngestKind> files = discover(source);
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("No ingest files found in " + source);
+        }
+
+        IngestJob job = new IngestJob(UUID.randomUUID().toString(), source, files);
+        jobs.put(job.getId(), job);
+        log.info("Bulk ingest {} queued for {} files in {}", job.getId(), files.size(), source);
+        coordinator.execute(() -> run(job, files));
+        return job;
+    }
+
+    public Optional<IngestJob> job(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public Collection<IngestJob> jobs() {
+        return jobs.values();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+    }
+
+    private static Map<Path, IngestKind> discover(Path directory) {
+        Map<Path, IngestKind> files = new LinkedHashMap<>();
+        try (Stream<Path> entries = Files.list(directory)) {
+            entries.filter(Files::isRegularFile)
+                .filter(IngestFileReader::isSupported)
+                .sorted(Comparator.comparing(Path::toString))
+                .forEach(file -> IngestKind.forFile(file.getFileName().toString()).ifPresent(kind -> files.put(file, kind)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return files;
+    }
+
+    private void run(IngestJob job, Map<Path, IngestKind> files) {
+        log.info("=== BULK INGEST {} START ===", job.getId());
+        try {
+            List<CompletableFuture<Void>> nodeLoads = new ArrayList<>();
+            files.forEach((file, kind) -> {
+                if (!kind.isRelationship()) {
+                    nodeLoads.add(CompletableFuture.runAsync(() -> load(job, file, kind), ingestExecutor)
+                        .whenComplete((ignored, failure) -> {
+                            if (failure != null) {
+                                // The other label workers stop at their next batch instead of writing on
+                                job.abort(failure instanceof CompletionException ? failure.getCause() : failure);
+                            }
+                        }));
+                }
+            });
+            // allOf completes only once every worker has stopped, so nothing is still writing when the job ends
+            try {
+                CompletableFuture.allOf(nodeLoads.toArray(CompletableFuture[]::new)).join();
+            } catch (CompletionException | CancellationException e) {
+                // Report the failure that stopped the job, not a sibling that was stopped because of it
+                Throwable cause = job.abortCause() != null ? job.abortCause() : e;
+                throw cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+            }
+
+            files.forEach((file, kind) -> {
+                if (kind.isRelationship()) {
+                    load(job, file, kind);
+                }
+            });
+            job.finish(job.hasFailures() ? IngestJob.Status.COMPLETED_WITH_ERRORS : IngestJob.Status.COMPLETED);
+        } catch (RuntimeException e) {
+            log.error("Bulk ingest {} failed: {}", job.getId(), e.getMessage(), e);
+            job.error("Ingest aborted: " + e.getMessage());
+            job.finish(IngestJob.Status.FAILED);
+        } finally {
+            // With the change feed on, it reports the stamped writes and the caches apply them
+            if (job.rowsWritten() > 0 && !changeFeedEnabled) {
+                graphVersion.bump("bulk ingest " + job.getId());
+            }
+            IngestJob.Report report = job.report();
+            log.info("Bulk ingest {} {}: {} rows written at {} rows/s", job.getId(), report.status(),
+                report.rowsWritten(), Math.round(report.rowsPerSecond()));
+            log.info("=== BULK INGEST {} END ===", job.getId());
+        }
+    }
+
+    private void load(IngestJob job, Path file, IngestKind kind) {
+        IngestJob.FileProgress progress = job.progress(file);
+        List<Map<String, Object>> batch = new ArrayList<>(batchSize);
+        log.info("Loading {} from {}", kind, file.getFileName());
+        try {
+            fileReader.read(file, new IngestFileReader.RowHandler() {
+                @Override
+                public void row(Map<String, Object> raw) {
+                    progress.rowsRead.incrementAndGet();
+                    String problem = problem(kind, raw);
+                    if (problem != null) {
+                        reject(progress.rowsRead.get(), problem);
+                        return;
+                    }
+                    batch.add(shape(kind, raw));
+                    if (batch.size() == batchSize) {
+                        stopIfAborted(job, file);
+                        write(job, progress, List.copyOf(batch));
+                        batch.clear();
+                    }
+                }
+
+                @Override
+                public void reject(long line, String reason) {
+                    progress.rowsRejected.incrementAndGet();
+                    meterRegistry.counter("kag.ingest.rows", "kind", kind.name(), "result", "rejected").increment();
+                    job.error(file.getFileName() + " row " + line + ": " + reason);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        }
+        if (!batch.isEmpty()) {
+            stopIfAborted(job, file);
+            write(job, progress, List.copyOf(batch));
+        }
+        log.info("Loaded {} from {}: {} written, {} skipped, {} rejected, {} failed", kind, file.getFileName(),
+            progress.rowsWritten.get(), progress.rowsSkipped.get(), progress.rowsRejected.get(), progress.rowsFailed.get());
+    }
+
+    private static void stopIfAborted(IngestJob job, Path file) {
+        if (job.isAborted()) {
+            throw new CancellationException("Stopped loading " + file.getFileName() + " after another file failed");
+        }
+    }
+
+    /**
+     * Why a row cannot be loaded, or null when it can.
+     */
+    private static String problem(IngestKind kind, Map<String, Object> row) {
+        List<String> required = kind.isRelationship() ? List.of("source", "target") : List.of("id");
+        for (String column : required) {
+            Object value = row.get(column);
+            if (value == null || value.toString().isBlank()) {
+                return "missing '" + column + "'";
+            }
+        }
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Map<?, ?> || value instanceof List<?> list && list.stream().anyMatch(item -> item instanceof Map<?, ?> || item instanceof List<?>)) {
+                return "'" + entry.getKey() + "' is not a plain value or list of values";
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, Object> shape(IngestKind kind, Map<String, Object> raw) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        if (kind.isRelationship()) {
+            Map<String, Object> properties = new LinkedHashMap<>(raw);
+            row.put("source", properties.remove("source").toString());
+            row.put("target", properties.remove("target").toString());
+            properties.values().removeIf(value -> value == null);
+            row.put("properties", properties);
+            return row;
+        }
+        raw.forEach((key, value) -> {
+            if (value != null) {
+                row.put(key, value);
+            }
+        });
+        row.put("id", raw.get("id").toString());
+        // Same normal form the name lookups query, so ingested people are found by name straight away
+        if (kind == IngestKind.EMPLOYEE && raw.get("name") instanceof String name) {
+            row.put("nameLower", KnowledgeGraphReadRepository.normalizeName(name));
+        }
+        return row;
+    }
+
+    private void write(IngestJob job, IngestJob.FileProgress progress, List<Map<String, Object>> rows) {
+        IngestKind kind = progress.kind;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // executeWrite retries transient failures itself; anything that escapes it is final
+        try (Session session = driver.session(SessionConfig.forDatabase(database))) {
+            long written = session.executeWrite(tx -> tx.run(kind.cypher(), Map.of("rows", rows)).single().get("written").asLong());
+            long skipped = Math.max(0, rows.size() - written);
+            progress.rowsWritten.addAndGet(written);
+            progress.rowsSkipped.addAndGet(skipped);
+            progress.batches.incrementAndGet();
+            meterRegistry.counter("kag.ingest.rows", "kind", kind.name(), "result", "written").increment(written);
+            meterRegistry.counter("kag.ingest.rows", "kind", kind.name(), "result", "skipped").increment(skipped);
+        } catch (RuntimeException e) {
+            failBatch(job, progress, rows, e);
+        }
+        sample.stop(Timer.builder("kag.ingest.batch")
+            .description("Time taken to write one bulk ingest batch, including driver retries")
+            .tag("kind", kind.name())
+            .register(meterRegistry));
+    }
+
+    private void failBatch(IngestJob job, IngestJob.FileProgress progress, List<Map<String, Object>> rows, RuntimeException e) {
+        log.error("{} batch of {} rows from {} failed: {}", progress.kind, rows.size(), progress.file.getFileName(), e.getMessage());
+        progress.rowsFailed.addAndGet(rows.size());
+        progress.batches.incrementAndGet();
+        meterRegistry.counter("kag.ingest.rows", "kind", progress.kind.name(), "result", "failed").increment(rows.size());
+        job.error(progress.file.getFileName() + ": batch of " + rows.size() + " rows failed - " + e.getMessage());
+    }
+}
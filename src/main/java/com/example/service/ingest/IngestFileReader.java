@@ -0,0 +1,171 @@
+package com.example.service.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Streams the rows of a JSONL or CSV ingest file one at a time, so memory use does not grow with the file.
+ * <p>
+ * JSONL holds one flat JSON object per line. CSV has a header row; a column named {@code skills[]} is a list
+ * whose cell separates values with {@code ;}. Integer and decimal CSV cells become numbers, except the
+ * {@code id}, {@code source} and {@code target} columns, which always stay strings.
+ */
+class IngestFileReader {
+
+    interface RowHandler {
+        void row(Map<String, Object> row);
+
+        void reject(long line, String reason);
+    }
+
+    private static final TypeReference<LinkedHashMap<String, Object>> ROW = new TypeReference<>() {};
+    private static final Set<String> ID_COLUMNS = Set.of("id", "source", "target");
+    private static final Pattern INTEGER = Pattern.compile("-?(0|[1-9][0-9]{0,17})");
+    private static final Pattern DECIMAL = Pattern.compile("-?[0-9]+\\.[0-9]+");
+
+    private final ObjectMapper objectMapper;
+
+    IngestFileReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    static boolean isSupported(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".csv");
+    }
+
+    void read(Path file, RowHandler handler) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv")) {
+                readCsv(reader, handler);
+            } else {
+                readJsonLines(reader, handler);
+            }
+        }
+    }
+
+    private void readJsonLines(BufferedReader reader, RowHandler handler) throws IOException {
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                handler.row(objectMapper.readValue(line, ROW));
+            } catch (JsonProcessingException e) {
+                handler.reject(lineNumber, "invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private static void readCsv(BufferedReader reader, RowHandler handler) throws IOException {
+        long[] lineNumber = {0};
+        List<String> header = nextRecord(reader, lineNumber);
+        if (header == null) {
+            return;
+        }
+        List<String> record;
+        while ((record = nextRecord(reader, lineNumber)) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            if (record.size() != header.size()) {
+                handler.reject(lineNumber[0], "expected " + header.size() + " columns but found " + record.size());
+                continue;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                String column = header.get(i).trim();
+                String cell = record.get(i);
+                if (cell.isEmpty()) {
+                    continue;
+                }
+                if (column.endsWith("[]")) {
+                    row.put(column.substring(0, column.length() - 2),
+                        Arrays.stream(cell.split(";")).map(String::trim).filter(value -> !value.isEmpty()).toList());
+                } else {
+                    row.put(column, ID_COLUMNS.contains(column) ? cell : typed(cell));
+                }
+            }
+            handler.row(row);
+        }
+    }
+
+    private static Object typed(String cell) {
+        if (INTEGER.matcher(cell).matches()) {
+            return Long.parseLong(cell);
+        }
+        if (DECIMAL.matcher(cell).matches()) {
+            return Double.parseDouble(cell);
+        }
+        return cell;
+    }
+
+    /**
+     * One RFC 4180 record: quoted fields may contain commas, doubled quotes and line breaks.
+     */
+    private static List<String> nextRecord(BufferedReader reader, long[] lineNumber) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        lineNumber[0]++;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                String next = reader.readLine();
+                if (next == null) {
+                    break;
+                }
+                lineNumber[0]++;
+                field.append('\n');
+                line = next;
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"' && i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.service.ingest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one bulk ingest run, updated by the workers while it runs and read by the status endpoint.
+ */
+public class IngestJob {
+
+    public enum Status { RUNNING, COMPLETED, COMPLETED_WITH_ERRORS, FAILED }
+
+    public record FileReport(String file, IngestKind kind, long rowsRead, long rowsWritten, long rowsSkipped,
+                             long rowsRejected, long rowsFailed, long batches) {}
+
+    public record Report(String id, String directory, Status status, Instant startedAt, Instant finishedAt,
+                         long rowsWritten, double rowsPerSecond, List<FileReport> files, List<String> errors) {}
+
+    private static final int MAX_ERRORS = 100;
+
+    /**
+     * Counters of one file. Rows are read, then either written, skipped (relationship end nodes missing),
+     * rejected (malformed) or failed (their batch failed after all retries).
+     */
+    static final class FileProgress {
+        final Path file;
+        final IngestKind kind;
+        final AtomicLong rowsRead = new AtomicLong();
+        final AtomicLong rowsWritten = new AtomicLong();
+        final AtomicLong rowsSkipped = new AtomicLong();
+        final AtomicLong rowsRejected = new AtomicLong();
+        final AtomicLong rowsFailed = new AtomicLong();
+        final AtomicLong batches = new AtomicLong();
+
+        FileProgress(Path file, IngestKind kind) {
+            this.file = file;
+            this.kind = kind;
+        }
+
+        FileReport report() {
+            return new FileReport(file.getFileName().toString(), kind, rowsRead.get(), rowsWritten.get(),
+                rowsSkipped.get(), rowsRejected.get(), rowsFailed.get(), batches.get());
+        }
+    }
+
+    private final String id;
+    private final Path directory;
+    private final Instant startedAt = Instant.now();
+    private final Map<Path, FileProgress> files = new LinkedHashMap<>();
+    private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile Throwable abortCause;
+
+    IngestJob(String id, Path directory, Map<Path, IngestKind> files) {
+        this.id = id;
+        this.directory = directory;
+        files.forEach((file, kind) -> this.files.put(file, new FileProgress(file, kind)));
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    FileProgress progress(Path file) {
+        return files.get(file);
+    }
+
+    void error(String message) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(message);
+        }
+    }
+
+    /**
+     * Asks the running workers to stop; the first cause is kept.
+     */
+    synchronized void abort(Throwable cause) {
+        if (abortCause == null) {
+            abortCause = cause;
+        }
+    }
+
+    boolean isAborted() {
+        return abortCause != null;
+    }
+
+    Throwable abortCause() {
+        return abortCause;
+    }
+
+    void finish(Status status) {
+        this.finishedAt = Instant.now();
+        this.status = status;
+    }
+
+    long rowsWritten() {
+        return files.values().stream().mapToLong(progress -> progress.rowsWritten.get()).sum();
+    }
+
+    boolean hasFailures() {
+        return files.values().stream().anyMatch(progress -> progress.rowsFailed.get() > 0 || progress.rowsRejected.get() > 0);
+    }
+
+    public Report report() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long written = rowsWritten();
+        double seconds = Math.max(0.001, Duration.between(startedAt, end).toMillis() / 1000.0);
+        List<FileReport> fileReports = files.values().stream().map(FileProgress::report).toList();
+        List<String> errorsSoFar;
+        synchronized (errors) {
+            errorsSoFar = List.copyOf(errors);
+        }
+        return new Report(id, directory.toString(), status, startedAt, finishedAt, written, written / seconds,
+            fileReports, errorsSoFar);
+    }
+}
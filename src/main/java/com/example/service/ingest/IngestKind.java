@@ -0,0 +1,95 @@
+package com.example.service.ingest;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * What one ingest file holds: nodes of one label or relationships of one type. The file's base name selects
+ * the kind, e.g. {@code employees.jsonl} or {@code worked_on.csv}.
+ * <p>
+ * Node rows need an {@code id}; every other column becomes a property. Relationship rows need {@code source}
+ * and {@code target} node ids; every other column becomes a relationship property. Batches MERGE on those ids,
+ * so loading the same file twice, or retrying a batch, leaves the graph unchanged.
+ * <p>
+ * Every written node and relationship is stamped with {@code updatedAt} and a {@code changeVersion} taken from
+ * the {@code GraphChange} counter node, which {@code GraphChangeFeed} polls for deltas. The counter is
+ * incremented last in each batch, so its lock is held only while the transaction commits and versions are
+ * assigned in commit order.
+ */
+public enum IngestKind {
+    EMPLOYEE("employees", "Employee", null, null),
+    PROJECT("projects", "Project", null, null),
+    OUTCOME("outcomes", "Outcome", null, null),
+    REPORT("reports", "Report", null, null),
+    WORKED_ON("worked_on", null, "Employee", "Project"),
+    MANAGED("managed", null, "Employee", "Project"),
+    ACHIEVED("achieved", null, "Project", "Outcome"),
+    PRODUCED("produced", null, "Project", "Report"),
+    DOCUMENTS("documents", null, "Report", "Outcome"),
+    AUTHORED("authored", null, "Employee", "Report"),
+    REVIEWED("reviewed", null, "Employee", "Report"),
+    COLLABORATED_WITH("collaborated_with", null, "Employee", "Employee");
+
+    private final String fileName;
+    private final String label;
+    private final String sourceLabel;
+    private final String targetLabel;
+
+    IngestKind(String fileName, String label, String sourceLabel, String targetLabel) {
+        this.fileName = fileName;
+        this.label = label;
+        this.sourceLabel = sourceLabel;
+        this.targetLabel = targetLabel;
+    }
+
+    private static final String STAMP =
+        "MERGE (c:GraphChange {id: 'graph'}) ON CREATE SET c.seq = 0 " +
+        "SET c.seq = c.seq + 1 " +
+        "WITH changed, c.seq AS version " +
+        "UNWIND changed AS item " +
+        "SET item.changeVersion = version, item.updatedAt = datetime() " +
+        "RETURN count(*) AS written";
+
+    public boolean isRelationship() {
+        return label == null;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public String sourceLabel() {
+        return sourceLabel;
+    }
+
+    public String targetLabel() {
+        return targetLabel;
+    }
+
+    /**
+     * Statement for one batch of rows. Returns how many rows were written; relationship rows whose end nodes
+     * do not exist are skipped and not counted.
+     */
+    String cypher() {
+        if (!isRelationship()) {
+            return "UNWIND $rows AS row MERGE (n:" + label + " {id: row.id}) SET n += row " +
+                "WITH collect(n) AS changed " + STAMP;
+        }
+        return "UNWIND $rows AS row " +
+            "MATCH (a:" + sourceLabel + " {id: row.source}) " +
+            "MATCH (b:" + targetLabel + " {id: row.target}) " +
+            "MERGE (a)-[r:" + name() + "]->(b) SET r += row.properties " +
+            "WITH collect(r) AS changed " + STAMP;
+    }
+
+    public static Optional<IngestKind> forFile(String fileName) {
+        int dot = fileName.indexOf('.');
+        String base = (dot < 0 ? fileName : fileName.substring(0, dot)).toLowerCase(Locale.ROOT);
+        for (IngestKind kind : values()) {
+            if (kind.fileName.equals(base)) {
+                return Optional.of(kind);
+            }
+        }
+        return Optional.empty();
+    }
+}
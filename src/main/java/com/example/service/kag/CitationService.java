@@ -1,6 +1,5 @@
 package com.example.service.kag;
 
-import com.example.entity.Report;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -100,13 +99,13 @@ public class CitationService {
     private void addProjectCitations(StringBuilder response, KnowledgeGraphContext context, List<Citation> citations) {
         // Add citations for project names mentioned
         context.getProjects().forEach(project -> {
-            if (response.toString().contains(project.getName())) {
+            if (response.toString().contains(project.name())) {
                 Citation citation = Citation.builder()
                         .type(CitationType.PROJECT)
-                        .content(project.getName())
-                        .sourceDocument(project.getName() + " Project Documentation")
+                        .content(project.name())
+                        .sourceDocument(project.name() + " Project Documentation")
                         .sourceType("Project")
-                        .metadata("Start: " + project.getStartDate() + ", Status: " + project.getStatus())
+                        .metadata("Start: " + project.startDate() + ", Status: " + project.status())
                         .build();
                 
                 if (!citations.contains(citation)) {
@@ -117,12 +116,11 @@ public class CitationService {
         
         // Add citations for project summaries
         context.getProjectSummaries().forEach(summary -> {
-            String summaryStr = summary.toString();
-            if (summaryStr.contains("projectName")) {
+            if (summary.projectName() != null) {
                 Citation citation = Citation.builder()
                         .type(CitationType.PROJECT_SUMMARY)
                         .content("Project Summary")
-                        .sourceDocument(extractProjectNameFromSummary(summaryStr))
+                        .sourceDocument(summary.projectName())
                         .sourceType("Project Summary")
                         .build();
                 
@@ -140,11 +138,11 @@ public class CitationService {
         context.getReports().forEach(report -> {
             citations.add(Citation.builder()
                     .type(CitationType.REPORT)
-                    .content(report.getTitle())
-                    .sourceDocument(report.getTitle())
+                    .content(report.title())
+                    .sourceDocument(report.title())
                     .sourceType("Report")
-                    .filePath(report.getFilePath())
-                    .metadata("Date: " + report.getDate() + ", Type: " + report.getType())
+                    .filePath(report.filePath())
+                    .metadata("Date: " + report.date() + ", Type: " + report.type())
                     .build());
         });
         
@@ -188,15 +186,4 @@ public class CitationService {
         }
         return "Internal Documentation";
     }
-    
-    private String extractProjectNameFromSummary(String summaryString) {
-        if (summaryString.contains("projectName=")) {
-            int start = summaryString.indexOf("projectName=") + 12;
-            int end = summaryString.indexOf(",", start);
-            if (end > start) {
-                return summaryString.substring(start, end).trim();
-            }
-        }
-        return "Project Documentation";
-    }
-}
\ No newline at end of file
+}
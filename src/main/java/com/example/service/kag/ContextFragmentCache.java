@@ -0,0 +1,96 @@
+package com.example.service.kag;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Rendered context lines of single entities, kept as UTF-8 bytes so a prompt is assembled by copying bytes
+ * instead of formatting every entity again. Fragments are keyed by section and entity id and carry the version
+ * they were rendered from, the entity's {@code changeVersion}, so a read from a snapshot taken before a write
+ * never picks up a line rendered after it, nor the other way round. Project summaries span several nodes and
+ * have no version of their own; they carry the summary itself and are only used while it is equal.
+ * Entities reported by the {@link GraphChangeFeed} are evicted straight away, and everything is dropped when
+ * the {@link GraphVersion} is bumped, since writes outside bulk ingest are not stamped.
+ */
+@Component
+@Slf4j
+public class ContextFragmentCache {
+
+    record Key(ContextPacker.Section section, String id) {}
+
+    private record Entry(Object version, byte[] utf8) {}
+
+    private final Cache<Key, Entry> cache;
+
+    public ContextFragmentCache(
+            @Value("${kag.context.fragment-cache.max-size:50000}") long maxSize,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "contextFragments");
+    }
+
+    /**
+     * The rendered fragment of {@code source}, rendering and caching it when missing or rendered from another
+     * version of the entity.
+     */
+    public <T> byte[] get(ContextPacker.Section section, String id, Object version, T source,
+                          Function<T, String> renderer) {
+        Key key = new Key(section, id);
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null && Objects.equals(cached.version(), version)) {
+            return cached.utf8();
+        }
+        byte[] utf8 = renderer.apply(source).getBytes(StandardCharsets.UTF_8);
+        cache.put(key, new Entry(version, utf8));
+        return utf8;
+    }
+
+    @EventListener
+    public void onGraphChanged(GraphChangeEvent event) {
+        if (event.truncated()) {
+            invalidateAll();
+            return;
+        }
+        Set<String> employeeIds = event.changedIds("Employee");
+        Set<String> projectIds = event.changedIds("Project");
+        Set<String> outcomeIds = event.changedIds("Outcome");
+        Set<String> reportIds = event.changedIds("Report");
+        if (employeeIds.isEmpty() && projectIds.isEmpty() && outcomeIds.isEmpty() && reportIds.isEmpty()) {
+            return;
+        }
+        // Project summaries are keyed by name and compared in full instead
+        cache.asMap().keySet().removeIf(key -> switch (key.section()) {
+            case EMPLOYEES -> employeeIds.contains(key.id());
+            case PROJECTS -> projectIds.contains(key.id());
+            case OUTCOMES -> outcomeIds.contains(key.id());
+            case REPORTS -> reportIds.contains(key.id());
+            case PROJECT_SUMMARIES -> false;
+        });
+        log.debug("Evicted context fragments of {} employees, {} projects, {} outcomes and {} reports",
+            employeeIds.size(), projectIds.size(), outcomeIds.size(), reportIds.size());
+    }
+
+    @EventListener
+    public void onGraphVersionChanged(GraphVersion.ChangedEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        log.info("Context fragment cache cleared");
+    }
+}
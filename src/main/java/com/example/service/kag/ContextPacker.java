@@ -0,0 +1,368 @@
+package com.example.service.kag;
+
+import com.example.repository.projection.EmployeeView;
+import com.example.repository.projection.OutcomeView;
+import com.example.repository.projection.ProjectSummary;
+import com.example.repository.projection.ProjectView;
+import com.example.repository.projection.ReportView;
+import com.example.service.nlp.QueryEntities;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Renders a {@link KnowledgeGraphContext} for the LLM within a token budget. Every entity is rendered on its own
+ * and its tokens estimated; entities are ranked by how many of the query's keywords, names and resolved ids they
+ * match, with retrieval order breaking ties. Each section first gets its minimum number of entities, then the
+ * rest of the budget goes to the best ranked entities of any section. Kept entities are written in retrieval
+ * order, so an unconstrained context renders exactly as before.
+ * <p>
+ * Entities are rendered once into UTF-8 fragments held by the {@link ContextFragmentCache}; ranking scans those
+ * bytes and the context is copied together into a single buffer sized up front.
+ */
+@Component
+@Slf4j
+public class ContextPacker {
+
+    static final String HEADER = "KNOWLEDGE GRAPH CONTEXT:\n\n";
+    private static final byte[] HEADER_UTF8 = HEADER.getBytes(StandardCharsets.UTF_8);
+    private static final byte NEWLINE = '\n';
+
+    public enum Section {
+        EMPLOYEES("EMPLOYEES", 2),
+        PROJECTS("PROJECTS", 2),
+        PROJECT_SUMMARIES("PROJECT SUMMARIES", 1),
+        OUTCOMES("OUTCOMES", 2),
+        REPORTS("SUPPORTING REPORTS", 1);
+
+        private final byte[] heading;
+        private final int defaultMinimum;
+
+        Section(String title, int defaultMinimum) {
+            this.heading = (title + ":\n").getBytes(StandardCharsets.UTF_8);
+            this.defaultMinimum = defaultMinimum;
+        }
+
+        /**
+         * Name used in the {@code kag.context.section-minimums} property, e.g. {@code project-summaries}.
+         */
+        String key() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    /**
+     * What was packed for one prompt: the model and budget used, the estimated tokens of the rendered context,
+     * and per section how many entities were kept and dropped.
+     */
+    public record Report(String model, int tokenBudget, int estimatedTokens,
+                         Map<Section, Integer> included, Map<Section, Integer> dropped) {
+
+        public int droppedTotal() {
+            return dropped.values().stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+
+    public record PackedContext(String text, Report report) {}
+
+    private record Fragment(Section section, int index, byte[] utf8, int tokens, int score) {}
+
+    private final int defaultBudget;
+    private final Map<String, Integer> modelBudgets;
+    private final Map<Section, Integer> sectionMinimums = new EnumMap<>(Section.class);
+    private final double charsPerToken;
+    private final ContextFragmentCache fragmentCache;
+    private final DistributionSummary tokenSummary;
+    private final Map<Section, Counter> droppedCounters = new EnumMap<>(Section.class);
+
+    public ContextPacker(
+            @Value("${kag.context.token-budget:3000}") int defaultBudget,
+            @Value("${kag.context.model-budgets:}") String modelBudgets,
+            @Value("${kag.context.section-minimums:}") String sectionMinimums,
+            @Value("${kag.context.chars-per-token:4.0}") double charsPerToken,
+            ContextFragmentCache fragmentCache,
+            MeterRegistry meterRegistry) {
+        if (defaultBudget <= 0 || charsPerToken <= 0) {
+            throw new IllegalArgumentException("kag.context.token-budget and kag.context.chars-per-token must be positive");
+        }
+        this.defaultBudget = defaultBudget;
+        this.modelBudgets = new HashMap<>();
+        parsePairs(modelBudgets, "kag.context.model-budgets")
+            .forEach((model, budget) -> this.modelBudgets.put(model.toLowerCase(Locale.ROOT), budget));
+        Map<String, Integer> minimums = parsePairs(sectionMinimums, "kag.context.section-minimums");
+        for (Section section : Section.values()) {
+            this.sectionMinimums.put(section, minimums.getOrDefault(section.key(), section.defaultMinimum));
+            minimums.remove(section.key());
+            droppedCounters.put(section, Counter.builder("kag.context.dropped")
+                .description("Entities left out of the LLM context to fit the token budget")
+                .tag("section", section.key())
+                .register(meterRegistry));
+        }
+        if (!minimums.isEmpty()) {
+            throw new IllegalArgumentException("Unknown sections in kag.context.section-minimums: " + minimums.keySet());
+        }
+        this.charsPerToken = charsPerToken;
+        this.fragmentCache = fragmentCache;
+        this.tokenSummary = DistributionSummary.builder("kag.context.tokens")
+            .description("Estimated tokens of the knowledge graph context sent to the LLM")
+            .register(meterRegistry);
+        log.info("Context packer: {} tokens by default, per model {}, section minimums {}",
+            defaultBudget, this.modelBudgets, this.sectionMinimums);
+    }
+
+    public int budgetFor(String model) {
+        return model == null ? defaultBudget : modelBudgets.getOrDefault(model.toLowerCase(Locale.ROOT), defaultBudget);
+    }
+
+    /**
+     * Estimated tokens of {@code length} characters; for fragments the UTF-8 byte count stands in, which is the
+     * same for ASCII text.
+     */
+    public int estimateTokens(int length) {
+        return (int) Math.ceil(length / charsPerToken);
+    }
+
+    public PackedContext pack(KnowledgeGraphContext context, QueryEntities entities, String model) {
+        int budget = budgetFor(model);
+        List<byte[]> terms = terms(entities);
+        Set<String> ids = new LinkedHashSet<>();
+        ids.addAll(entities.getEmployeeIds());
+        ids.addAll(entities.getProjectIds());
+
+        Map<Section, List<Fragment>> candidates = new EnumMap<>(Section.class);
+        candidates.put(Section.EMPLOYEES, fragments(Section.EMPLOYEES, context.getEmployees(),
+            ContextPacker::renderEmployee, EmployeeView::id, EmployeeView::changeVersion, EmployeeView::id, terms, ids));
+        candidates.put(Section.PROJECTS, fragments(Section.PROJECTS, context.getProjects(),
+            ContextPacker::renderProject, ProjectView::id, ProjectView::changeVersion, ProjectView::id, terms, ids));
+        // A summary spans several nodes, so it is cached by project name and only used while it is equal
+        candidates.put(Section.PROJECT_SUMMARIES, fragments(Section.PROJECT_SUMMARIES, context.getProjectSummaries(),
+            ContextPacker::renderSummary, ProjectSummary::projectName, summary -> summary, summary -> null, terms, ids));
+        candidates.put(Section.OUTCOMES, fragments(Section.OUTCOMES, context.getOutcomes(),
+            ContextPacker::renderOutcome, OutcomeView::id, OutcomeView::changeVersion, OutcomeView::id, terms, ids));
+        candidates.put(Section.REPORTS, fragments(Section.REPORTS, context.getReports(),
+            ContextPacker::renderReport, ReportView::id, ReportView::changeVersion, ReportView::id, terms, ids));
+
+        int[] used = {estimateTokens(HEADER_UTF8.length)};
+        Map<Section, List<Fragment>> kept = new EnumMap<>(Section.class);
+        List<Fragment> rest = new ArrayList<>();
+        for (Map.Entry<Section, List<Fragment>> entry : candidates.entrySet()) {
+            Section section = entry.getKey();
+            List<Fragment> ranked = new ArrayList<>(entry.getValue());
+            ranked.sort(Comparator.comparingInt(Fragment::score).reversed().thenComparingInt(Fragment::index));
+            int minimum = Math.min(sectionMinimums.get(section), ranked.size());
+            for (int i = 0; i < ranked.size(); i++) {
+                if (i >= minimum || !take(ranked.get(i), kept, used, budget)) {
+                    rest.add(ranked.get(i));
+                }
+            }
+        }
+        rest.sort(Comparator.comparingInt(Fragment::score).reversed()
+            .thenComparingInt(Fragment::index)
+            .thenComparing(Fragment::section));
+        for (Fragment fragment : rest) {
+            take(fragment, kept, used, budget);
+        }
+
+        int size = HEADER_UTF8.length;
+        Map<Section, Integer> included = new LinkedHashMap<>();
+        Map<Section, Integer> dropped = new LinkedHashMap<>();
+        for (Section section : Section.values()) {
+            List<Fragment> sectionKept = kept.getOrDefault(section, List.of());
+            int droppedCount = candidates.get(section).size() - sectionKept.size();
+            if (!sectionKept.isEmpty()) {
+                sectionKept.sort(Comparator.comparingInt(Fragment::index));
+                size += section.heading.length + 1;
+                for (Fragment fragment : sectionKept) {
+                    size += fragment.utf8().length;
+                }
+                included.put(section, sectionKept.size());
+            }
+            if (droppedCount > 0) {
+                dropped.put(section, droppedCount);
+                droppedCounters.get(section).increment(droppedCount);
+            }
+        }
+
+        byte[] buffer = new byte[size];
+        int position = copy(HEADER_UTF8, buffer, 0);
+        for (Section section : Section.values()) {
+            List<Fragment> sectionKept = kept.get(section);
+            if (sectionKept != null) {
+                position = copy(section.heading, buffer, position);
+                for (Fragment fragment : sectionKept) {
+                    position = copy(fragment.utf8(), buffer, position);
+                }
+                buffer[position++] = NEWLINE;
+            }
+        }
+
+        String text = new String(buffer, StandardCharsets.UTF_8);
+        Report report = new Report(model, budget, estimateTokens(size), included, dropped);
+        tokenSummary.record(report.estimatedTokens());
+        if (!dropped.isEmpty()) {
+            log.info("Context packed into {} of {} tokens for model {}, dropped {}",
+                report.estimatedTokens(), budget, model, dropped);
+        } else {
+            log.info("Context packed into {} of {} tokens for model {}, nothing dropped",
+                report.estimatedTokens(), budget, model);
+        }
+        return new PackedContext(text, report);
+    }
+
+    /**
+     * Keeps the fragment if it fits what is left of the budget, counting its section heading when it is the first.
+     */
+    private boolean take(Fragment fragment, Map<Section, List<Fragment>> kept, int[] used, int budget) {
+        List<Fragment> sectionKept = kept.get(fragment.section());
+        int cost = fragment.tokens() + (sectionKept == null ? estimateTokens(fragment.section().heading.length + 1) : 0);
+        if (used[0] + cost > budget) {
+            return false;
+        }
+        used[0] += cost;
+        kept.computeIfAbsent(fragment.section(), section -> new ArrayList<>()).add(fragment);
+        return true;
+    }
+
+    /**
+     * Fragments of the items of one section. Items with a cache key come from the fragment cache, the rest are
+     * rendered on the spot.
+     */
+    private <T> List<Fragment> fragments(Section section, List<T> items, Function<T, String> renderer,
+                                         Function<T, String> cacheKeyOf, Function<T, Object> versionOf,
+                                         Function<T, String> idOf,
+                                         List<byte[]> terms, Set<String> ids) {
+        List<Fragment> fragments = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            String cacheKey = cacheKeyOf.apply(item);
+            byte[] utf8 = cacheKey != null
+                ? fragmentCache.get(section, cacheKey, versionOf.apply(item), item, renderer)
+                : renderer.apply(item).getBytes(StandardCharsets.UTF_8);
+            fragments.add(new Fragment(section, i, utf8, estimateTokens(utf8.length), score(utf8, idOf.apply(item), terms, ids)));
+        }
+        return fragments;
+    }
+
+    /**
+     * One point per query term found in the rendered entity, and three for an entity the query resolved by id.
+     */
+    static int score(byte[] utf8, String id, List<byte[]> terms, Set<String> ids) {
+        int score = id != null && ids.contains(id) ? 3 : 0;
+        for (byte[] term : terms) {
+            if (containsIgnoreCase(utf8, term)) {
+                score++;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Searches the fragment bytes for a lower-cased term without decoding them. Only ASCII letters are folded;
+     * other characters must match exactly.
+     */
+    static boolean containsIgnoreCase(byte[] text, byte[] lowerTerm) {
+        outer:
+        for (int start = 0; start <= text.length - lowerTerm.length; start++) {
+            for (int i = 0; i < lowerTerm.length; i++) {
+                byte b = text[start + i];
+                if (b >= 'A' && b <= 'Z') {
+                    b += 'a' - 'A';
+                }
+                if (b != lowerTerm[i]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static List<byte[]> terms(QueryEntities entities) {
+        Set<String> terms = new LinkedHashSet<>();
+        entities.allKeywords().forEach(keyword -> terms.add(keyword.toLowerCase(Locale.ROOT)));
+        entities.getPersonNames().forEach(name -> terms.add(name.toLowerCase(Locale.ROOT)));
+        entities.getOrganizations().forEach(organization -> terms.add(organization.toLowerCase(Locale.ROOT)));
+        terms.removeIf(term -> term.length() < 2);
+        return terms.stream().map(term -> term.getBytes(StandardCharsets.UTF_8)).toList();
+    }
+
+    private static int copy(byte[] source, byte[] buffer, int position) {
+        System.arraycopy(source, 0, buffer, position, source.length);
+        return position + source.length;
+    }
+
+    static String renderEmployee(EmployeeView emp) {
+        return String.format("- %s (%s) - %s, %s\n", emp.name(), emp.role(), emp.department(), emp.email());
+    }
+
+    static String renderProject(ProjectView proj) {
+        return String.format("- %s: %s (Status: %s)\n", proj.name(), proj.description(), proj.status());
+    }
+
+    static String renderSummary(ProjectSummary summary) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("- %s: %s\n", summary.projectName(), summary.projectDescription()));
+        sb.append(String.format("  Team: %s\n", String.join(", ", summary.teamMembers())));
+        sb.append(String.format("  Outcomes: %s\n", String.join("; ", summary.outcomes())));
+        if (!summary.metrics().isEmpty()) {
+            sb.append(String.format("  Metrics: %s\n", String.join("; ", summary.metrics())));
+        }
+        if (!summary.supportingReports().isEmpty()) {
+            sb.append(String.format("  Reports: %s\n", String.join(", ", summary.supportingReports())));
+        }
+        return sb.toString();
+    }
+
+    static String renderOutcome(OutcomeView outcome) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("- %s (Impact: %s)", outcome.description(), outcome.impactLevel()));
+        if (outcome.metrics() != null && !outcome.metrics().isBlank()) {
+            sb.append(String.format(" - Metrics: %s", outcome.metrics()));
+        }
+        return sb.append('\n').toString();
+    }
+
+    static String renderReport(ReportView report) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("- %s (%s, %s)", report.title(), report.type(), report.date()));
+        if (report.summary() != null && !report.summary().isBlank()) {
+            sb.append(String.format(": %s", report.summary()));
+        }
+        return sb.append('\n').toString();
+    }
+
+    /**
+     * Parses {@code name=value} pairs separated by commas. Names may contain colons and dots, as model tags do.
+     */
+    private static Map<String, Integer> parsePairs(String pairs, String property) {
+        Map<String, Integer> parsed = new LinkedHashMap<>();
+        for (String pair : pairs.split(",")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            int separator = pair.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected name=value in " + property + " but found '" + pair.trim() + "'");
+            }
+            parsed.put(pair.substring(0, separator).trim().toLowerCase(Locale.ROOT),
+                Integer.parseInt(pair.substring(separator + 1).trim()));
+        }
+        return parsed;
+    }
+}
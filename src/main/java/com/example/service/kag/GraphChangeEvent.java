@@ -0,0 +1,32 @@
+package com.example.service.kag;
+
+import com.example.repository.KnowledgeGraphReadRepository.NodeChange;
+import com.example.repository.KnowledgeGraphReadRepository.RelationshipChange;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Nodes and relationships written between two change versions, published by {@link GraphChangeFeed}.
+ * When more changed than the feed reports at once, {@code truncated} is set and the lists are incomplete,
+ * so listeners should treat every entity as changed.
+ */
+public record GraphChangeEvent(long fromVersion, long toVersion, List<NodeChange> nodes,
+                               List<RelationshipChange> relationships, boolean truncated) {
+
+    public boolean touches(String label) {
+        return truncated || nodes.stream().anyMatch(change -> change.label().equals(label));
+    }
+
+    public Set<String> changedIds(String label) {
+        return nodes.stream()
+            .filter(change -> change.label().equals(label))
+            .map(NodeChange::id)
+            .collect(Collectors.toSet());
+    }
+
+    public int size() {
+        return nodes.size() + relationships.size();
+    }
+}
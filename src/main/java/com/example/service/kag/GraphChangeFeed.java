@@ -0,0 +1,112 @@
+package com.example.service.kag;
+
+import com.example.repository.KnowledgeGraphReadRepository;
+import com.example.repository.KnowledgeGraphReadRepository.NodeChange;
+import com.example.repository.KnowledgeGraphReadRepository.RelationshipChange;
+import com.example.service.ingest.IngestKind;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Polls the graph for nodes and relationships written since the last poll and publishes them as a
+ * {@link GraphChangeEvent}. Writes stamp a {@code changeVersion} taken from the {@code GraphChange} counter node
+ * (see {@link IngestKind}); the counter is read first and only versions up to it are collected, so every
+ * change is reported exactly once. Writes that bypass the stamping, such as hand-run Cypher scripts, are not
+ * seen; bump the graph version for those.
+ */
+@Component
+@Slf4j
+public class GraphChangeFeed {
+
+    private final KnowledgeGraphReadRepository readRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int maxChanges;
+    private final Counter changeCounter;
+
+    // Negative until the first poll, which starts the feed at the current version without replaying history
+    private volatile long lastSeenVersion = -1;
+
+    public GraphChangeFeed(
+            KnowledgeGraphReadRepository readRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${kag.graph.change-feed.enabled:true}") boolean enabled,
+            @Value("${kag.graph.change-feed.max-changes:10000}") int maxChanges,
+            MeterRegistry meterRegistry) {
+        this.readRepository = readRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.maxChanges = maxChanges;
+        this.changeCounter = Counter.builder("kag.graph.change-feed.changes")
+            .description("Changed nodes and relationships reported by the change feed")
+            .register(meterRegistry);
+        Gauge.builder("kag.graph.change-feed.version", this, feed -> feed.lastSeenVersion)
+            .description("Last change version published by the change feed")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Scheduled(initialDelayString = "PT0S", fixedDelayString = "${kag.graph.change-feed.poll-interval:PT5S}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long since = lastSeenVersion;
+            long until = readRepository.findChangeVersion();
+            if (since < 0) {
+                lastSeenVersion = until;
+                log.info("Graph change feed starting at change version {}", until);
+                return;
+            }
+            if (until == since) {
+                return;
+            }
+            if (until < since) {
+                // The counter went backwards, so the database was replaced; nothing cached can be trusted
+                log.warn("Change version went back from {} to {}, reporting everything as changed", since, until);
+                publish(new GraphChangeEvent(since, until, List.of(), List.of(), true));
+                return;
+            }
+
+            List<NodeChange> nodes = new ArrayList<>();
+            List<RelationshipChange> relationships = new ArrayList<>();
+            for (IngestKind kind : IngestKind.values()) {
+                int remaining = maxChanges - nodes.size() - relationships.size();
+                if (remaining <= 0) {
+                    break;
+                }
+                if (kind.isRelationship()) {
+                    relationships.addAll(readRepository.findChangedRelationships(
+                        kind.sourceLabel(), kind.name(), kind.targetLabel(), since, until, remaining + 1));
+                } else {
+                    nodes.addAll(readRepository.findChangedNodes(kind.label(), since, until, remaining + 1));
+                }
+            }
+            boolean truncated = nodes.size() + relationships.size() > maxChanges;
+            publish(new GraphChangeEvent(since, until, nodes, relationships, truncated));
+        } catch (Exception e) {
+            log.warn("Graph change feed poll failed, retrying on the next poll: {}", e.getMessage());
+        }
+    }
+
+    private void publish(GraphChangeEvent event) {
+        log.info("Graph change versions {}..{}: {} nodes and {} relationships changed{}", event.fromVersion(),
+            event.toVersion(), event.nodes().size(), event.relationships().size(), event.truncated() ? " (truncated)" : "");
+        changeCounter.increment(event.size());
+        eventPublisher.publishEvent(event);
+        lastSeenVersion = event.toVersion();
+    }
+}
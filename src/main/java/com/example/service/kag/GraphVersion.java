@@ -0,0 +1,55 @@
+package com.example.service.kag;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global stamp for the contents of the knowledge graph. Anything cached from graph reads carries the
+ * version it was read at; bumping the version after a write makes all of it stale at once.
+ * Changes reported by the {@link GraphChangeFeed} are applied entry by entry by the caches themselves;
+ * only a truncated feed event, which cannot say what changed, bumps the version.
+ */
+@Component
+@Slf4j
+public class GraphVersion {
+
+    public record ChangedEvent(long version, String reason) {}
+
+    private final AtomicLong version = new AtomicLong();
+    private final ApplicationEventPublisher eventPublisher;
+
+    public GraphVersion(ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.eventPublisher = eventPublisher;
+        Gauge.builder("kag.graph.version", version, AtomicLong::get)
+            .description("Current knowledge graph version stamp")
+            .register(meterRegistry);
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Advances the version and publishes a {@link ChangedEvent} so caches can drop their entries.
+     */
+    public long bump(String reason) {
+        long next = version.incrementAndGet();
+        log.info("Knowledge graph version bumped to {} ({})", next, reason);
+        eventPublisher.publishEvent(new ChangedEvent(next, reason));
+        return next;
+    }
+
+    @EventListener
+    public void onGraphChanged(GraphChangeEvent event) {
+        if (!event.truncated()) {
+            return;
+        }
+        bump("change feed versions " + event.fromVersion() + ".." + event.toVersion());
+    }
+}
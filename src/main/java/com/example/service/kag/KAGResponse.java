@@ -18,6 +18,8 @@ public class KAGResponse {
     private String userQuery;
     private QueryEntities extractedEntities;
     private KnowledgeGraphContext knowledgeGraphContext;
+    // Token budget used for the context and the entities dropped to fit it
+    private ContextPacker.Report contextReport;
     private String llmResponse;
     private String responseWithCitations;
     private List<Citation> citations;
@@ -6,6 +6,10 @@ import com.example.service.nlp.QueryEntities;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -34,8 +38,10 @@ public class KAGService {
             
             // Step 3: Format context for LLM consumption
             log.info("STEP 3: Formatting context for LLM");
-            String formattedContext = knowledgeGraphQueryService.formatContextForLLM(context);
-            log.info("STEP 3 COMPLETE: Context formatted. Length: {} characters", formattedContext.length());
+            ContextPacker.PackedContext packed = knowledgeGraphQueryService.formatContextForLLM(context, entities, aiService.getModelName());
+            String formattedContext = packed.text();
+            log.info("STEP 3 COMPLETE: Context formatted. Length: {} characters, ~{} tokens",
+                    formattedContext.length(), packed.report().estimatedTokens());
             log.debug("Formatted context: {}", formattedContext);
             
             // Step 4: Generate enhanced prompt with context
@@ -50,39 +56,73 @@ public class KAGService {
             log.info("STEP 5 COMPLETE: AI service response received. Length: {} characters", llmResponse.length());
             log.debug("LLM response: {}", llmResponse);
             
-            // Step 6: Add citations and source tracking
-            log.info("STEP 6: Adding citations");
-            String responseWithCitations = citationService.addCitations(llmResponse, context);
-            log.info("STEP 6 COMPLETE: Citations added");
-            
-            // Step 7: Build final response
-            log.info("STEP 7: Building final KAG response");
-            KAGResponse kagResponse = KAGResponse.builder()
-                    .userQuery(userQuery)
-                    .extractedEntities(entities)
-                    .knowledgeGraphContext(context)
-                    .llmResponse(llmResponse)
-                    .responseWithCitations(responseWithCitations)
-                    .citations(citationService.extractCitations(context))
-                    .build();
-            
-            log.info("=== KAG SERVICE PROCESSING COMPLETE ===");
-            log.info("Final response has {} citations and context with {} total entities", 
-                    kagResponse.getCitations() != null ? kagResponse.getCitations().size() : 0,
-                    context.getTotalEntities());
-            
-            return kagResponse;
+            return buildResponse(userQuery, entities, context, packed.report(), llmResponse);
             
         } catch (Exception e) {
-            log.error("=== KAG SERVICE PROCESSING FAILED ===");
-            log.error("Error processing KAG query: {}", e.getMessage(), e);
-            return KAGResponse.builder()
-                    .userQuery(userQuery)
-                    .error("Failed to process query: " + e.getMessage())
-                    .build();
+            return failedResponse(userQuery, e);
         }
     }
     
+    /**
+     * Non-blocking variant of {@link #processQuery}: the graph is read through the reactive driver and the
+     * LLM answer is streamed and collected, so no thread is held while waiting on Neo4j or the model.
+     * Entity extraction is CPU-bound and runs on the bounded elastic scheduler.
+     */
+    public Mono<KAGResponse> processQueryReactive(String userQuery) {
+        log.info("=== REACTIVE KAG SERVICE PROCESSING START ===");
+        log.info("User query: '{}'", userQuery);
+        
+        return Mono.fromCallable(() -> entityExtractionService.extractEntities(userQuery))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(entities -> knowledgeGraphQueryService.queryKnowledgeGraphReactive(entities)
+                        .flatMap(context -> {
+                            ContextPacker.PackedContext packed = knowledgeGraphQueryService.formatContextForLLM(
+                                    context, entities, aiService.getModelName());
+                            String enhancedPrompt = buildEnhancedPrompt(userQuery, packed.text(), entities);
+                            log.info("Calling AI service with prompt of {} characters", enhancedPrompt.length());
+                            return aiService.stream(enhancedPrompt, getSystemPrompt(), null)
+                                    .collect(Collectors.joining())
+                                    .map(llmResponse -> buildResponse(userQuery, entities, context, packed.report(), llmResponse));
+                        }))
+                .onErrorResume(e -> Mono.just(failedResponse(userQuery, e)));
+    }
+    
+    private KAGResponse buildResponse(String userQuery, QueryEntities entities, KnowledgeGraphContext context,
+                                      ContextPacker.Report contextReport, String llmResponse) {
+        // Step 6: Add citations and source tracking
+        log.info("STEP 6: Adding citations");
+        String responseWithCitations = citationService.addCitations(llmResponse, context);
+        log.info("STEP 6 COMPLETE: Citations added");
+        
+        // Step 7: Build final response
+        log.info("STEP 7: Building final KAG response");
+        KAGResponse kagResponse = KAGResponse.builder()
+                .userQuery(userQuery)
+                .extractedEntities(entities)
+                .knowledgeGraphContext(context)
+                .contextReport(contextReport)
+                .llmResponse(llmResponse)
+                .responseWithCitations(responseWithCitations)
+                .citations(citationService.extractCitations(context))
+                .build();
+        
+        log.info("=== KAG SERVICE PROCESSING COMPLETE ===");
+        log.info("Final response has {} citations and context with {} total entities", 
+                kagResponse.getCitations() != null ? kagResponse.getCitations().size() : 0,
+                context.getTotalEntities());
+        
+        return kagResponse;
+    }
+    
+    private KAGResponse failedResponse(String userQuery, Throwable e) {
+        log.error("=== KAG SERVICE PROCESSING FAILED ===");
+        log.error("Error processing KAG query: {}", e.getMessage(), e);
+        return KAGResponse.builder()
+                .userQuery(userQuery)
+                .error("Failed to process query: " + e.getMessage())
+                .build();
+    }
+    
     private String buildEnhancedPrompt(String userQuery, String context, QueryEntities entities) {
         StringBuilder prompt = new StringBuilder();
         
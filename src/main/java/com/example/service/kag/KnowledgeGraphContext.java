@@ -1,31 +1,51 @@
 package com.example.service.kag;
 
-import com.example.entity.Employee;
-import com.example.entity.Project;
-import com.example.entity.Report;
-import com.example.entity.Outcome;
+import com.example.repository.projection.EmployeeView;
+import com.example.repository.projection.OutcomeView;
+import com.example.repository.projection.ProjectSummary;
+import com.example.repository.projection.ProjectView;
+import com.example.repository.projection.ReportView;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class KnowledgeGraphContext {
     
-    private List<Employee> employees = new ArrayList<>();
-    private List<Project> projects = new ArrayList<>();
-    private List<Report> reports = new ArrayList<>();
-    private List<Outcome> outcomes = new ArrayList<>();
+    private List<EmployeeView> employees = new ArrayList<>();
+    private List<ProjectView> projects = new ArrayList<>();
+    private List<ReportView> reports = new ArrayList<>();
+    private List<OutcomeView> outcomes = new ArrayList<>();
     
     // Additional context from complex queries
-    private List<Object> projectSummaries = new ArrayList<>();
+    private List<ProjectSummary> projectSummaries = new ArrayList<>();
     private List<Object> outcomeDetails = new ArrayList<>();
     private List<Object> reportDetails = new ArrayList<>();
     
+    // Retrieval stages that failed or timed out; non-empty means the context is partial
+    private List<String> retrievalFailures = new ArrayList<>();
+    
+    /**
+     * Returns a copy backed by immutable lists, safe to cache and share between requests.
+     */
+    public KnowledgeGraphContext snapshot() {
+        return new KnowledgeGraphContext(
+            List.copyOf(employees),
+            List.copyOf(projects),
+            List.copyOf(reports),
+            List.copyOf(outcomes),
+            List.copyOf(projectSummaries),
+            List.copyOf(outcomeDetails),
+            List.copyOf(reportDetails),
+            List.copyOf(retrievalFailures));
+    }
+    
     public boolean hasEmployees() {
         return !employees.isEmpty();
     }
@@ -54,6 +74,16 @@ public class KnowledgeGraphContext {
         return !reportDetails.isEmpty();
     }
     
+    /**
+     * Whether any employee, project, outcome or report in this context has one of the given ids.
+     */
+    public boolean references(Set<String> ids) {
+        return employees.stream().anyMatch(employee -> ids.contains(employee.id()))
+            || projects.stream().anyMatch(project -> ids.contains(project.id()))
+            || outcomes.stream().anyMatch(outcome -> ids.contains(outcome.id()))
+            || reports.stream().anyMatch(report -> ids.contains(report.id()));
+    }
+    
     public boolean isEmpty() {
         return employees.isEmpty() && projects.isEmpty() && reports.isEmpty() && 
                outcomes.isEmpty() && projectSummaries.isEmpty() && 
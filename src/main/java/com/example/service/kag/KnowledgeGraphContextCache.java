@@ -0,0 +1,269 @@
+package com.example.service.kag;
+
+import com.example.repository.KnowledgeGraphReadRepository;
+import com.example.repository.KnowledgeGraphReadRepository.NodeChange;
+import com.example.repository.KnowledgeGraphReadRepository.RelationshipChange;
+import com.example.repository.projection.EmployeeView;
+import com.example.repository.projection.OutcomeView;
+import com.example.repository.projection.ProjectView;
+import com.example.service.ingest.IngestKind;
+import com.example.service.nlp.QueryEntities;
+import com.example.service.nlp.QueryIntent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Bounded cache of retrieved {@link KnowledgeGraphContext}s keyed by the inputs that decide the graph queries.
+ * Keys include the {@link GraphVersion} they were read at, and a version bump clears the cache. Changes
+ * reported by the {@link GraphChangeFeed} evict the contexts they could alter: those holding a changed node,
+ * an endpoint of a changed relationship or a neighbour of a changed project, and those whose key could match
+ * a changed node or a project at either end of a changed relationship. Matching reads the nodes' current
+ * properties and tests the key's category and keywords against the text its intent statement searches, as a
+ * word-level substring, which accepts everything the full-text phrase query would.
+ */
+@Component
+@Slf4j
+public class KnowledgeGraphContextCache {
+
+    /**
+     * Everything {@link KnowledgeGraphQueryService} reads from the extracted entities, plus the graph version.
+     */
+    public record Key(QueryIntent intent, String category, String outcomeKeyword, List<String> keywords,
+                      List<String> employeeIds, List<String> projectIds, List<String> personNames, long graphVersion) {}
+
+    /**
+     * Current state of what one change feed event touched.
+     * {@code unreadLabels} holds the labels of changed nodes that could not be read back.
+     */
+    private record Changes(Set<String> heldIds, List<ProjectView> projects, List<OutcomeView> outcomes,
+                           List<EmployeeView> employees, Set<String> unreadLabels) {}
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> ALL_LABELS = Set.of("Employee", "Project", "Outcome", "Report");
+
+    private final Cache<Key, KnowledgeGraphContext> cache;
+    private final GraphVersion graphVersion;
+    private final KnowledgeGraphReadRepository readRepository;
+    // Advanced on every change feed event, so a context read before the change is not cached after the eviction
+    private final AtomicLong changeMark = new AtomicLong();
+
+    public KnowledgeGraphContextCache(
+            @Value("${kag.graph.context-cache.max-size:1000}") long maxSize,
+            @Value("${kag.graph.context-cache.ttl:1h}") Duration ttl,
+            GraphVersion graphVersion,
+            KnowledgeGraphReadRepository readRepository,
+            MeterRegistry meterRegistry) {
+        this.graphVersion = graphVersion;
+        this.readRepository = readRepository;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "knowledgeGraphContext");
+    }
+
+    public Key keyFor(QueryEntities entities) {
+        return new Key(
+            entities.getQueryIntent(),
+            entities.getPrimaryProjectCategory(),
+            entities.getPrimaryOutcomeKeyword(),
+            entities.allKeywords(),
+            sorted(entities.getEmployeeIds()),
+            sorted(entities.getProjectIds()),
+            entities.getPersonNames().stream().map(KnowledgeGraphReadRepository::normalizeName).distinct().sorted().toList(),
+            graphVersion.current());
+    }
+
+    private static List<String> sorted(Collection<String> values) {
+        return values.stream().sorted().toList();
+    }
+
+    public Optional<KnowledgeGraphContext> get(Key key) {
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    /**
+     * Stamp to take before reading a context and hand to {@link #put}.
+     */
+    public long changeMark() {
+        return changeMark.get();
+    }
+
+    /**
+     * Caches the context unless a change was reported since {@code mark}, as it may have been read before it.
+     * The mark is checked again after the put: an eviction that ran in between may have missed the entry.
+     */
+    public void put(Key key, long mark, KnowledgeGraphContext context) {
+        if (changeMark.get() != mark) {
+            return;
+        }
+        cache.put(key, context);
+        if (changeMark.get() != mark) {
+            cache.asMap().remove(key, context);
+        }
+    }
+
+    /**
+     * Runs after the graph snapshot has marked itself stale, so evicted contexts are not read back from it.
+     */
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onGraphChanged(GraphChangeEvent event) {
+        changeMark.incrementAndGet();
+        if (event.truncated() || event.size() == 0) {
+            // GraphVersion bumps and clears everything on a truncated event
+            return;
+        }
+        Changes changes;
+        try {
+            changes = read(event);
+        } catch (Exception e) {
+            log.warn("Could not read changed nodes, clearing the knowledge graph context cache: {}", e.getMessage());
+            invalidateAll();
+            return;
+        }
+        long before = cache.estimatedSize();
+        cache.asMap().entrySet().removeIf(entry -> isStale(entry.getKey(), entry.getValue(), changes));
+        log.debug("Evicted {} cached knowledge graph contexts for {} changes", before - cache.estimatedSize(), event.size());
+    }
+
+    private Changes read(GraphChangeEvent event) {
+        Set<String> changedProjects = event.changedIds("Project");
+        Set<String> changedOutcomes = event.changedIds("Outcome");
+        Set<String> changedEmployees = event.changedIds("Employee");
+        Set<String> heldIds = new HashSet<>();
+        event.nodes().stream().map(NodeChange::id).forEach(heldIds::add);
+        Set<String> projectIds = new HashSet<>(changedProjects);
+        for (RelationshipChange change : event.relationships()) {
+            heldIds.add(change.sourceId());
+            heldIds.add(change.targetId());
+            // A relationship to a project the key matches adds to the context even if the project is not held
+            IngestKind kind = IngestKind.valueOf(change.type());
+            if ("Project".equals(kind.sourceLabel())) {
+                projectIds.add(change.sourceId());
+            }
+            if ("Project".equals(kind.targetLabel())) {
+                projectIds.add(change.targetId());
+            }
+        }
+        heldIds.remove(null);
+        projectIds.remove(null);
+
+        // A project that stopped matching a key still left its outcomes, reports and people in the context
+        heldIds.addAll(readRepository.findNeighbourIds("Project", changedProjects));
+
+        Set<String> unreadLabels = new HashSet<>();
+        List<ProjectView> projects = readRepository.findProjectsByIds(projectIds);
+        unread("Project", changedProjects, projects, ProjectView::id, unreadLabels);
+        List<OutcomeView> outcomes = readRepository.findOutcomesByIds(changedOutcomes);
+        unread("Outcome", changedOutcomes, outcomes, OutcomeView::id, unreadLabels);
+        List<EmployeeView> employees = readRepository.findEmployeesByIds(changedEmployees);
+        unread("Employee", changedEmployees, employees, EmployeeView::id, unreadLabels);
+        return new Changes(heldIds, projects, outcomes, employees, unreadLabels);
+    }
+
+    private static <T> void unread(String label, Set<String> ids, List<T> views, Function<T, String> idOf,
+                                   Set<String> unreadLabels) {
+        if (!views.stream().map(idOf).collect(Collectors.toSet()).containsAll(ids)) {
+            unreadLabels.add(label);
+        }
+    }
+
+    private static boolean isStale(Key key, KnowledgeGraphContext context, Changes changes) {
+        // Project summaries hold names rather than ids, so contexts with summaries are evicted on any change
+        return context.hasProjectSummaries() || context.references(changes.heldIds()) || couldMatch(key, changes);
+    }
+
+    /**
+     * Whether the key's intent statement could now return one of the changed nodes.
+     */
+    private static boolean couldMatch(Key key, Changes changes) {
+        if (changes.unreadLabels().stream().anyMatch(label -> labelsRead(key).contains(label))) {
+            return true;
+        }
+        List<String> projectNeedles = needles(Stream.concat(Stream.of(key.category()), key.keywords().stream()));
+        for (ProjectView project : changes.projects()) {
+            if (key.projectIds().contains(project.id())
+                    || contains(projectNeedles, project.name(), project.description(), project.category())) {
+                return true;
+            }
+        }
+        if (key.intent() == QueryIntent.FIND_OUTCOMES || key.intent() == QueryIntent.COMPREHENSIVE_SEARCH) {
+            List<String> outcomeNeedles = needles(Stream.concat(Stream.of(key.category(), key.outcomeKeyword()),
+                key.keywords().stream()));
+            for (OutcomeView outcome : changes.outcomes()) {
+                if (contains(outcomeNeedles, outcome.description(), outcome.category(), outcome.metrics())) {
+                    return true;
+                }
+            }
+        }
+        for (EmployeeView employee : changes.employees()) {
+            if (key.employeeIds().contains(employee.id()) || (employee.name() != null
+                    && key.personNames().contains(KnowledgeGraphReadRepository.normalizeName(employee.name())))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Labels the key's statements read; outcome searches never reach people or reports unless they expand.
+     */
+    private static Set<String> labelsRead(Key key) {
+        boolean expands = !key.employeeIds().isEmpty() || !key.projectIds().isEmpty();
+        return key.intent() == QueryIntent.FIND_OUTCOMES && !expands ? Set.of("Project", "Outcome") : ALL_LABELS;
+    }
+
+    private static List<String> needles(Stream<String> texts) {
+        return texts.filter(Objects::nonNull).map(KnowledgeGraphContextCache::words).filter(text -> !text.isEmpty())
+            .distinct().toList();
+    }
+
+    private static boolean contains(List<String> needles, String... fields) {
+        for (String field : fields) {
+            String haystack = words(field);
+            if (needles.stream().anyMatch(haystack::contains)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Lowercased words separated by single spaces, the same tokens the full-text analyzer compares
+    private static String words(String text) {
+        return text == null ? "" : NON_WORD.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    @EventListener
+    public void onGraphVersionChanged(GraphVersion.ChangedEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        log.info("Invalidating {} cached knowledge graph contexts", cache.estimatedSize());
+        cache.invalidateAll();
+    }
+}
@@ -1,35 +1,75 @@
 package com.example.service.kag;
 
-import com.example.repository.EmployeeRepository;
-import com.example.repository.ProjectRepository;
-import com.example.repository.ReportRepository;
-import com.example.repository.OutcomeRepository;
+import com.example.repository.GraphContextReader;
+import com.example.repository.GraphExpansion;
+import com.example.repository.GraphQueryContext;
+import com.example.repository.KnowledgeGraphReadRepository;
+import com.example.repository.KnowledgeGraphReadRepository.ContextRows;
+import com.example.repository.KnowledgeGraphReadRepository.EmployeeProjects;
+import com.example.repository.ReactiveKnowledgeGraphReadRepository;
+import com.example.repository.projection.EmployeeView;
+import com.example.repository.projection.OutcomeView;
+import com.example.repository.projection.ProjectView;
+import com.example.repository.projection.ReportView;
+import com.example.service.kag.snapshot.GraphSnapshot;
+import com.example.service.kag.snapshot.GraphSnapshotEngine;
 import com.example.service.nlp.QueryEntities;
 import com.example.service.nlp.QueryIntent;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import com.example.entity.Employee;
-import com.example.entity.Project;
-import com.example.entity.Outcome;
-import com.example.entity.Report;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class KnowledgeGraphQueryService {
     
-    private final EmployeeRepository employeeRepository;
-    private final ProjectRepository projectRepository;
-    private final ReportRepository reportRepository;
-    private final OutcomeRepository outcomeRepository;
+    private final KnowledgeGraphReadRepository readRepository;
+    private final ReactiveKnowledgeGraphReadRepository reactiveReadRepository;
+    private final KnowledgeGraphContextCache contextCache;
+    private final GraphSnapshotEngine snapshotEngine;
+    private final GraphExpansion expansion;
+    private final ContextPacker contextPacker;
+    private final Executor graphQueryExecutor;
+    private final Duration stageTimeout;
+    
+    public KnowledgeGraphQueryService(
+            KnowledgeGraphReadRepository readRepository,
+            ReactiveKnowledgeGraphReadRepository reactiveReadRepository,
+            KnowledgeGraphContextCache contextCache,
+            GraphSnapshotEngine snapshotEngine,
+            GraphExpansion expansion,
+            ContextPacker contextPacker,
+            @Qualifier("graphQueryExecutor") Executor graphQueryExecutor,
+            @Value("${kag.graph.stage-timeout:5s}") Duration stageTimeout) {
+        this.readRepository = readRepository;
+        this.reactiveReadRepository = reactiveReadRepository;
+        this.contextCache = contextCache;
+        this.snapshotEngine = snapshotEngine;
+        this.expansion = expansion;
+        this.contextPacker = contextPacker;
+        this.graphQueryExecutor = graphQueryExecutor;
+        this.stageTimeout = stageTimeout;
+    }
     
     public KnowledgeGraphContext queryKnowledgeGraph(QueryEntities entities) {
         log.info("=== KNOWLEDGE GRAPH QUERY START ===");
@@ -39,33 +79,121 @@ public class KnowledgeGraphQueryService {
         log.info("Employee keywords: {}", entities.getEmployeeKeywords());
         log.info("Project keywords: {}", entities.getProjectKeywords());
         
-        KnowledgeGraphContext context = new KnowledgeGraphContext();
+        KnowledgeGraphContextCache.Key cacheKey = contextCache.keyFor(entities);
+        long changeMark = contextCache.changeMark();
+        var cached = contextCache.get(cacheKey);
+        if (cached.isPresent()) {
+            log.info("Knowledge graph context served from cache (graph version {})", cacheKey.graphVersion());
+            log.info("=== KNOWLEDGE GRAPH QUERY END ===");
+            return cached.get();
+        }
+        
+        // The in-memory snapshot answers while it is as new as the graph, otherwise Neo4j does
+        GraphContextReader reader = snapshotEngine.current().<GraphContextReader>map(snapshot -> snapshot).orElse(readRepository);
+        String intent = entities.getQueryIntent().name();
+        return complete(cacheKey, changeMark, GraphQueryContext.withIntent(intent, () -> query(reader, entities)));
+    }
+    
+    /**
+     * Non-blocking variant of {@link #queryKnowledgeGraph}. Neo4j is read through the reactive driver, so no
+     * thread waits on the database; cache hits and snapshot reads are answered on the calling thread.
+     */
+    public Mono<KnowledgeGraphContext> queryKnowledgeGraphReactive(QueryEntities entities) {
+        return Mono.defer(() -> {
+            log.info("=== REACTIVE KNOWLEDGE GRAPH QUERY START ===");
+            log.info("Query intent: {}", entities.getQueryIntent());
+            
+            KnowledgeGraphContextCache.Key cacheKey = contextCache.keyFor(entities);
+            long changeMark = contextCache.changeMark();
+            var cached = contextCache.get(cacheKey);
+            if (cached.isPresent()) {
+                log.info("Knowledge graph context served from cache (graph version {})", cacheKey.graphVersion());
+                return Mono.just(cached.get());
+            }
+            
+            Optional<GraphSnapshot> snapshot = snapshotEngine.current();
+            if (snapshot.isPresent()) {
+                return Mono.fromSupplier(() -> complete(cacheKey, changeMark, query(snapshot.get(), entities)));
+            }
+            
+            KnowledgeGraphContext context = new KnowledgeGraphContext();
+            String category = entities.getPrimaryProjectCategory();
+            List<String> keywords = entities.allKeywords();
+            Mono<KnowledgeGraphContext> result = switch (entities.getQueryIntent()) {
+                case FIND_PEOPLE_BY_PROJECT -> reactiveContext("peopleByProjectContext",
+                    reactiveReadRepository.findPeopleByProjectContext(category, keywords), context);
+                case FIND_OUTCOMES -> reactiveContext("outcomesContext",
+                    reactiveReadRepository.findOutcomesContext(category, entities.getPrimaryOutcomeKeyword(), keywords), context);
+                case FIND_PROJECT_OUTCOMES -> reactiveContext("projectOutcomesContext",
+                    reactiveReadRepository.findProjectOutcomesContext(category, keywords), context);
+                case FIND_REPORTS -> reactiveContext("reportsContext",
+                    reactiveReadRepository.findReportsContext(category, keywords), context);
+                default -> Mono.zip(
+                        reactiveStage("comprehensiveContext", reactiveReadRepository.findComprehensiveContext(
+                            category, "", keywords, entities.getEmployeeIds(), entities.getProjectIds()), ContextRows.empty(), context),
+                        reactiveStage("employeesByNames",
+                            reactiveReadRepository.findEmployeesByNames(namesToResolve(entities)), List.<EmployeeProjects>of(), context))
+                    .map(results -> {
+                        apply(context, results.getT1());
+                        applyNamedEmployees(context, results.getT2());
+                        return context;
+                    });
+            };
+            if (expandsNeighbourhood(entities)) {
+                result = result.zipWith(reactiveStage("neighbourhoodContext", reactiveReadRepository.findNeighbourhoodContext(
+                        entities.getEmployeeIds(), entities.getProjectIds(), expansion), ContextRows.empty(), context))
+                    .map(results -> {
+                        applyNeighbourhood(results.getT1(), results.getT2());
+                        return results.getT1();
+                    });
+            }
+            return result.map(completed -> complete(cacheKey, changeMark, completed))
+                .contextWrite(ctx -> ctx.put(GraphQueryContext.INTENT_KEY, entities.getQueryIntent().name()));
+        });
+    }
+    
+    private KnowledgeGraphContext query(GraphContextReader reader, QueryEntities entities) {
+        log.info("Reading context from {}", reader.isInMemory() ? "in-memory graph snapshot" : "Neo4j");
         
+        // The neighbourhood of the resolved people and projects is read alongside the intent query
+        GraphStage<ContextRows> neighbourhood = null;
+        if (expandsNeighbourhood(entities)) {
+            neighbourhood = stage("neighbourhoodContext", reader, () -> reader.findNeighbourhoodContext(
+                entities.getEmployeeIds(), entities.getProjectIds(), expansion));
+        }
+        KnowledgeGraphContext context = queryIntent(reader, entities);
+        if (neighbourhood != null) {
+            applyNeighbourhood(context, await(neighbourhood, ContextRows.empty(), context));
+        }
+        return context;
+    }
+    
+    private KnowledgeGraphContext queryIntent(GraphContextReader reader, QueryEntities entities) {
         // Query based on intent and entities
         switch (entities.getQueryIntent()) {
             case FIND_PEOPLE_BY_PROJECT:
                 log.info("Executing FIND_PEOPLE_BY_PROJECT query");
-                context = queryPeopleByProject(entities);
-                break;
+                return queryPeopleByProject(reader, entities);
             case FIND_OUTCOMES:
                 log.info("Executing FIND_OUTCOMES query");
-                context = queryOutcomes(entities);
-                break;
+                return queryOutcomes(reader, entities);
             case FIND_PROJECT_OUTCOMES:
                 log.info("Executing FIND_PROJECT_OUTCOMES query");
-                context = queryProjectOutcomes(entities);
-                break;
+                return queryProjectOutcomes(reader, entities);
             case FIND_REPORTS:
                 log.info("Executing FIND_REPORTS query");
-                context = queryReports(entities);
-                break;
+                return queryReports(reader, entities);
             case COMPREHENSIVE_SEARCH:
             default:
                 log.info("Executing COMPREHENSIVE_SEARCH query");
-                context = queryComprehensive(entities);
-                break;
+                return queryComprehensive(reader, entities);
         }
-        
+    }
+    
+    /**
+     * Logs the result, freezes it and caches it unless a stage failed.
+     */
+    private KnowledgeGraphContext complete(KnowledgeGraphContextCache.Key cacheKey, long changeMark, KnowledgeGraphContext context) {
         log.info("=== KNOWLEDGE GRAPH QUERY RESULTS ===");
         log.info("Employees found: {}", context.getEmployees() != null ? context.getEmployees().size() : 0);
         log.info("Projects found: {}", context.getProjects() != null ? context.getProjects().size() : 0);
@@ -74,259 +202,225 @@ public class KnowledgeGraphQueryService {
         log.info("Outcome details found: {}", context.getOutcomeDetails() != null ? context.getOutcomeDetails().size() : 0);
         log.info("Report details found: {}", context.getReportDetails() != null ? context.getReportDetails().size() : 0);
         log.info("Project summaries found: {}", context.getProjectSummaries() != null ? context.getProjectSummaries().size() : 0);
+        if (!context.getRetrievalFailures().isEmpty()) {
+            log.warn("Partial context, failed stages: {}", context.getRetrievalFailures());
+        }
         log.info("Total entities in context: {}", context.getTotalEntities());
+        
+        // Partial contexts are not cached so the failed stages are retried on the next request
+        context = context.snapshot();
+        if (context.getRetrievalFailures().isEmpty()) {
+            contextCache.put(cacheKey, changeMark, context);
+        }
         log.info("=== KNOWLEDGE GRAPH QUERY END ===");
         
         return context;
     }
     
-    private KnowledgeGraphContext queryPeopleByProject(QueryEntities entities) {
+    private KnowledgeGraphContext queryPeopleByProject(GraphContextReader reader, QueryEntities entities) {
         log.info("=== QUERY PEOPLE BY PROJECT START ===");
         KnowledgeGraphContext context = new KnowledgeGraphContext();
         String category = entities.getPrimaryProjectCategory();
         log.info("Primary project category: '{}'", category);
         
-        try {
-            // Find employees who worked on projects in the specified category
-            log.info("Executing Cypher query: MATCH (e:Employee)-[:WORKED_ON]->(p:Project) WHERE p.category CONTAINS '{}' OR p.name CONTAINS '{}' RETURN DISTINCT e", category, category);
-            var employees = employeeRepository.findByProjectCategory(category);
-            log.info("Found {} employees", employees.size());
-            context.setEmployees(employees);
-            
-            // Get related projects
-            log.info("Finding projects by category: '{}'", category);
-            var projects = projectRepository.findByCategoryOrNameContaining(category);
-            log.info("Found {} projects", projects.size());
-            context.setProjects(projects);
-            
-            // Get outcomes from these projects
-            log.info("Finding outcomes by project category: '{}'", category);
-            var outcomes = outcomeRepository.findOutcomesByProjectCategory(category);
-            log.info("Found {} outcomes", outcomes.size());
-            context.setOutcomes(outcomes);
-            
-            // Get supporting reports
-            log.info("Finding reports by project category: '{}'", category);
-            var reports = reportRepository.findReportsByProjectCategory(category);
-            log.info("Found {} reports", reports.size());
-            context.setReports(reports);
-            
-        } catch (Exception e) {
-            log.error("Error querying people by project: {}", e.getMessage(), e);
-        }
+        var rows = stage("peopleByProjectContext", reader, () -> reader.findPeopleByProjectContext(category, entities.allKeywords()));
+        apply(context, await(rows, ContextRows.empty(), context));
+        log.info("Found {} employees, {} projects, {} outcomes, {} reports",
+            context.getEmployees().size(), context.getProjects().size(),
+            context.getOutcomes().size(), context.getReports().size());
         
         log.info("=== QUERY PEOPLE BY PROJECT END ===");
         return context;
     }
     
-    private KnowledgeGraphContext queryOutcomes(QueryEntities entities) {
+    private KnowledgeGraphContext queryOutcomes(GraphContextReader reader, QueryEntities entities) {
         KnowledgeGraphContext context = new KnowledgeGraphContext();
         String category = entities.getPrimaryProjectCategory();
         String outcomeKeyword = entities.getPrimaryOutcomeKeyword();
         
-        try {
-            var outcomes = outcomeRepository.findOutcomeDetails(category, outcomeKeyword);
-            context.setOutcomes(outcomes);
-            
-            // Get related projects and reports
-            var projects = projectRepository.findProjectsWithOutcomesByCategory(category);
-            context.setProjects(projects);
-            context.setProjectSummaries(new ArrayList<>());
-            
-        } catch (Exception e) {
-            log.error("Error querying outcomes: {}", e.getMessage());
-        }
+        // Outcome details plus the projects that achieved outcomes in the category
+        var rows = stage("outcomesContext", reader, () -> reader.findOutcomesContext(category, outcomeKeyword, entities.allKeywords()));
+        apply(context, await(rows, ContextRows.empty(), context));
         
         return context;
     }
     
-    private KnowledgeGraphContext queryProjectOutcomes(QueryEntities entities) {
+    private KnowledgeGraphContext queryProjectOutcomes(GraphContextReader reader, QueryEntities entities) {
         KnowledgeGraphContext context = new KnowledgeGraphContext();
         String category = entities.getPrimaryProjectCategory();
         
-        try {
-            // Get comprehensive project summary
-            var projectSummaries = projectRepository.findProjectSummaryByCategory(category);
-            context.setProjectSummaries(projectSummaries);
-            
-            // Get detailed outcomes
-            var outcomes = outcomeRepository.findOutcomesByProjectCategory(category);
-            context.setOutcomes(outcomes);
-            
-        } catch (Exception e) {
-            log.error("Error querying project outcomes: {}", e.getMessage());
-        }
+        // Project summaries and detailed outcomes
+        var rows = stage("projectOutcomesContext", reader, () -> reader.findProjectOutcomesContext(category, entities.allKeywords()));
+        apply(context, await(rows, ContextRows.empty(), context));
         
         return context;
     }
     
-    private KnowledgeGraphContext queryReports(QueryEntities entities) {
+    private KnowledgeGraphContext queryReports(GraphContextReader reader, QueryEntities entities) {
         KnowledgeGraphContext context = new KnowledgeGraphContext();
         String category = entities.getPrimaryProjectCategory();
         
-        try {
-            var reports = reportRepository.findReportsByProjectCategory(category);
-            context.setReports(reports);
-            
-            // Get related outcomes that these reports document
-            var outcomes = outcomeRepository.findOutcomesByProjectCategory(category);
-            context.setOutcomes(outcomes);
-            
-        } catch (Exception e) {
-            log.error("Error querying reports: {}", e.getMessage());
-        }
+        // Reports plus the outcomes that these reports document
+        var rows = stage("reportsContext", reader, () -> reader.findReportsContext(category, entities.allKeywords()));
+        apply(context, await(rows, ContextRows.empty(), context));
         
         return context;
     }
     
-    private KnowledgeGraphContext queryComprehensive(QueryEntities entities) {
+    private KnowledgeGraphContext queryComprehensive(GraphContextReader reader, QueryEntities entities) {
         log.info("=== COMPREHENSIVE QUERY START ===");
         KnowledgeGraphContext context = new KnowledgeGraphContext();
         String category = entities.getPrimaryProjectCategory();
         log.info("Primary project category for comprehensive search: '{}'", category);
         log.info("Person names in query: {}", entities.getPersonNames());
         
-        try {
-            // If we have person names, search specifically for those people
-            if (!entities.getPersonNames().isEmpty()) {
-                log.info("Person names found - searching specifically for these employees");
-                List<Employee> specificEmployees = new ArrayList<>();
-                List<Project> specificProjects = new ArrayList<>();
-                
-                for (String personName : entities.getPersonNames()) {
-                    // Try different name formats
-                    String[] formats = {
-                        personName, // "Carol"
-                        personName.substring(0, 1).toUpperCase() + personName.substring(1).toLowerCase(), // "Carol"
-                        capitalizeWords(personName) // "Carol Johnson" if input was "carol johnson"
-                    };
-                    
-                    for (String nameFormat : formats) {
-                        log.info("Searching for employee with name: '{}'", nameFormat);
-                        var employees = employeeRepository.findByName(nameFormat);
-                        log.info("Found {} employees with name '{}'", employees.size(), nameFormat);
-                        specificEmployees.addAll(employees);
-                        
-                        // Get projects for this specific employee
-                        var projects = employeeRepository.findProjectsByEmployeeName(nameFormat);
-                        log.info("Found {} projects for employee '{}'", projects.size(), nameFormat);
-                        specificProjects.addAll(projects);
-                    }
-                    
-                    // Also try partial matches for "Carol Johnson"
-                    if (personName.contains(" ")) {
-                        String fullName = capitalizeWords(personName);
-                        log.info("Searching for full name: '{}'", fullName);
-                        var employees = employeeRepository.findByName(fullName);
-                        log.info("Found {} employees with full name '{}'", employees.size(), fullName);
-                        specificEmployees.addAll(employees);
-                        
-                        var projects = employeeRepository.findProjectsByEmployeeName(fullName);
-                        log.info("Found {} projects for full name '{}'", projects.size(), fullName);
-                        specificProjects.addAll(projects);
-                    }
-                }
-                
-                // Remove duplicates
-                context.setEmployees(specificEmployees.stream().distinct().collect(Collectors.toList()));
-                context.setProjects(specificProjects.stream().distinct().collect(Collectors.toList()));
-                
-                log.info("After person-specific search: {} employees, {} projects", 
-                    context.getEmployees().size(), context.getProjects().size());
-            }
-            
-            // If no specific results from person names, fall back to category search
-            if (context.getEmployees().isEmpty()) {
-                log.info("No specific person results, falling back to category search");
-                var employees = employeeRepository.findByProjectCategory(category);
-                log.info("Found {} employees by category", employees.size());
-                context.setEmployees(employees);
-                
-                var projects = projectRepository.findByCategoryOrNameContaining(category);
-                log.info("Found {} projects by category", projects.size());
-                context.setProjects(projects);
-            }
-            
-            // Skip project summaries for now due to mapping issue
-            log.info("Skipping project summaries due to mapping error");
-            context.setProjectSummaries(new ArrayList<>());
-            
-            log.info("Finding outcomes by category: '{}'", category);
-            var outcomes = outcomeRepository.findOutcomeDetails(category, "");
-            log.info("Found {} outcomes", outcomes.size());
-            context.setOutcomes(outcomes);
-            
-            log.info("Finding reports by category: '{}'", category);
-            var reports = reportRepository.findReportsByProjectCategory(category);
-            log.info("Found {} reports", reports.size());
-            context.setReports(reports);
-            
-        } catch (Exception e) {
-            log.error("Error in comprehensive query: {}", e.getMessage(), e);
-        }
+        // Employees resolved by the name gazetteer are fetched by id inside the same statement;
+        // without ids the statement falls back to the people on the category projects
+        log.info("Employee ids resolved during extraction: {}", entities.getEmployeeIds());
+        var rows = stage("comprehensiveContext", reader, () -> reader.findComprehensiveContext(
+            category, "", entities.allKeywords(), entities.getEmployeeIds(), entities.getProjectIds()));
+        
+        // Names the gazetteer could not resolve are looked up in one batched statement alongside the main one
+        Set<String> names = namesToResolve(entities);
+        log.info("Resolving person names: {}", names);
+        var namedEmployees = stage("employeesByNames", reader, () -> reader.findEmployeesByNames(names));
+        
+        apply(context, await(rows, ContextRows.empty(), context));
+        
+        applyNamedEmployees(context, await(namedEmployees, List.of(), context));
+        
+        log.info("Found {} outcomes", context.getOutcomes().size());
+        log.info("Found {} reports", context.getReports().size());
         
         log.info("=== COMPREHENSIVE QUERY END ===");
         return context;
     }
     
-    private String capitalizeWords(String str) {
-        if (str == null || str.isEmpty()) return str;
-        return Arrays.stream(str.split("\\s+"))
-                .map(word -> word.substring(0, 1).toUpperCase() + word.substring(1).toLowerCase())
-                .collect(Collectors.joining(" "));
+    private static Set<String> namesToResolve(QueryEntities entities) {
+        if (!entities.getEmployeeIds().isEmpty()) {
+            return Set.of();
+        }
+        return entities.getPersonNames().stream()
+            .map(KnowledgeGraphReadRepository::normalizeName)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
     }
     
-    public String formatContextForLLM(KnowledgeGraphContext context) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("KNOWLEDGE GRAPH CONTEXT:\n\n");
-        
-        // Format employees
-        if (!context.getEmployees().isEmpty()) {
-            sb.append("EMPLOYEES:\n");
-            context.getEmployees().forEach(emp -> {
-                sb.append(String.format("- %s (%s) - %s, %s\n", 
-                    emp.getName(), emp.getRole(), emp.getDepartment(), emp.getEmail()));
-            });
-            sb.append("\n");
+    /**
+     * People found by name replace the category people, together with their own projects.
+     */
+    private static void applyNamedEmployees(KnowledgeGraphContext context, List<EmployeeProjects> resolved) {
+        if (!resolved.isEmpty()) {
+            context.setEmployees(resolved.stream().map(EmployeeProjects::employee).collect(Collectors.toList()));
+            context.setProjects(resolved.stream().flatMap(match -> match.projects().stream()).distinct().collect(Collectors.toList()));
+            log.info("After person-specific search: {} employees, {} projects", 
+                context.getEmployees().size(), context.getProjects().size());
+        } else {
+            context.setProjects(context.getProjects().stream().distinct().collect(Collectors.toList()));
+            log.info("Found {} employees and {} projects", context.getEmployees().size(), context.getProjects().size());
         }
-        
-        // Format projects
-        if (!context.getProjects().isEmpty()) {
-            sb.append("PROJECTS:\n");
-            context.getProjects().forEach(proj -> {
-                sb.append(String.format("- %s: %s (Status: %s)\n", 
-                    proj.getName(), proj.getDescription(), proj.getStatus()));
-            });
-            sb.append("\n");
+    }
+    
+    private boolean expandsNeighbourhood(QueryEntities entities) {
+        return expansion.isActive() && !(entities.getEmployeeIds().isEmpty() && entities.getProjectIds().isEmpty());
+    }
+    
+    /**
+     * Adds the neighbourhood nodes the intent query did not already return, after its own results.
+     */
+    private static void applyNeighbourhood(KnowledgeGraphContext context, ContextRows rows) {
+        context.setEmployees(union(context.getEmployees(), rows.employees(), EmployeeView::id));
+        context.setProjects(union(context.getProjects(), rows.projects(), ProjectView::id));
+        context.setOutcomes(union(context.getOutcomes(), rows.outcomes(), OutcomeView::id));
+        context.setReports(union(context.getReports(), rows.reports(), ReportView::id));
+        log.info("Neighbourhood expansion added {} employees, {} projects, {} outcomes, {} reports",
+            rows.employees().size(), rows.projects().size(), rows.outcomes().size(), rows.reports().size());
+    }
+    
+    private static <T> List<T> union(List<T> current, List<T> added, Function<T, String> id) {
+        Set<String> ids = current.stream().map(id).collect(Collectors.toSet());
+        List<T> result = new ArrayList<>(current);
+        for (T item : added) {
+            if (ids.add(id.apply(item))) {
+                result.add(item);
+            }
         }
-        
-        // Format project summaries
-        if (!context.getProjectSummaries().isEmpty()) {
-            sb.append("PROJECT SUMMARIES:\n");
-            context.getProjectSummaries().forEach(summary -> {
-                sb.append(String.format("- %s\n", summary.toString()));
-            });
-            sb.append("\n");
+        return result;
+    }
+    
+    private static void apply(KnowledgeGraphContext context, ContextRows rows) {
+        context.setEmployees(rows.employees());
+        context.setProjects(rows.projects());
+        context.setOutcomes(rows.outcomes());
+        context.setReports(rows.reports());
+        context.setProjectSummaries(rows.projectSummaries());
+    }
+    
+    private <T> GraphStage<T> stage(String name, GraphContextReader reader, Supplier<T> query) {
+        if (reader.isInMemory()) {
+            // Snapshot reads take microseconds, less than the hand-off to the executor would
+            CompletableFuture<T> future;
+            try {
+                future = CompletableFuture.completedFuture(query.get());
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            return new GraphStage<>(name, future);
         }
-        
-        // Format outcome details
-        if (!context.getOutcomeDetails().isEmpty()) {
-            sb.append("OUTCOMES:\n");
-            context.getOutcomeDetails().forEach(outcome -> {
-                sb.append(String.format("- %s\n", outcome.toString()));
-            });
-            sb.append("\n");
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(query, graphQueryExecutor)
+            .orTimeout(stageTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        return new GraphStage<>(name, future);
+    }
+    
+    /**
+     * Waits for a stage and returns its result. A failed or timed-out stage yields {@code fallback} and is
+     * recorded on the context, so the other stages still produce a partial answer.
+     */
+    private <T> T await(GraphStage<T> stage, T fallback, KnowledgeGraphContext context) {
+        try {
+            return stage.future().join();
+        } catch (CompletionException | CancellationException e) {
+            recordFailure(stage.name(), e.getCause() != null ? e.getCause() : e, context);
+            return fallback;
         }
-        
-        // Format report details
-        if (!context.getReportDetails().isEmpty()) {
-            sb.append("SUPPORTING REPORTS:\n");
-            context.getReportDetails().forEach(report -> {
-                sb.append(String.format("- %s\n", report.toString()));
+    }
+    
+    /**
+     * Reactive counterpart of {@link #stage} and {@link #await}: same timeout, same fallback on failure.
+     */
+    private <T> Mono<T> reactiveStage(String name, Mono<T> query, T fallback, KnowledgeGraphContext context) {
+        return query
+            .timeout(stageTimeout)
+            .onErrorResume(e -> {
+                recordFailure(name, e, context);
+                return Mono.just(fallback);
+            });
+    }
+    
+    private Mono<KnowledgeGraphContext> reactiveContext(String name, Mono<ContextRows> rows, KnowledgeGraphContext context) {
+        return reactiveStage(name, rows, ContextRows.empty(), context)
+            .map(result -> {
+                apply(context, result);
+                return context;
             });
-            sb.append("\n");
+    }
+    
+    private void recordFailure(String stage, Throwable cause, KnowledgeGraphContext context) {
+        String reason = cause instanceof TimeoutException
+            ? "timed out after " + stageTimeout.toMillis() + " ms"
+            : cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        log.error("Graph query stage '{}' failed: {}", stage, reason, cause);
+        // Reactive stages may fail concurrently on driver threads
+        synchronized (context) {
+            context.getRetrievalFailures().add(stage + " - " + reason);
         }
-        
-        return sb.toString();
+    }
+    
+    private record GraphStage<T>(String name, CompletableFuture<T> future) {}
+    
+    /**
+     * Renders the context for the prompt within the token budget of the given model; see {@link ContextPacker}.
+     */
+    public ContextPacker.PackedContext formatContextForLLM(KnowledgeGraphContext context, QueryEntities entities, String model) {
+        return contextPacker.pack(context, entities, model);
     }
 }
\ No newline at end of file
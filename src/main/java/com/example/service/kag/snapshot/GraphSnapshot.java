@@ -0,0 +1,967 @@
+package com.example.service.kag.snapshot;
+
+import com.example.repository.GraphContextReader;
+import com.example.repository.GraphExpansion;
+import com.example.repository.KnowledgeGraphReadRepository.ContextRows;
+import com.example.repository.KnowledgeGraphReadRepository.Edge;
+import com.example.repository.KnowledgeGraphReadRepository.EmployeeProjects;
+import com.example.repository.RetrievalRanking;
+import com.example.repository.projection.EmployeeView;
+import com.example.repository.projection.OutcomeView;
+import com.example.repository.projection.ProjectSummary;
+import com.example.repository.projection.ProjectView;
+import com.example.repository.projection.ReportView;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable in-memory copy of the knowledge graph that answers the intent queries without Neo4j.
+ * <p>
+ * Nodes of each label are numbered 0..n-1 and stored as projection records in plain arrays, with property
+ * strings interned across the whole graph. Each relationship type is a pair of CSR (compressed sparse row)
+ * arrays, one per direction, so the neighbours of node {@code i} are {@code targets[offsets[i]..offsets[i+1])}.
+ * Text matching is a case-insensitive substring test against lowercased copies of the searched properties,
+ * and a node's text score is the number of query clauses it matches. Every query method mirrors the
+ * corresponding statement in {@code KnowledgeGraphReadRepository}, with the same {@link RetrievalRanking}.
+ * <p>
+ * A snapshot is never modified; {@link #patch} copies it with changed nodes and relationships applied.
+ */
+public final class GraphSnapshot implements GraphContextReader {
+
+    public enum Label {
+        EMPLOYEE("Employee"), PROJECT("Project"), OUTCOME("Outcome"), REPORT("Report");
+
+        private final String neo4jLabel;
+
+        Label(String neo4jLabel) {
+            this.neo4jLabel = neo4jLabel;
+        }
+
+        public String neo4jLabel() {
+            return neo4jLabel;
+        }
+    }
+
+    public enum Relationship {
+        WORKED_ON(Label.EMPLOYEE, Label.PROJECT),
+        ACHIEVED(Label.PROJECT, Label.OUTCOME),
+        PRODUCED(Label.PROJECT, Label.REPORT),
+        DOCUMENTS(Label.REPORT, Label.OUTCOME),
+        AUTHORED(Label.EMPLOYEE, Label.REPORT),
+        REVIEWED(Label.EMPLOYEE, Label.REPORT),
+        COLLABORATED_WITH(Label.EMPLOYEE, Label.EMPLOYEE);
+
+        private final Label source;
+        private final Label target;
+
+        Relationship(Label source, Label target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        public Label source() {
+            return source;
+        }
+
+        public Label target() {
+            return target;
+        }
+    }
+
+    /**
+     * Nodes and relationships to apply with {@link #patch}. Changed nodes hold their current properties;
+     * {@code removed} lists ids per label that were reported changed but no longer exist.
+     */
+    public record Patch(List<EmployeeView> employees, List<ProjectView> projects, List<OutcomeView> outcomes,
+                        List<ReportView> reports, Map<Label, Set<String>> removed, Map<Relationship, List<Edge>> edges) {}
+
+    /**
+     * Adjacency of one relationship type in one direction.
+     */
+    private record Csr(int[] offsets, int[] targets) {
+
+        static Csr build(int nodeCount, int[] sources, int[] destinations, int edgeCount) {
+            int[] offsets = new int[nodeCount + 1];
+            for (int e = 0; e < edgeCount; e++) {
+                offsets[sources[e] + 1]++;
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+            int[] cursor = offsets.clone();
+            int[] targets = new int[edgeCount];
+            for (int e = 0; e < edgeCount; e++) {
+                targets[cursor[sources[e]]++] = destinations[e];
+            }
+            return new Csr(offsets, targets);
+        }
+
+        boolean hasEdges(int node) {
+            return offsets[node + 1] > offsets[node];
+        }
+
+        int degree(int node) {
+            return offsets[node + 1] - offsets[node];
+        }
+
+        /**
+         * Marks the neighbours of every node in {@code nodes} and returns them in first-seen order.
+         */
+        int[] expand(int[] nodes, BitSet seen) {
+            IntList result = new IntList();
+            for (int node : nodes) {
+                for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                    int target = targets[e];
+                    if (!seen.get(target)) {
+                        seen.set(target);
+                        result.add(target);
+                    }
+                }
+            }
+            return result.toArray();
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        IntStream stream() {
+            return Arrays.stream(values, 0, size);
+        }
+    }
+
+    /**
+     * Nodes that received a score, best first once {@link #top} is called.
+     */
+    private static final class Scores {
+        private final double[] score;
+        private final IntList touched = new IntList();
+
+        Scores(int nodeCount) {
+            score = new double[nodeCount];
+            Arrays.fill(score, Double.NEGATIVE_INFINITY);
+        }
+
+        void max(int node, double value) {
+            touch(node);
+            score[node] = Math.max(score[node], value);
+        }
+
+        void add(int node, double value) {
+            touch(node);
+            score[node] = (score[node] == Double.NEGATIVE_INFINITY ? 0 : score[node]) + value;
+        }
+
+        private void touch(int node) {
+            if (score[node] == Double.NEGATIVE_INFINITY) {
+                touched.add(node);
+            }
+        }
+
+        void plus(IntToDoubleFunction bonus) {
+            for (int node : touched.toArray()) {
+                score[node] += bonus.applyAsDouble(node);
+            }
+        }
+
+        int[] top(int k) {
+            return touched.stream()
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer node) -> -score[node]).thenComparing(node -> node))
+                .limit(k)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        }
+    }
+
+    private final long graphVersion;
+    private final long changeVersion;
+    private final int searchLimit;
+    private final RetrievalRanking ranking;
+
+    private final EmployeeView[] employees;
+    private final ProjectView[] projects;
+    private final OutcomeView[] outcomes;
+    private final ReportView[] reports;
+
+    private final Map<String, Integer> employeeIndex;
+    private final Map<String, Integer> projectIndex;
+    private final Map<String, int[]> employeesByNameLower;
+
+    private final String[] projectNameLower;
+    private final String[] projectDescriptionLower;
+    private final String[] projectCategoryLower;
+    private final String[] outcomeDescriptionLower;
+    private final String[] outcomeCategoryLower;
+    private final String[] outcomeMetricsLower;
+
+    // Ranking terms, fixed when the snapshot is built
+    private final double[] projectRecency;
+    private final double[] reportRecency;
+    private final double[] outcomeImpact;
+
+    private final Map<Relationship, Csr> forward;
+    private final Map<Relationship, Csr> reverse;
+    private final int edgeCount;
+
+    private GraphSnapshot(Builder builder, long graphVersion, long changeVersion, int searchLimit, RetrievalRanking ranking) {
+        this.graphVersion = graphVersion;
+        this.changeVersion = changeVersion;
+        this.searchLimit = searchLimit;
+        this.ranking = ranking;
+        this.employees = builder.employees.toArray(EmployeeView[]::new);
+        this.projects = builder.projects.toArray(ProjectView[]::new);
+        this.outcomes = builder.outcomes.toArray(OutcomeView[]::new);
+        this.reports = builder.reports.toArray(ReportView[]::new);
+        this.employeeIndex = Map.copyOf(builder.indexes.get(Label.EMPLOYEE));
+        this.projectIndex = Map.copyOf(builder.indexes.get(Label.PROJECT));
+
+        Map<String, IntList> byName = new HashMap<>();
+        for (int i = 0; i < employees.length; i++) {
+            if (employees[i].name() != null) {
+                byName.computeIfAbsent(normalizeName(employees[i].name()), key -> new IntList()).add(i);
+            }
+        }
+        Map<String, int[]> nameIndex = new HashMap<>();
+        byName.forEach((name, ids) -> nameIndex.put(name, ids.toArray()));
+        this.employeesByNameLower = Map.copyOf(nameIndex);
+
+        this.projectNameLower = lower(projects.length, i -> projects[i].name());
+        this.projectDescriptionLower = lower(projects.length, i -> projects[i].description());
+        this.projectCategoryLower = lower(projects.length, i -> projects[i].category());
+        this.outcomeDescriptionLower = lower(outcomes.length, i -> outcomes[i].description());
+        this.outcomeCategoryLower = lower(outcomes.length, i -> outcomes[i].category());
+        this.outcomeMetricsLower = lower(outcomes.length, i -> outcomes[i].metrics());
+
+        LocalDate today = LocalDate.now();
+        this.projectRecency = new double[projects.length];
+        for (int i = 0; i < projects.length; i++) {
+            projectRecency[i] = RetrievalRanking.recency(projects[i].startDate(), today);
+        }
+        this.reportRecency = new double[reports.length];
+        for (int i = 0; i < reports.length; i++) {
+            reportRecency[i] = RetrievalRanking.recency(reports[i].date(), today);
+        }
+        this.outcomeImpact = new double[outcomes.length];
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomeImpact[i] = RetrievalRanking.impact(outcomes[i].impactLevel());
+        }
+
+        this.forward = new EnumMap<>(Relationship.class);
+        this.reverse = new EnumMap<>(Relationship.class);
+        int edges = 0;
+        for (Relationship type : Relationship.values()) {
+            Builder.EdgeList list = builder.edges.get(type);
+            forward.put(type, Csr.build(count(type.source()), list.sources, list.targets, list.size));
+            reverse.put(type, Csr.build(count(type.target()), list.targets, list.sources, list.size));
+            edges += list.size;
+        }
+        this.edgeCount = edges;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long getGraphVersion() {
+        return graphVersion;
+    }
+
+    /**
+     * The change feed version this snapshot includes every change up to.
+     */
+    public long getChangeVersion() {
+        return changeVersion;
+    }
+
+    public int getNodeCount() {
+        return employees.length + projects.length + outcomes.length + reports.length;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public boolean isInMemory() {
+        return true;
+    }
+
+    /**
+     * A new snapshot with the patch applied: changed nodes replace their old versions or are appended, removed
+     * nodes are dropped with their relationships, and changed relationships are added unless already present.
+     * Costs one pass over the arrays and adjacency instead of a reload from Neo4j.
+     */
+    public GraphSnapshot patch(long changeVersion, Patch patch) {
+        Builder builder = builder();
+        // Changed nodes go first so they win over the copies below
+        patch.employees().forEach(builder::add);
+        patch.projects().forEach(builder::add);
+        patch.outcomes().forEach(builder::add);
+        patch.reports().forEach(builder::add);
+        copy(employees, EmployeeView::id, removed(patch, Label.EMPLOYEE), builder::add);
+        copy(projects, ProjectView::id, removed(patch, Label.PROJECT), builder::add);
+        copy(outcomes, OutcomeView::id, removed(patch, Label.OUTCOME), builder::add);
+        copy(reports, ReportView::id, removed(patch, Label.REPORT), builder::add);
+
+        for (Relationship type : Relationship.values()) {
+            Set<Edge> added = new LinkedHashSet<>(patch.edges().getOrDefault(type, List.of()));
+            Csr adjacency = forward.get(type);
+            for (int s = 0; s < count(type.source()); s++) {
+                String sourceId = id(type.source(), s);
+                for (int e = adjacency.offsets()[s]; e < adjacency.offsets()[s + 1]; e++) {
+                    String targetId = id(type.target(), adjacency.targets()[e]);
+                    if (added.isEmpty() || !added.contains(new Edge(sourceId, targetId))) {
+                        builder.addEdge(type, sourceId, targetId);
+                    }
+                }
+            }
+            added.forEach(edge -> builder.addEdge(type, edge.sourceId(), edge.targetId()));
+        }
+        return builder.build(graphVersion, changeVersion, searchLimit, ranking);
+    }
+
+    private static Set<String> removed(Patch patch, Label label) {
+        return patch.removed().getOrDefault(label, Set.of());
+    }
+
+    private static <T> void copy(T[] nodes, Function<T, String> id, Set<String> removed, Consumer<T> add) {
+        for (T node : nodes) {
+            if (!removed.contains(id.apply(node))) {
+                add.accept(node);
+            }
+        }
+    }
+
+    private String id(Label label, int index) {
+        return switch (label) {
+            case EMPLOYEE -> employees[index].id();
+            case PROJECT -> projects[index].id();
+            case OUTCOME -> outcomes[index].id();
+            case REPORT -> reports[index].id();
+        };
+    }
+
+    private int count(Label label) {
+        return switch (label) {
+            case EMPLOYEE -> employees.length;
+            case PROJECT -> projects.length;
+            case OUTCOME -> outcomes.length;
+            case REPORT -> reports.length;
+        };
+    }
+
+    // ---- Intent queries ----
+
+    /**
+     * Entry projects with their ranks, best first, like the {@code ranked} list of the Cypher statements.
+     */
+    private record Ranked(int[] nodes, double[] ranks) {}
+
+    @Override
+    public ContextRows findPeopleByProjectContext(String category, Collection<String> keywords) {
+        String needle = lower(category);
+        Ranked ranked = rankProjects(needle, true, lower(keywords), p -> true);
+        IntPredicate inCategory = p -> contains(projectCategoryLower[p], needle);
+        return new ContextRows(topEmployees(ranked), topProjects(ranked), topOutcomes(ranked, inCategory),
+            topReports(ranked, inCategory), new ArrayList<>());
+    }
+
+    @Override
+    public ContextRows findOutcomesContext(String category, String keyword, Collection<String> keywords) {
+        String categoryNeedle = lower(category);
+        String keywordNeedle = lower(keyword);
+        List<String> keywordNeedles = lower(keywords);
+
+        Scores outcomeScores = new Scores(outcomes.length);
+        searchOutcomes(o -> clauses(o, keywordNeedles)
+            + (contains(outcomeCategoryLower[o], categoryNeedle) ? 1 : 0)
+            + (contains(outcomeDescriptionLower[o], keywordNeedle) ? 1 : 0), outcomeScores);
+
+        Csr achieved = forward.get(Relationship.ACHIEVED);
+        Ranked ranked = rankProjects(categoryNeedle, false, keywordNeedles, achieved::hasEdges);
+        return new ContextRows(new ArrayList<>(), topProjects(ranked), outcomeViews(outcomeScores.top(ranking.outcomeLimit())),
+            new ArrayList<>(), new ArrayList<>());
+    }
+
+    @Override
+    public ContextRows findProjectOutcomesContext(String category, Collection<String> keywords) {
+        Ranked ranked = rankProjects(lower(category), false, lower(keywords), p -> true);
+        Csr workedOn = reverse.get(Relationship.WORKED_ON);
+        Csr achieved = forward.get(Relationship.ACHIEVED);
+        Csr documentedBy = reverse.get(Relationship.DOCUMENTS);
+
+        List<ProjectSummary> summaries = new ArrayList<>();
+        for (int i = 0; i < Math.min(ranking.projectLimit(), ranked.nodes().length); i++) {
+            int p = ranked.nodes()[i];
+            if (!workedOn.hasEdges(p) || !achieved.hasEdges(p)) {
+                continue;
+            }
+            int[] team = workedOn.expand(new int[] {p}, new BitSet(employees.length));
+            int[] projectOutcomes = achieved.expand(new int[] {p}, new BitSet(outcomes.length));
+            int[] documenting = documentedBy.expand(projectOutcomes, new BitSet(reports.length));
+            summaries.add(new ProjectSummary(
+                projects[p].name(),
+                projects[p].description(),
+                distinct(team, e -> employees[e].name()),
+                distinct(projectOutcomes, o -> outcomes[o].description()),
+                distinct(projectOutcomes, o -> outcomes[o].metrics()),
+                distinct(documenting, r -> reports[r].title())));
+        }
+        return new ContextRows(new ArrayList<>(), new ArrayList<>(), topOutcomes(ranked, p -> true),
+            new ArrayList<>(), summaries);
+    }
+
+    @Override
+    public ContextRows findReportsContext(String category, Collection<String> keywords) {
+        Ranked ranked = rankProjects(lower(category), false, lower(keywords), p -> true);
+        return new ContextRows(new ArrayList<>(), new ArrayList<>(), topOutcomes(ranked, p -> true),
+            topReports(ranked, p -> true), new ArrayList<>());
+    }
+
+    @Override
+    public ContextRows findComprehensiveContext(String category, String keyword, Collection<String> keywords,
+                                                Collection<String> employeeIds, Collection<String> projectIds) {
+        String needle = lower(category);
+        String keywordNeedle = lower(keyword);
+        List<String> keywordNeedles = lower(keywords);
+        Ranked ranked = rankProjects(needle, true, keywordNeedles, p -> true);
+        IntPredicate inCategory = p -> contains(projectCategoryLower[p], needle);
+
+        // Text-matched and project outcomes compete for the same top-k
+        Scores outcomeScores = new Scores(outcomes.length);
+        searchOutcomes(o -> clauses(o, keywordNeedles)
+            + (matchesOutcomeText(o, needle) ? 1 : 0)
+            + (matchesOutcomeText(o, keywordNeedle) ? 1 : 0), outcomeScores);
+        Csr achieved = forward.get(Relationship.ACHIEVED);
+        for (int i = 0; i < ranked.nodes().length; i++) {
+            int p = ranked.nodes()[i];
+            if (inCategory.test(p)) {
+                for (int e = achieved.offsets()[p]; e < achieved.offsets()[p + 1]; e++) {
+                    int o = achieved.targets()[e];
+                    outcomeScores.max(o, ranked.ranks()[i] + ranking.impactWeight() * outcomeImpact[o]);
+                }
+            }
+        }
+
+        int[] idEmployees = resolve(employeeIds, employeeIndex);
+        List<EmployeeView> people;
+        List<ProjectView> peopleProjects;
+        if (idEmployees.length == 0) {
+            people = topEmployees(ranked);
+            peopleProjects = topProjects(ranked);
+        } else {
+            BitSet seenProjects = new BitSet(projects.length);
+            people = employeeViews(idEmployees);
+            peopleProjects = projectViews(byStartDate(forward.get(Relationship.WORKED_ON).expand(idEmployees, seenProjects)));
+            for (int p : resolve(projectIds, projectIndex)) {
+                peopleProjects.add(projects[p]);
+            }
+        }
+        return new ContextRows(people, peopleProjects, outcomeViews(outcomeScores.top(ranking.outcomeLimit())),
+            topReports(ranked, inCategory), new ArrayList<>());
+    }
+
+    @Override
+    public List<EmployeeProjects> findEmployeesByNames(Collection<String> names) {
+        BitSet seen = new BitSet(employees.length);
+        List<EmployeeProjects> result = new ArrayList<>();
+        Csr workedOn = forward.get(Relationship.WORKED_ON);
+        for (String name : names) {
+            for (int e : employeesByNameLower.getOrDefault(name, new int[0])) {
+                if (!seen.get(e)) {
+                    seen.set(e);
+                    result.add(new EmployeeProjects(employees[e],
+                        projectViews(byStartDate(workedOn.expand(new int[] {e}, new BitSet(projects.length))))));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Breadth-first walk over the configured relationship types in both directions, hop by hop, so nodes
+     * are taken nearest first like in the Cypher statement. Within a hop they keep discovery order.
+     * A seed above the fan-out is left through its fan-out neighbours with the lowest ids, and no other node
+     * above it is walked through, so a hub costs no more than any other node.
+     */
+    @Override
+    public ContextRows findNeighbourhoodContext(Collection<String> employeeIds, Collection<String> projectIds,
+                                                GraphExpansion expansion) {
+        List<Relationship> types = new ArrayList<>();
+        for (Relationship type : Relationship.values()) {
+            if (expansion.relationshipTypes().contains(type.name())) {
+                types.add(type);
+            }
+        }
+        // Nodes of all labels share one id space: each label's indexes are shifted by the preceding labels
+        BitSet seen = new BitSet(getNodeCount());
+        IntList frontier = new IntList();
+        for (int e : resolve(employeeIds, employeeIndex)) {
+            markNode(node(Label.EMPLOYEE, e), seen, frontier);
+        }
+        for (int p : resolve(projectIds, projectIndex)) {
+            markNode(node(Label.PROJECT, p), seen, frontier);
+        }
+
+        IntList found = new IntList();
+        for (int hop = 0; hop < expansion.maxHops() && found.size() < expansion.nodeBudget(); hop++) {
+            IntList next = new IntList();
+            for (int node : frontier.toArray()) {
+                if (degree(node, types) <= expansion.fanOut()) {
+                    expand(node, types, seen, next);
+                } else if (hop == 0) {
+                    // A hub seed is left through its fanOut neighbours with the lowest ids, like the LIMIT in Cypher
+                    IntList candidates = new IntList();
+                    expand(node, types, new BitSet(getNodeCount()), candidates);
+                    candidates.stream().boxed()
+                        .sorted(Comparator.comparing((Integer neighbour) -> idOf(neighbour)))
+                        .limit(expansion.fanOut())
+                        .forEach(neighbour -> markNode(neighbour, seen, next));
+                }
+                // Nodes reached on the way above the fan-out are kept but not walked through
+            }
+            for (int node : next.toArray()) {
+                if (found.size() == expansion.nodeBudget()) {
+                    break;
+                }
+                found.add(node);
+            }
+            frontier = next;
+        }
+
+        List<EmployeeView> people = new ArrayList<>();
+        List<ProjectView> nearProjects = new ArrayList<>();
+        List<OutcomeView> nearOutcomes = new ArrayList<>();
+        List<ReportView> nearReports = new ArrayList<>();
+        for (int node : found.toArray()) {
+            Label label = labelOf(node);
+            int index = node - base(label);
+            switch (label) {
+                case EMPLOYEE -> people.add(employees[index]);
+                case PROJECT -> nearProjects.add(projects[index]);
+                case OUTCOME -> nearOutcomes.add(outcomes[index]);
+                case REPORT -> nearReports.add(reports[index]);
+            }
+        }
+        return new ContextRows(people, nearProjects, nearOutcomes, nearReports, new ArrayList<>());
+    }
+
+    private int base(Label label) {
+        int base = 0;
+        for (Label preceding : Label.values()) {
+            if (preceding == label) {
+                return base;
+            }
+            base += count(preceding);
+        }
+        return base;
+    }
+
+    private int node(Label label, int index) {
+        return base(label) + index;
+    }
+
+    private Label labelOf(int node) {
+        int base = 0;
+        for (Label label : Label.values()) {
+            base += count(label);
+            if (node < base) {
+                return label;
+            }
+        }
+        throw new IllegalArgumentException("No node " + node + " in snapshot");
+    }
+
+    private int degree(int node, List<Relationship> types) {
+        Label label = labelOf(node);
+        int index = node - base(label);
+        int degree = 0;
+        for (Relationship type : types) {
+            if (type.source() == label) {
+                degree += forward.get(type).degree(index);
+            }
+            if (type.target() == label) {
+                degree += reverse.get(type).degree(index);
+            }
+        }
+        return degree;
+    }
+
+    /**
+     * Marks the unseen neighbours of {@code node} over {@code types} in both directions.
+     */
+    private void expand(int node, List<Relationship> types, BitSet seen, IntList next) {
+        Label label = labelOf(node);
+        int index = node - base(label);
+        for (Relationship type : types) {
+            if (type.source() == label) {
+                neighbours(forward.get(type), index, type.target(), seen, next);
+            }
+            if (type.target() == label) {
+                neighbours(reverse.get(type), index, type.source(), seen, next);
+            }
+        }
+    }
+
+    private void neighbours(Csr adjacency, int index, Label targetLabel, BitSet seen, IntList next) {
+        int targetBase = base(targetLabel);
+        for (int e = adjacency.offsets()[index]; e < adjacency.offsets()[index + 1]; e++) {
+            markNode(targetBase + adjacency.targets()[e], seen, next);
+        }
+    }
+
+    private String idOf(int node) {
+        Label label = labelOf(node);
+        return id(label, node - base(label));
+    }
+
+    private static void markNode(int node, BitSet seen, IntList nodes) {
+        if (!seen.get(node)) {
+            seen.set(node);
+            nodes.add(node);
+        }
+    }
+
+    // ---- Ranking ----
+
+    /**
+     * Projects matching the category (and the name too, when {@code matchName}) or any keyword, scored by the
+     * number of matched clauses plus weighted recency. The best {@code searchLimit} text matches are kept.
+     */
+    private Ranked rankProjects(String needle, boolean matchName, List<String> keywordNeedles, IntPredicate filter) {
+        double[] textScore = new double[projects.length];
+        IntList matched = new IntList();
+        for (int p = 0; p < projects.length; p++) {
+            double score = (contains(projectCategoryLower[p], needle) ? 1 : 0)
+                + (matchName && contains(projectNameLower[p], needle) ? 1 : 0);
+            for (String keyword : keywordNeedles) {
+                if (contains(projectNameLower[p], keyword) || contains(projectDescriptionLower[p], keyword)
+                        || contains(projectCategoryLower[p], keyword)) {
+                    score++;
+                }
+            }
+            if (score > 0 && filter.test(p)) {
+                textScore[p] = score;
+                matched.add(p);
+            }
+        }
+        int[] nodes = matched.stream()
+            .boxed()
+            .sorted(Comparator.comparingDouble((Integer p) -> -textScore[p]).thenComparing(p -> p))
+            .limit(searchLimit)
+            .sorted(Comparator.comparingDouble((Integer p) -> -rank(textScore[p], p)).thenComparing(p -> p))
+            .mapToInt(Integer::intValue)
+            .toArray();
+        double[] ranks = new double[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            ranks[i] = rank(textScore[nodes[i]], nodes[i]);
+        }
+        return new Ranked(nodes, ranks);
+    }
+
+    private double rank(double textScore, int project) {
+        return textScore + ranking.recencyWeight() * projectRecency[project];
+    }
+
+    /**
+     * Adds the best {@code searchLimit} text-matched outcomes to {@code scores}, ranked by text score plus impact.
+     */
+    private void searchOutcomes(IntToDoubleFunction textScore, Scores scores) {
+        Scores matches = new Scores(outcomes.length);
+        for (int o = 0; o < outcomes.length; o++) {
+            double score = textScore.applyAsDouble(o);
+            if (score > 0) {
+                matches.max(o, score);
+            }
+        }
+        for (int o : matches.top(searchLimit)) {
+            scores.max(o, matches.score[o] + ranking.impactWeight() * outcomeImpact[o]);
+        }
+    }
+
+    private int clauses(int outcome, List<String> keywordNeedles) {
+        int matched = 0;
+        for (String keyword : keywordNeedles) {
+            if (matchesOutcomeText(outcome, keyword)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private List<ProjectView> topProjects(Ranked ranked) {
+        return projectViews(Arrays.copyOf(ranked.nodes(), Math.min(ranking.projectLimit(), ranked.nodes().length)));
+    }
+
+    private List<EmployeeView> topEmployees(Ranked ranked) {
+        Scores scores = new Scores(employees.length);
+        Csr workedOn = reverse.get(Relationship.WORKED_ON);
+        for (int i = 0; i < ranked.nodes().length; i++) {
+            int p = ranked.nodes()[i];
+            for (int e = workedOn.offsets()[p]; e < workedOn.offsets()[p + 1]; e++) {
+                scores.add(workedOn.targets()[e], ranked.ranks()[i]);
+            }
+        }
+        return employeeViews(scores.top(ranking.employeeLimit()));
+    }
+
+    private List<OutcomeView> topOutcomes(Ranked ranked, IntPredicate projectFilter) {
+        Scores scores = bestNeighbourRank(ranked, projectFilter, forward.get(Relationship.ACHIEVED), outcomes.length);
+        scores.plus(o -> ranking.impactWeight() * outcomeImpact[o]);
+        return outcomeViews(scores.top(ranking.outcomeLimit()));
+    }
+
+    private List<ReportView> topReports(Ranked ranked, IntPredicate projectFilter) {
+        Scores scores = bestNeighbourRank(ranked, projectFilter, forward.get(Relationship.PRODUCED), reports.length);
+        scores.plus(r -> ranking.recencyWeight() * reportRecency[r]);
+        List<ReportView> views = new ArrayList<>();
+        for (int r : scores.top(ranking.reportLimit())) {
+            views.add(reports[r]);
+        }
+        return views;
+    }
+
+    private Scores bestNeighbourRank(Ranked ranked, IntPredicate projectFilter, Csr adjacency, int nodeCount) {
+        Scores scores = new Scores(nodeCount);
+        for (int i = 0; i < ranked.nodes().length; i++) {
+            int p = ranked.nodes()[i];
+            if (projectFilter.test(p)) {
+                for (int e = adjacency.offsets()[p]; e < adjacency.offsets()[p + 1]; e++) {
+                    scores.max(adjacency.targets()[e], ranked.ranks()[i]);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private int[] byStartDate(int[] projectNodes) {
+        return Arrays.stream(projectNodes)
+            .boxed()
+            .sorted(Comparator.comparing((Integer p) -> projects[p].startDate(), Comparator.nullsLast(Comparator.reverseOrder())))
+            .limit(ranking.projectLimit())
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+
+    // ---- Helpers ----
+
+    private boolean matchesOutcomeText(int o, String needle) {
+        return contains(outcomeDescriptionLower[o], needle)
+            || contains(outcomeCategoryLower[o], needle)
+            || contains(outcomeMetricsLower[o], needle);
+    }
+
+    /**
+     * Blank needles match nothing, like a blank full-text clause.
+     */
+    private static boolean contains(String haystack, String needle) {
+        return haystack != null && !needle.isEmpty() && haystack.contains(needle);
+    }
+
+    private static int[] resolve(Collection<String> ids, Map<String, Integer> index) {
+        IntList result = new IntList();
+        for (String id : ids) {
+            Integer node = index.get(id);
+            if (node != null) {
+                result.add(node);
+            }
+        }
+        return result.toArray();
+    }
+
+    private static List<String> distinct(int[] nodes, IntFunction<String> property) {
+        Set<String> values = new LinkedHashSet<>();
+        for (int node : nodes) {
+            String value = property.apply(node);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return new ArrayList<>(values);
+    }
+
+    private List<EmployeeView> employeeViews(int[] nodes) {
+        List<EmployeeView> views = new ArrayList<>(nodes.length);
+        for (int node : nodes) {
+            views.add(employees[node]);
+        }
+        return views;
+    }
+
+    private List<ProjectView> projectViews(int[] nodes) {
+        List<ProjectView> views = new ArrayList<>(nodes.length);
+        for (int node : nodes) {
+            views.add(projects[node]);
+        }
+        return views;
+    }
+
+    private List<OutcomeView> outcomeViews(int[] nodes) {
+        List<OutcomeView> views = new ArrayList<>(nodes.length);
+        for (int node : nodes) {
+            views.add(outcomes[node]);
+        }
+        return views;
+    }
+
+    private static String[] lower(int count, IntFunction<String> property) {
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            String value = property.apply(i);
+            values[i] = value == null ? null : value.toLowerCase(Locale.ROOT);
+        }
+        return values;
+    }
+
+    private static List<String> lower(Collection<String> texts) {
+        return texts.stream().map(text -> lower(text)).filter(text -> !text.isEmpty()).distinct().toList();
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Same normal form as {@code KnowledgeGraphReadRepository.normalizeName}.
+     */
+    private static String normalizeName(String name) {
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Collects nodes and edges, then freezes them into a snapshot. Not thread-safe; used by one loader.
+     */
+    public static final class Builder {
+
+        private static final class EdgeList {
+            private int[] sources = new int[64];
+            private int[] targets = new int[64];
+            private int size;
+
+            void add(int source, int target) {
+                if (size == sources.length) {
+                    sources = Arrays.copyOf(sources, size * 2);
+                    targets = Arrays.copyOf(targets, size * 2);
+                }
+                sources[size] = source;
+                targets[size] = target;
+                size++;
+            }
+        }
+
+        private final List<EmployeeView> employees = new ArrayList<>();
+        private final List<ProjectView> projects = new ArrayList<>();
+        private final List<OutcomeView> outcomes = new ArrayList<>();
+        private final List<ReportView> reports = new ArrayList<>();
+        private final Map<Label, Map<String, Integer>> indexes = new EnumMap<>(Label.class);
+        private final Map<Relationship, EdgeList> edges = new EnumMap<>(Relationship.class);
+        private final Map<String, String> strings = new HashMap<>();
+        private int skippedEdges;
+
+        private Builder() {
+            for (Label label : Label.values()) {
+                indexes.put(label, new HashMap<>());
+            }
+            for (Relationship type : Relationship.values()) {
+                edges.put(type, new EdgeList());
+            }
+        }
+
+        private String intern(String value) {
+            return value == null ? null : strings.computeIfAbsent(value, v -> v);
+        }
+
+        private boolean register(Label label, String id, int ordinal) {
+            return id != null && indexes.get(label).putIfAbsent(id, ordinal) == null;
+        }
+
+        public Builder add(EmployeeView e) {
+            if (register(Label.EMPLOYEE, e.id(), employees.size())) {
+                employees.add(new EmployeeView(intern(e.id()), intern(e.name()), intern(e.role()),
+                    intern(e.department()), intern(e.email()), e.changeVersion()));
+            }
+            return this;
+        }
+
+        public Builder add(ProjectView p) {
+            if (register(Label.PROJECT, p.id(), projects.size())) {
+                projects.add(new ProjectView(intern(p.id()), intern(p.name()), intern(p.description()),
+                    intern(p.category()), intern(p.status()), intern(p.startDate()), p.changeVersion()));
+            }
+            return this;
+        }
+
+        public Builder add(OutcomeView o) {
+            if (register(Label.OUTCOME, o.id(), outcomes.size())) {
+                outcomes.add(new OutcomeView(intern(o.id()), intern(o.description()), intern(o.impactLevel()),
+                    intern(o.metrics()), intern(o.category()), o.changeVersion()));
+            }
+            return this;
+        }
+
+        public Builder add(ReportView r) {
+            if (register(Label.REPORT, r.id(), reports.size())) {
+                reports.add(new ReportView(intern(r.id()), intern(r.title()), intern(r.type()),
+                    intern(r.date()), intern(r.filePath()), intern(r.summary()), r.changeVersion()));
+            }
+            return this;
+        }
+
+        /**
+         * Adds an edge between two already added nodes; edges with an unknown endpoint are counted and dropped.
+         */
+        public Builder addEdge(Relationship type, String sourceId, String targetId) {
+            Integer source = indexes.get(type.source()).get(sourceId);
+            Integer target = indexes.get(type.target()).get(targetId);
+            if (source == null || target == null) {
+                skippedEdges++;
+                return this;
+            }
+            edges.get(type).add(source, target);
+            return this;
+        }
+
+        public int getSkippedEdges() {
+            return skippedEdges;
+        }
+
+        public GraphSnapshot build(long graphVersion, long changeVersion, int searchLimit, RetrievalRanking ranking) {
+            return new GraphSnapshot(this, graphVersion, changeVersion, searchLimit, ranking);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.service.kag.snapshot;
+
+import com.example.repository.KnowledgeGraphReadRepository;
+import com.example.repository.KnowledgeGraphReadRepository.Edge;
+import com.example.repository.KnowledgeGraphReadRepository.RelationshipChange;
+import com.example.repository.RetrievalRanking;
+import com.example.repository.projection.EmployeeView;
+import com.example.repository.projection.OutcomeView;
+import com.example.repository.projection.ProjectView;
+import com.example.repository.projection.ReportView;
+import com.example.service.kag.GraphChangeEvent;
+import com.example.service.kag.GraphVersion;
+import com.example.service.kag.snapshot.GraphSnapshot.Label;
+import com.example.service.kag.snapshot.GraphSnapshot.Relationship;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a {@link GraphSnapshot} of the knowledge graph so intent queries can be answered in-process.
+ * The snapshot is rebuilt in the background on a schedule and whenever {@link GraphVersion} is bumped,
+ * then swapped in atomically. Changes reported by the {@link com.example.service.kag.GraphChangeFeed} are
+ * patched in instead: only the changed nodes are read back and applied with {@link GraphSnapshot#patch}.
+ * A snapshot is only handed out while it holds the current graph version and every published change, so
+ * after a write queries go to Neo4j until the patch or reload has finished. With
+ * {@code kag.graph.snapshot.enabled=false} nothing is loaded and every query goes to Neo4j.
+ */
+@Component
+@Slf4j
+public class GraphSnapshotEngine {
+
+    private final KnowledgeGraphReadRepository readRepository;
+    private final GraphVersion graphVersion;
+    private final boolean enabled;
+    private final int searchLimit;
+    private final RetrievalRanking ranking;
+    private final Timer loadTimer;
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "graph-snapshot-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile GraphSnapshot snapshot;
+    // Highest change version published by the change feed; snapshots older than it are not handed out
+    private volatile long publishedChangeVersion;
+
+    public GraphSnapshotEngine(
+            KnowledgeGraphReadRepository readRepository,
+            GraphVersion graphVersion,
+            @Value("${kag.graph.snapshot.enabled:false}") boolean enabled,
+            @Value("${kag.graph.search-limit:50}") int searchLimit,
+            RetrievalRanking ranking,
+            MeterRegistry meterRegistry) {
+        this.readRepository = readRepository;
+        this.graphVersion = graphVersion;
+        this.enabled = enabled;
+        this.searchLimit = searchLimit;
+        this.ranking = ranking;
+
+        this.loadTimer = Timer.builder("kag.graph.snapshot.load")
+            .description("Time taken to load the in-memory graph snapshot")
+            .register(meterRegistry);
+        Gauge.builder("kag.graph.snapshot.nodes", this, engine -> engine.snapshot == null ? 0 : engine.snapshot.getNodeCount())
+            .description("Nodes held by the in-memory graph snapshot")
+            .register(meterRegistry);
+        Gauge.builder("kag.graph.snapshot.edges", this, engine -> engine.snapshot == null ? 0 : engine.snapshot.getEdgeCount())
+            .description("Relationships held by the in-memory graph snapshot")
+            .register(meterRegistry);
+        Gauge.builder("kag.graph.snapshot.ready", this, engine -> engine.current().isPresent() ? 1 : 0)
+            .description("Whether queries are answered from the snapshot (1) or from Neo4j (0)")
+            .register(meterRegistry);
+    }
+
+    /**
+     * The snapshot when it is enabled, loaded and as new as the graph; empty means query Neo4j.
+     */
+    public Optional<GraphSnapshot> current() {
+        GraphSnapshot current = snapshot;
+        if (current == null || current.getGraphVersion() != graphVersion.current()
+                || current.getChangeVersion() < publishedChangeVersion) {
+            return Optional.empty();
+        }
+        return Optional.of(current);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Scheduled(initialDelayString = "PT0S", fixedDelayString = "${kag.graph.snapshot.refresh-interval:PT10M}")
+    public void scheduledRefresh() {
+        if (enabled) {
+            loader.execute(this::refresh);
+        }
+    }
+
+    @EventListener
+    public void onGraphVersionChanged(GraphVersion.ChangedEvent event) {
+        if (enabled) {
+            log.info("Graph version {} published, reloading graph snapshot", event.version());
+            loader.execute(this::refresh);
+        }
+    }
+
+    /**
+     * Runs before the other listeners, so no query is answered from the old snapshot once caches have
+     * dropped their entries for the change.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onGraphChanged(GraphChangeEvent event) {
+        publishedChangeVersion = Math.max(publishedChangeVersion, event.toVersion());
+        if (enabled && !event.truncated()) {
+            loader.execute(() -> patch(event));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    /**
+     * Runs on the single loader thread, so loads never overlap.
+     */
+    private void refresh() {
+        try {
+            // Read the versions first: a write that lands during the load bumps them again and is applied next
+            long version = graphVersion.current();
+            long changeVersion = readRepository.findChangeVersion();
+            long start = System.nanoTime();
+
+            GraphSnapshot.Builder builder = GraphSnapshot.builder();
+            readRepository.findAllEmployees().forEach(builder::add);
+            readRepository.findAllProjects().forEach(builder::add);
+            readRepository.findAllOutcomes().forEach(builder::add);
+            readRepository.findAllReports().forEach(builder::add);
+            for (GraphSnapshot.Relationship type : GraphSnapshot.Relationship.values()) {
+                for (Edge edge : readRepository.findEdges(type.source().neo4jLabel(), type.name(), type.target().neo4jLabel())) {
+                    builder.addEdge(type, edge.sourceId(), edge.targetId());
+                }
+            }
+            GraphSnapshot loaded = builder.build(version, changeVersion, searchLimit, ranking);
+
+            snapshot = loaded;
+            long elapsed = System.nanoTime() - start;
+            loadTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Graph snapshot for version {} loaded with {} nodes and {} relationships in {} ms ({} dangling relationships skipped)",
+                version, loaded.getNodeCount(), loaded.getEdgeCount(), elapsed / 1_000_000, builder.getSkippedEdges());
+        } catch (Exception e) {
+            log.warn("Graph snapshot refresh failed, keeping previous snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Applies one change feed event to the snapshot, on the loader thread. Falls back to a full reload when the
+     * snapshot misses earlier changes or the patch fails.
+     */
+    private void patch(GraphChangeEvent event) {
+        GraphSnapshot current = snapshot;
+        if (current == null || current.getChangeVersion() >= event.toVersion()) {
+            return;
+        }
+        if (current.getGraphVersion() != graphVersion.current() || current.getChangeVersion() < event.fromVersion()) {
+            refresh();
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            Map<Label, Set<String>> removed = new EnumMap<>(Label.class);
+            GraphSnapshot.Patch changes = new GraphSnapshot.Patch(
+                read(event, Label.EMPLOYEE, readRepository::findEmployeesByIds, EmployeeView::id, removed),
+                read(event, Label.PROJECT, readRepository::findProjectsByIds, ProjectView::id, removed),
+                read(event, Label.OUTCOME, readRepository::findOutcomesByIds, OutcomeView::id, removed),
+                read(event, Label.REPORT, readRepository::findReportsByIds, ReportView::id, removed),
+                removed,
+                edges(event.relationships()));
+            GraphSnapshot patched = current.patch(event.toVersion(), changes);
+
+            snapshot = patched;
+            log.info("Graph snapshot patched to change version {} with {} changes in {} ms",
+                event.toVersion(), event.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Graph snapshot patch failed, reloading: {}", e.getMessage());
+            refresh();
+        }
+    }
+
+    private static <T> List<T> read(GraphChangeEvent event, Label label, Function<Set<String>, List<T>> finder,
+                                    Function<T, String> idOf, Map<Label, Set<String>> removed) {
+        Set<String> ids = event.changedIds(label.neo4jLabel());
+        List<T> views = finder.apply(ids);
+        Set<String> missing = new HashSet<>(ids);
+        views.forEach(view -> missing.remove(idOf.apply(view)));
+        if (!missing.isEmpty()) {
+            removed.put(label, missing);
+        }
+        return views;
+    }
+
+    private static Map<Relationship, List<Edge>> edges(List<RelationshipChange> changes) {
+        Set<String> snapshotTypes = Arrays.stream(Relationship.values()).map(Enum::name).collect(Collectors.toSet());
+        Map<Relationship, List<Edge>> edges = new EnumMap<>(Relationship.class);
+        for (RelationshipChange change : changes) {
+            // Relationship types the snapshot does not hold, such as MANAGED, are skipped
+            if (snapshotTypes.contains(change.type())) {
+                edges.computeIfAbsent(Relationship.valueOf(change.type()), type -> new ArrayList<>())
+                    .add(new Edge(change.sourceId(), change.targetId()));
+            }
+        }
+        return edges;
+    }
+}
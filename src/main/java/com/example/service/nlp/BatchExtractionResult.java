@@ -0,0 +1,25 @@
+package com.example.service.nlp;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchExtractionResult {
+    
+    // Extracted entities in the same order as the input queries
+    private List<QueryEntities> results;
+    
+    private int queryCount;
+    private int cacheHits;
+    private int annotatedCount;
+    private int threads;
+    private long durationMs;
+    private double queriesPerSecond;
+}
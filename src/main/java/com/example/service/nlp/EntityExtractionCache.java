@@ -0,0 +1,61 @@
+package com.example.service.nlp;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded cache of extraction results keyed by the normalized query text.
+ * Entries are immutable {@link QueryEntities} snapshots, so a hit can be handed out without copying.
+ */
+@Component
+@Slf4j
+public class EntityExtractionCache {
+
+    private static final Pattern PUNCTUATION = Pattern.compile("\\p{Punct}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Cache<String, QueryEntities> cache;
+
+    public EntityExtractionCache(
+            @Value("${kag.nlp.cache.max-size:10000}") long maxSize,
+            @Value("${kag.nlp.cache.ttl:30m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "entityExtraction");
+    }
+
+    /**
+     * Folds punctuation and whitespace so trivially different spellings of a question share an entry.
+     * Case is kept: NER and the name gazetteer both treat capitalised words differently.
+     */
+    public static String normalize(String query) {
+        String folded = PUNCTUATION.matcher(query).replaceAll(" ");
+        return WHITESPACE.matcher(folded).replaceAll(" ").trim();
+    }
+
+    public Optional<QueryEntities> get(String query) {
+        return Optional.ofNullable(cache.getIfPresent(normalize(query)));
+    }
+
+    public void put(String query, QueryEntities entities) {
+        cache.put(normalize(query), entities);
+    }
+
+    public void invalidateAll() {
+        log.info("Invalidating {} cached extraction results", cache.estimatedSize());
+        cache.invalidateAll();
+    }
+}
@@ -1,14 +1,18 @@
 package com.example.service.nlp;
 
-import edu.stanford.nlp.ling.CoreAnnotations;
-import edu.stanford.nlp.ling.CoreLabel;
+import edu.stanford.nlp.pipeline.Annotation;
 import edu.stanford.nlp.pipeline.CoreDocument;
+import edu.stanford.nlp.pipeline.CoreEntityMention;
 import edu.stanford.nlp.pipeline.StanfordCoreNLP;
+import com.example.service.nlp.KeywordMatcher.Category;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import jakarta.annotation.PostConstruct;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -16,50 +20,107 @@ import java.util.stream.Collectors;
 @Slf4j
 public class EntityExtractionService {
     
-    private StanfordCoreNLP pipeline;
-    private final Set<String> projectKeywords;
-    private final Set<String> employeeKeywords;
-    private final Set<String> outcomeKeywords;
-    private final Set<String> reportKeywords;
+    private final NlpPipelinePool pipelinePool;
+    private final EntityExtractionCache extractionCache;
+    private final NameGazetteer nameGazetteer;
+    private final KeywordMatcher keywordMatcher;
+    private final int batchThreads;
+    private final Timer annotateTimer;
+    private final IntentClassifier intentClassifier;
+    private final double minIntentConfidence;
     
-    public EntityExtractionService() {
+    public EntityExtractionService(
+            NlpPipelinePool pipelinePool,
+            EntityExtractionCache extractionCache,
+            NameGazetteer nameGazetteer,
+            @Value("${kag.nlp.keywords.employee:}") List<String> extraEmployeeKeywords,
+            @Value("${kag.nlp.keywords.project:}") List<String> extraProjectKeywords,
+            @Value("${kag.nlp.keywords.outcome:}") List<String> extraOutcomeKeywords,
+            @Value("${kag.nlp.keywords.report:}") List<String> extraReportKeywords,
+            @Value("${kag.nlp.batch.threads:0}") int batchThreads,
+            @Value("${kag.nlp.intent.model:nlp/intent-model.tsv}") String intentModel,
+            @Value("${kag.nlp.intent.min-confidence:0.5}") double minIntentConfidence,
+            MeterRegistry meterRegistry) {
+        this.pipelinePool = pipelinePool;
+        this.extractionCache = extractionCache;
+        this.nameGazetteer = nameGazetteer;
+        this.batchThreads = batchThreads > 0 ? batchThreads : Runtime.getRuntime().availableProcessors();
+        this.annotateTimer = Timer.builder("kag.nlp.annotate")
+            .description("CoreNLP annotation time per query")
+            .tag("profile", pipelinePool.getProfile().name())
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        
+        this.minIntentConfidence = minIntentConfidence;
+        this.intentClassifier = intentModel.isBlank() ? null : IntentClassifier.loadResource(intentModel);
+        if (intentClassifier != null) {
+            log.info("Intent classifier loaded from {} ({} hashed features)", intentModel, intentClassifier.getDimensions());
+        } else {
+            log.warn("No intent model configured or found at '{}', using rule-based intent detection", intentModel);
+        }
+        
         // Initialize domain-specific keywords for our use case
-        this.projectKeywords = Set.of(
+        Set<String> projectKeywords = Set.of(
             "project", "projects", "initiative", "initiatives", "program", "programs",
             "ai safety", "bias detection", "ethics framework", "safety blueprint",
             "framework", "system", "platform", "implementation"
         );
         
-        this.employeeKeywords = Set.of(
+        Set<String> employeeKeywords = Set.of(
             "employee", "employees", "person", "people", "team", "member", "members",
             "researcher", "engineer", "specialist", "manager", "lead", "developer",
             "worked", "working", "involved", "participated", "contributed"
         );
         
-        this.outcomeKeywords = Set.of(
+        Set<String> outcomeKeywords = Set.of(
             "outcome", "outcomes", "result", "results", "achievement", "achievements",
             "impact", "success", "benefit", "improvement", "reduction", "increase",
             "metrics", "performance", "effectiveness", "accomplished", "delivered"
         );
         
-        this.reportKeywords = Set.of(
+        Set<String> reportKeywords = Set.of(
             "report", "reports", "document", "documents", "documentation", "paper",
             "assessment", "analysis", "study", "findings", "publication", "summary"
         );
+        
+        KeywordMatcher.Builder builder = KeywordMatcher.builder()
+            .add(Category.EMPLOYEE, employeeKeywords)
+            .add(Category.PROJECT, projectKeywords)
+            .add(Category.OUTCOME, outcomeKeywords)
+            .add(Category.REPORT, reportKeywords)
+            .add(Category.EMPLOYEE, extraEmployeeKeywords)
+            .add(Category.PROJECT, extraProjectKeywords)
+            .add(Category.OUTCOME, extraOutcomeKeywords)
+            .add(Category.REPORT, extraReportKeywords);
+        
+        // Specific skills, roles and project categories normalised to the values the graph queries use
+        builder.add(Category.EMPLOYEE, "safety", "AI Safety")
+            .add(Category.PROJECT, "safety", "AI Safety")
+            .add(Category.PROJECT, "bias", "bias")
+            .add(Category.PROJECT, "ethics", "ethics")
+            .add(Category.OUTCOME, "reduced", "reduction")
+            .add(Category.OUTCOME, "improved", "improvement")
+            .add(Category.OUTCOME, "accuracy", "accuracy");
+        
+        // Intent cues, reported under their canonical form
+        addIntentCue(builder, "who", "who");
+        addIntentCue(builder, "what", "what");
+        addIntentCue(builder, "worked", "worked");
+        addIntentCue(builder, "involved", "involved");
+        addIntentCue(builder, "outcome", "outcome", "outcomes");
+        addIntentCue(builder, "result", "result", "results");
+        addIntentCue(builder, "achievement", "achievement", "achievements");
+        addIntentCue(builder, "project", "project", "projects");
+        addIntentCue(builder, "report", "report", "reports");
+        addIntentCue(builder, "document", "document", "documents", "documented", "documentation");
+        
+        this.keywordMatcher = builder.build();
+        log.info("Keyword matcher compiled with {} keywords", keywordMatcher.getKeywordCount());
     }
     
-    @PostConstruct
-    public void initializePipeline() {
-        try {
-            Properties props = new Properties();
-            props.setProperty("annotators", "tokenize,ssplit,pos,lemma,ner");
-            props.setProperty("ner.useSUTime", "false");
-            props.setProperty("ner.applyNumericClassifiers", "false");
-            this.pipeline = new StanfordCoreNLP(props);
-            log.info("NLP pipeline initialized successfully");
-        } catch (Exception e) {
-            log.error("Failed to initialize NLP pipeline: {}", e.getMessage());
-            // Continue without NLP pipeline - use keyword-based extraction as fallback
+    private static void addIntentCue(KeywordMatcher.Builder builder, String cue, String... forms) {
+        for (String form : forms) {
+            builder.add(Category.INTENT_CUE, form, cue);
         }
     }
     
@@ -67,50 +128,41 @@ public class EntityExtractionService {
         log.info("=== ENTITY EXTRACTION START ===");
         log.info("Input query: '{}'", query);
         
-        QueryEntities entities = new QueryEntities();
-        String lowerQuery = query.toLowerCase();
-        log.info("Lowercase query: '{}'", lowerQuery);
-        
-        // Extract entity types and keywords using both NLP and keyword matching
-        Set<String> employeeKeywords = extractEmployeeKeywords(lowerQuery);
-        log.info("Employee keywords extracted: {}", employeeKeywords);
-        entities.setEmployeeKeywords(employeeKeywords);
-        
-        Set<String> projectKeywords = extractProjectKeywords(lowerQuery);
-        log.info("Project keywords extracted: {}", projectKeywords);
-        entities.setProjectKeywords(projectKeywords);
+        Optional<QueryEntities> cached = extractionCache.get(query);
+        if (cached.isPresent()) {
+            log.info("Entity extraction cache hit, skipping NLP");
+            log.info("=== ENTITY EXTRACTION END ===");
+            return cached.get();
+        }
         
-        Set<String> outcomeKeywords = extractOutcomeKeywords(lowerQuery);
-        log.info("Outcome keywords extracted: {}", outcomeKeywords);
-        entities.setOutcomeKeywords(outcomeKeywords);
+        // Extract entity types, keywords and intent in a single keyword scan
+        QueryEntities entities = extractKeywordEntities(query);
         
-        Set<String> reportKeywords = extractReportKeywords(lowerQuery);
-        log.info("Report keywords extracted: {}", reportKeywords);
-        entities.setReportKeywords(reportKeywords);
+        // Names known to the graph resolve straight to ids; CoreNLP is only needed when none are found
+        boolean namesResolved = resolveKnownNames(query, entities);
         
         // Use NLP pipeline if available for person names and organizations
-        if (pipeline != null) {
-            log.info("NLP pipeline available, extracting person names and organizations");
-            try {
-                Set<String> personNames = extractPersonNames(query);
-                log.info("Person names extracted via NLP: {}", personNames);
-                entities.setPersonNames(personNames);
-                
-                Set<String> organizations = extractOrganizations(query);
-                log.info("Organizations extracted via NLP: {}", organizations);
-                entities.setOrganizations(organizations);
-            } catch (Exception e) {
-                log.warn("NLP extraction failed, using keyword-based approach: {}", e.getMessage());
+        if (!namesResolved) {
+            Optional<StanfordCoreNLP> pipeline = pipelinePool.acquire();
+            if (pipeline.isPresent()) {
+                log.info("NLP pipeline available, extracting named entities");
+                try {
+                    CoreDocument document = new CoreDocument(query);
+                    annotateTimer.record(() -> pipeline.get().annotate(document));
+                    applyEntityMentions(document, entities);
+                    namesResolved = true;
+                    log.info("Person names extracted via NLP: {}", entities.getPersonNames());
+                    log.info("Organizations extracted via NLP: {}", entities.getOrganizations());
+                } catch (Exception e) {
+                    log.warn("NLP extraction failed, using keyword-based approach: {}", e.getMessage());
+                } finally {
+                    pipelinePool.release(pipeline.get());
+                }
+            } else if (pipelinePool.isEnabled()) {
+                log.warn("NLP pipeline not available, skipping person name and organization extraction");
             }
-        } else {
-            log.warn("NLP pipeline not available, skipping person name and organization extraction");
         }
         
-        // Determine query intent
-        QueryIntent intent = determineQueryIntent(lowerQuery);
-        log.info("Query intent determined: {}", intent);
-        entities.setQueryIntent(intent);
-        
         log.info("=== FINAL EXTRACTED ENTITIES ===");
         log.info("Person names: {}", entities.getPersonNames());
         log.info("Employee keywords: {}", entities.getEmployeeKeywords());
@@ -121,154 +173,185 @@ public class EntityExtractionService {
         log.info("Query intent: {}", entities.getQueryIntent());
         log.info("=== ENTITY EXTRACTION END ===");
         
-        return entities;
+        return complete(query, entities, namesResolved);
     }
     
-    private Set<String> extractEmployeeKeywords(String query) {
-        Set<String> keywords = new HashSet<>();
-        
-        for (String keyword : employeeKeywords) {
-            if (query.contains(keyword)) {
-                keywords.add(keyword);
+    /**
+     * Extracts entities for many queries at once. Queries that miss the cache and the gazetteer are
+     * annotated together through CoreNLP's multi-threaded path; results keep the input order.
+     */
+    public BatchExtractionResult extractEntitiesBatch(List<String> queries) {
+        log.info("=== BATCH ENTITY EXTRACTION START: {} queries ===", queries.size());
+        long start = System.nanoTime();
+        
+        QueryEntities[] results = new QueryEntities[queries.size()];
+        List<Integer> pendingIndexes = new ArrayList<>();
+        List<Annotation> pendingAnnotations = new ArrayList<>();
+        int cacheHits = 0;
+        
+        for (int i = 0; i < queries.size(); i++) {
+            String query = queries.get(i);
+            Optional<QueryEntities> cached = extractionCache.get(query);
+            if (cached.isPresent()) {
+                results[i] = cached.get();
+                cacheHits++;
+                continue;
+            }
+            
+            QueryEntities entities = extractKeywordEntities(query);
+            if (resolveKnownNames(query, entities)) {
+                results[i] = complete(query, entities, true);
+            } else {
+                results[i] = entities;
+                pendingIndexes.add(i);
+                pendingAnnotations.add(new Annotation(query));
             }
         }
         
-        // Look for specific skills or roles
-        if (query.contains("ai safety") || query.contains("safety")) {
-            keywords.add("AI Safety");
-        }
-        if (query.contains("researcher")) {
-            keywords.add("researcher");
+        boolean nerApplied = false;
+        if (!pendingAnnotations.isEmpty()) {
+            Optional<StanfordCoreNLP> pipeline = pipelinePool.acquire();
+            if (pipeline.isPresent()) {
+                try {
+                    long annotateStart = System.nanoTime();
+                    pipeline.get().annotate(pendingAnnotations, batchThreads);
+                    // Recorded as the average per query so batch and single-query latencies compare directly
+                    long perQuery = (System.nanoTime() - annotateStart) / pendingAnnotations.size();
+                    for (int k = 0; k < pendingAnnotations.size(); k++) {
+                        annotateTimer.record(perQuery, TimeUnit.NANOSECONDS);
+                    }
+                    for (int k = 0; k < pendingAnnotations.size(); k++) {
+                        applyEntityMentions(new CoreDocument(pendingAnnotations.get(k)), results[pendingIndexes.get(k)]);
+                    }
+                    nerApplied = true;
+                } catch (Exception e) {
+                    log.warn("Batch NLP extraction failed, using keyword-based approach: {}", e.getMessage());
+                } finally {
+                    pipelinePool.release(pipeline.get());
+                }
+            } else if (pipelinePool.isEnabled()) {
+                log.warn("NLP pipeline not available, batch runs keyword-only for {} queries", pendingAnnotations.size());
+            }
         }
-        if (query.contains("engineer")) {
-            keywords.add("engineer");
+        for (int index : pendingIndexes) {
+            results[index] = complete(queries.get(index), results[index], nerApplied);
         }
         
-        return keywords;
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        BatchExtractionResult result = BatchExtractionResult.builder()
+                .results(Arrays.asList(results))
+                .queryCount(queries.size())
+                .cacheHits(cacheHits)
+                .annotatedCount(nerApplied ? pendingAnnotations.size() : 0)
+                .threads(batchThreads)
+                .durationMs(durationMs)
+                .queriesPerSecond(durationMs == 0 ? queries.size() * 1000.0 : queries.size() * 1000.0 / durationMs)
+                .build();
+        
+        log.info("=== BATCH ENTITY EXTRACTION END: {} queries in {} ms ({} cached, {} annotated, {} queries/s) ===",
+                result.getQueryCount(), result.getDurationMs(), result.getCacheHits(), result.getAnnotatedCount(),
+                String.format("%.1f", result.getQueriesPerSecond()));
+        return result;
     }
     
-    private Set<String> extractProjectKeywords(String query) {
-        Set<String> keywords = new HashSet<>();
-        
-        for (String keyword : projectKeywords) {
-            if (query.contains(keyword)) {
-                keywords.add(keyword);
-            }
-        }
+    private QueryEntities extractKeywordEntities(String query) {
+        QueryEntities entities = new QueryEntities();
+        String lowerQuery = query.toLowerCase();
+        log.debug("Lowercase query: '{}'", lowerQuery);
         
-        // Look for specific project categories
-        if (query.contains("ai safety") || query.contains("safety")) {
-            keywords.add("AI Safety");
-        }
-        if (query.contains("bias")) {
-            keywords.add("bias");
-        }
-        if (query.contains("ethics")) {
-            keywords.add("ethics");
-        }
+        Map<Category, Set<String>> matches = keywordMatcher.scan(lowerQuery);
+        entities.setEmployeeKeywords(matches.get(Category.EMPLOYEE));
+        entities.setProjectKeywords(matches.get(Category.PROJECT));
+        entities.setOutcomeKeywords(matches.get(Category.OUTCOME));
+        entities.setReportKeywords(matches.get(Category.REPORT));
+        determineQueryIntent(query, matches.get(Category.INTENT_CUE), entities);
+        log.debug("Keyword matches: {}, query intent: {}", matches, entities.getQueryIntent());
         
-        return keywords;
+        return entities;
     }
     
-    private Set<String> extractOutcomeKeywords(String query) {
-        Set<String> keywords = new HashSet<>();
-        
-        for (String keyword : outcomeKeywords) {
-            if (query.contains(keyword)) {
-                keywords.add(keyword);
-            }
-        }
-        
-        // Look for specific outcome types
-        if (query.contains("reduction") || query.contains("reduced")) {
-            keywords.add("reduction");
-        }
-        if (query.contains("improvement") || query.contains("improved")) {
-            keywords.add("improvement");
+    private QueryEntities complete(String query, QueryEntities entities, boolean namesResolved) {
+        QueryEntities snapshot = entities.snapshot();
+        // Keyword-only results are not cached so the query gets full NER once the pipeline is back,
+        // unless the active profile runs without CoreNLP and they are already final
+        if (namesResolved || !pipelinePool.isEnabled()) {
+            extractionCache.put(query, snapshot);
         }
-        if (query.contains("accuracy")) {
-            keywords.add("accuracy");
-        }
-        
-        return keywords;
+        return snapshot;
     }
     
-    private Set<String> extractReportKeywords(String query) {
-        Set<String> keywords = new HashSet<>();
+    private boolean resolveKnownNames(String query, QueryEntities entities) {
+        Set<NameGazetteer.Entry> matches = nameGazetteer.match(query);
+        if (matches.isEmpty()) {
+            return false;
+        }
         
-        for (String keyword : reportKeywords) {
-            if (query.contains(keyword)) {
-                keywords.add(keyword);
+        for (NameGazetteer.Entry match : matches) {
+            if (match.type() == NameGazetteer.EntityType.EMPLOYEE) {
+                entities.getPersonNames().add(match.name());
+                entities.getEmployeeIds().add(match.id());
+            } else {
+                entities.getProjectIds().add(match.id());
             }
         }
-        
-        return keywords;
+        log.info("Gazetteer resolved employees {} and projects {}", entities.getEmployeeIds(), entities.getProjectIds());
+        return !entities.getEmployeeIds().isEmpty();
     }
     
-    private Set<String> extractPersonNames(String text) {
+    /**
+     * Reads every entity type from the document's entity mentions,
+     * so multi-token names such as "Carol Johnson" are kept together.
+     */
+    private void applyEntityMentions(CoreDocument document, QueryEntities entities) {
         Set<String> personNames = new HashSet<>();
-        
-        if (pipeline == null) return personNames;
-        
-        try {
-            CoreDocument document = new CoreDocument(text);
-            pipeline.annotate(document);
-            
-            for (CoreLabel token : document.tokens()) {
-                String ner = token.get(CoreAnnotations.NamedEntityTagAnnotation.class);
-                if ("PERSON".equals(ner)) {
-                    personNames.add(token.word());
-                }
+        Set<String> organizations = new HashSet<>();
+        for (CoreEntityMention mention : document.entityMentions()) {
+            switch (mention.entityType()) {
+                case "PERSON" -> personNames.add(mention.text());
+                case "ORGANIZATION" -> organizations.add(mention.text());
+                default -> { }
             }
-        } catch (Exception e) {
-            log.warn("Failed to extract person names: {}", e.getMessage());
         }
         
-        return personNames;
+        entities.setPersonNames(personNames);
+        entities.setOrganizations(organizations);
     }
-    
-    private Set<String> extractOrganizations(String text) {
-        Set<String> organizations = new HashSet<>();
-        
-        if (pipeline == null) return organizations;
-        
-        try {
-            CoreDocument document = new CoreDocument(text);
-            pipeline.annotate(document);
-            
-            for (CoreLabel token : document.tokens()) {
-                String ner = token.get(CoreAnnotations.NamedEntityTagAnnotation.class);
-                if ("ORGANIZATION".equals(ner)) {
-                    organizations.add(token.word());
-                }
-            }
-        } catch (Exception e) {
-            log.warn("Failed to extract organizations: {}", e.getMessage());
+
+    private void determineQueryIntent(String query, Set<String> cues, QueryEntities entities) {
+        if (intentClassifier == null) {
+            entities.setQueryIntent(determineQueryIntentByRules(cues));
+            return;
         }
         
-        return organizations;
+        IntentClassifier.Prediction prediction = intentClassifier.classify(query);
+        entities.setIntentConfidence(prediction.confidence());
+        // Uncertain predictions fall back to the broadest search rather than risk a narrow wrong one
+        entities.setQueryIntent(prediction.confidence() >= minIntentConfidence
+                ? prediction.intent()
+                : QueryIntent.COMPREHENSIVE_SEARCH);
+        log.debug("Intent classifier predicted {} with confidence {}", prediction.intent(), prediction.confidence());
     }
-
-    //Note: This can be forwarded to the LLM to determine the quality intent of the query.
-    private QueryIntent determineQueryIntent(String query) {
+    
+    // Rule-based fallback used when no intent model is available
+    private QueryIntent determineQueryIntentByRules(Set<String> cues) {
         // Analyze query structure to determine intent
-        if (query.contains("who") && (query.contains("worked") || query.contains("involved"))) {
+        if (cues.contains("who") && (cues.contains("worked") || cues.contains("involved"))) {
             return QueryIntent.FIND_PEOPLE_BY_PROJECT;
         }
         
-        if (query.contains("what") && (query.contains("outcome") || query.contains("result") || query.contains("achievement"))) {
+        if (cues.contains("what") && (cues.contains("outcome") || cues.contains("result") || cues.contains("achievement"))) {
             return QueryIntent.FIND_OUTCOMES;
         }
         
-        if (query.contains("project") && (query.contains("outcome") || query.contains("result"))) {
+        if (cues.contains("project") && (cues.contains("outcome") || cues.contains("result"))) {
             return QueryIntent.FIND_PROJECT_OUTCOMES;
         }
         
-        if (query.contains("report") || query.contains("document")) {
+        if (cues.contains("report") || cues.contains("document")) {
             return QueryIntent.FIND_REPORTS;
         }
         
         // Default to comprehensive search if unclear
         return QueryIntent.COMPREHENSIVE_SEARCH;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,230 @@
+package com.example.service.nlp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Linear intent classifier over hashed word, word-prefix and word-bigram features.
+ * Weights are trained offline by {@code com.example.tools.IntentClassifierTrainer} and loaded from a
+ * resource file; scoring a query is a handful of hash lookups and a softmax over the intents.
+ */
+public final class IntentClassifier {
+
+    public record Prediction(QueryIntent intent, double confidence, double[] scores) {}
+
+    private static final String BOS = "<s>";
+    private static final int PREFIX_LENGTH = 5;
+
+    private final QueryIntent[] labels;
+    private final int dimensions;
+    private final float[] weights;
+    private final float[] bias;
+
+    public IntentClassifier(QueryIntent[] labels, int dimensions, float[] weights, float[] bias) {
+        this.labels = labels;
+        this.dimensions = dimensions;
+        this.weights = weights;
+        this.bias = bias;
+    }
+
+    public QueryIntent[] getLabels() {
+        return labels;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public Prediction classify(String query) {
+        double[] scores = new double[labels.length];
+        for (int k = 0; k < labels.length; k++) {
+            scores[k] = bias[k];
+        }
+        for (int feature : features(query, dimensions)) {
+            int row = feature * labels.length;
+            for (int k = 0; k < labels.length; k++) {
+                scores[k] += weights[row + k];
+            }
+        }
+        softmax(scores);
+
+        int best = 0;
+        for (int k = 1; k < scores.length; k++) {
+            if (scores[k] > scores[best]) {
+                best = k;
+            }
+        }
+        return new Prediction(labels[best], scores[best], scores);
+    }
+
+    /**
+     * Hashed feature indexes for a query: every lowercased word, its first few letters (so "report",
+     * "reports" and "reported" share a feature) and every adjacent word pair, with a sentence-start
+     * marker so leading question words get their own bigram.
+     */
+    public static int[] features(String query, int dimensions) {
+        List<String> tokens = tokenize(query);
+        int[] features = new int[tokens.size() * 3];
+        String previous = BOS;
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            String prefix = token.length() > PREFIX_LENGTH ? token.substring(0, PREFIX_LENGTH) : token;
+            features[3 * i] = bucket(hash("w", token, null), dimensions);
+            features[3 * i + 1] = bucket(hash("p", prefix, null), dimensions);
+            features[3 * i + 2] = bucket(hash("b", previous, token), dimensions);
+            previous = token;
+        }
+        return features;
+    }
+
+    private static List<String> tokenize(String query) {
+        List<String> tokens = new ArrayList<>();
+        String lower = query.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static int hash(String prefix, String first, String second) {
+        int h = prefix.hashCode();
+        h = 31 * h + first.hashCode();
+        if (second != null) {
+            h = 31 * h + '_';
+            h = 31 * h + second.hashCode();
+        }
+        // murmur3 finalizer spreads the bits before bucketing
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int bucket(int hash, int dimensions) {
+        return (hash & 0x7fffffff) % dimensions;
+    }
+
+    public static void softmax(double[] scores) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double score : scores) {
+            max = Math.max(max, score);
+        }
+        double sum = 0;
+        for (int k = 0; k < scores.length; k++) {
+            scores[k] = Math.exp(scores[k] - max);
+            sum += scores[k];
+        }
+        for (int k = 0; k < scores.length; k++) {
+            scores[k] /= sum;
+        }
+    }
+
+    /**
+     * Loads a model from the classpath, or returns null when the resource does not exist.
+     */
+    public static IntentClassifier loadResource(String resource) {
+        InputStream in = IntentClassifier.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            return null;
+        }
+        try (in) {
+            return read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load intent model " + resource, e);
+        }
+    }
+
+    /**
+     * Model format: a {@code dimensions} line, a {@code labels} line, a {@code bias} line and one line per
+     * non-zero feature row holding the bucket index followed by one weight per label, all tab separated.
+     */
+    public static IntentClassifier read(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        int dimensions = 0;
+        QueryIntent[] labels = null;
+        float[] bias = null;
+        float[] weights = null;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t");
+            switch (fields[0]) {
+                case "dimensions" -> dimensions = Integer.parseInt(fields[1]);
+                case "labels" -> {
+                    String[] names = fields[1].split(",");
+                    labels = new QueryIntent[names.length];
+                    for (int k = 0; k < names.length; k++) {
+                        labels[k] = QueryIntent.valueOf(names[k]);
+                    }
+                    weights = new float[dimensions * labels.length];
+                }
+                case "bias" -> bias = parseRow(fields, labels.length);
+                default -> {
+                    int row = Integer.parseInt(fields[0]) * labels.length;
+                    System.arraycopy(parseRow(fields, labels.length), 0, weights, row, labels.length);
+                }
+            }
+        }
+        if (labels == null || bias == null) {
+            throw new IOException("Intent model is missing its labels or bias line");
+        }
+        return new IntentClassifier(labels, dimensions, weights, bias);
+    }
+
+    private static float[] parseRow(String[] fields, int width) {
+        float[] row = new float[width];
+        for (int k = 0; k < width; k++) {
+            row[k] = Float.parseFloat(fields[k + 1]);
+        }
+        return row;
+    }
+
+    public void write(Writer out) throws IOException {
+        StringBuilder names = new StringBuilder();
+        for (int k = 0; k < labels.length; k++) {
+            names.append(k == 0 ? "" : ",").append(labels[k].name());
+        }
+        out.write("# Hashed n-gram intent model, generated by IntentClassifierTrainer\n");
+        out.write("dimensions\t" + dimensions + "\n");
+        out.write("labels\t" + names + "\n");
+        out.write("bias" + formatRow(bias, 0) + "\n");
+        for (int feature = 0; feature < dimensions; feature++) {
+            int row = feature * labels.length;
+            boolean nonZero = false;
+            for (int k = 0; k < labels.length && !nonZero; k++) {
+                nonZero = weights[row + k] != 0f;
+            }
+            if (nonZero) {
+                out.write(feature + formatRow(weights, row) + "\n");
+            }
+        }
+    }
+
+    private String formatRow(float[] values, int offset) {
+        StringBuilder row = new StringBuilder();
+        for (int k = 0; k < labels.length; k++) {
+            row.append('\t').append(String.format(Locale.ROOT, "%.5f", values[offset + k]));
+        }
+        return row.toString();
+    }
+}
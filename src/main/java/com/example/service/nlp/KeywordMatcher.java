@@ -0,0 +1,146 @@
+package com.example.service.nlp;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Aho-Corasick automaton over all domain vocabularies and intent cues.
+ * A query is scanned once, left to right, and every keyword that occurs on word boundaries
+ * is reported under its category, regardless of how many keywords are registered.
+ */
+public final class KeywordMatcher {
+
+    public enum Category {
+        EMPLOYEE, PROJECT, OUTCOME, REPORT, INTENT_CUE
+    }
+
+    private record Output(int length, Category category, String value) {}
+
+    private static final class Node {
+        private final Map<Character, Node> next = new HashMap<>();
+        private final List<Output> outputs = new ArrayList<>();
+        private Node fail;
+    }
+
+    private final Node root;
+    private final int keywordCount;
+
+    private KeywordMatcher(Node root, int keywordCount) {
+        this.root = root;
+        this.keywordCount = keywordCount;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getKeywordCount() {
+        return keywordCount;
+    }
+
+    /**
+     * Scans already-lowercased text and returns the matched values grouped by category.
+     * Every category is present in the result, possibly with an empty set.
+     */
+    public Map<Category, Set<String>> scan(String text) {
+        Map<Category, Set<String>> matches = new EnumMap<>(Category.class);
+        for (Category category : Category.values()) {
+            matches.put(category, new LinkedHashSet<>());
+        }
+
+        Node state = root;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            while (state != root && !state.next.containsKey(c)) {
+                state = state.fail;
+            }
+            state = state.next.getOrDefault(c, root);
+
+            for (Output output : state.outputs) {
+                int start = i - output.length() + 1;
+                if (isBoundary(text, start - 1) && isBoundary(text, i + 1)) {
+                    matches.get(output.category()).add(output.value());
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static boolean isBoundary(String text, int index) {
+        return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+    }
+
+    public static final class Builder {
+
+        private final Node root = new Node();
+        private int keywordCount;
+
+        private Builder() {
+        }
+
+        /**
+         * Registers keywords that are reported as themselves.
+         */
+        public Builder add(Category category, Iterable<String> keywords) {
+            for (String keyword : keywords) {
+                add(category, keyword, keyword);
+            }
+            return this;
+        }
+
+        /**
+         * Registers a keyword that is reported as {@code value} when it occurs in the text.
+         */
+        public Builder add(Category category, String keyword, String value) {
+            String pattern = keyword.trim().toLowerCase();
+            if (pattern.isEmpty()) {
+                return this;
+            }
+
+            Node node = root;
+            for (int i = 0; i < pattern.length(); i++) {
+                node = node.next.computeIfAbsent(pattern.charAt(i), c -> new Node());
+            }
+            Output output = new Output(pattern.length(), category, value);
+            if (!node.outputs.contains(output)) {
+                node.outputs.add(output);
+                keywordCount++;
+            }
+            return this;
+        }
+
+        public KeywordMatcher build() {
+            // Breadth-first construction of failure links; outputs of the failure target
+            // are merged in so the scan never has to follow dictionary links.
+            Queue<Node> queue = new ArrayDeque<>();
+            for (Node child : root.next.values()) {
+                child.fail = root;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                Node node = queue.poll();
+                for (Map.Entry<Character, Node> edge : node.next.entrySet()) {
+                    char c = edge.getKey();
+                    Node child = edge.getValue();
+                    Node fail = node.fail;
+                    while (fail != root && !fail.next.containsKey(c)) {
+                        fail = fail.fail;
+                    }
+                    Node target = fail.next.get(c);
+                    child.fail = target != null && target != child ? target : root;
+                    child.outputs.addAll(child.fail.outputs);
+                    queue.add(child);
+                }
+            }
+            root.fail = root;
+            return new KeywordMatcher(root, keywordCount);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.service.nlp;
+
+import com.example.repository.KnowledgeGraphReadRepository;
+import com.example.repository.KnowledgeGraphReadRepository.NamedNode;
+import com.example.service.kag.GraphChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory dictionary of employee and project names loaded from the knowledge graph.
+ * Resolves mentions in a query straight to entity ids, tolerating one typo in longer multi-word names.
+ * An employee's first or last name alone only resolves when it is capitalised in the query, so ordinary words
+ * such as "grant" or "will" are not taken for people. For the same reason a typo in the first word of a name
+ * is only tolerated when every word of the mention is capitalised.
+ * The index is rebuilt periodically and swapped in atomically, so lookups never wait for a refresh;
+ * between refreshes, names changed in the graph are applied from {@link GraphChangeEvent}s.
+ */
+@Component
+@Slf4j
+public class NameGazetteer {
+
+    public enum EntityType {
+        EMPLOYEE, PROJECT
+    }
+
+    public record Entry(EntityType type, String id, String name) {}
+
+    private record Index(List<Entry> entries, NameTrie<Entry> names, NameTrie<Entry> aliases, int maxTokens,
+                         int fingerprint) {}
+
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}][\\p{L}\\p{N}'-]*");
+
+    private final KnowledgeGraphReadRepository readRepository;
+    private final EntityExtractionCache extractionCache;
+    private final int fuzzyMinLength;
+
+    private volatile Index index = new Index(List.of(), NameTrie.<Entry>builder().build(),
+        NameTrie.<Entry>builder().build(), 0, 0);
+
+    public NameGazetteer(
+            KnowledgeGraphReadRepository readRepository,
+            EntityExtractionCache extractionCache,
+            @Value("${kag.nlp.gazetteer.fuzzy-min-length:5}") int fuzzyMinLength) {
+        this.readRepository = readRepository;
+        this.extractionCache = extractionCache;
+        this.fuzzyMinLength = fuzzyMinLength;
+    }
+
+    @Scheduled(initialDelayString = "PT0S", fixedDelayString = "${kag.nlp.gazetteer.refresh-interval:PT10M}")
+    public synchronized void refresh() {
+        try {
+            long start = System.currentTimeMillis();
+            List<Entry> entries = new ArrayList<>();
+            for (NamedNode employee : readRepository.findEmployeeNames()) {
+                entries.add(new Entry(EntityType.EMPLOYEE, employee.id(), employee.name()));
+            }
+            for (NamedNode project : readRepository.findProjectNames()) {
+                entries.add(new Entry(EntityType.PROJECT, project.id(), project.name()));
+            }
+
+            swap(entries);
+            log.info("Name gazetteer refreshed with {} entries ({} keys) in {} ms",
+                entries.size(), index.names().size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("Name gazetteer refresh failed, keeping previous index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Re-reads only the names of the employees and projects that changed and rebuilds the index from them
+     * plus the entries already held, so graph writes show up without waiting for the next full refresh.
+     */
+    @EventListener
+    public synchronized void onGraphChanged(GraphChangeEvent event) {
+        if (event.truncated()) {
+            refresh();
+            return;
+        }
+        Set<String> employeeIds = event.changedIds("Employee");
+        Set<String> projectIds = event.changedIds("Project");
+        if (employeeIds.isEmpty() && projectIds.isEmpty()) {
+            return;
+        }
+        try {
+            List<Entry> entries = new ArrayList<>();
+            for (Entry entry : index.entries()) {
+                Set<String> changed = entry.type() == EntityType.EMPLOYEE ? employeeIds : projectIds;
+                if (!changed.contains(entry.id())) {
+                    entries.add(entry);
+                }
+            }
+            if (!employeeIds.isEmpty()) {
+                for (NamedNode employee : readRepository.findNamesByIds("Employee", employeeIds)) {
+                    entries.add(new Entry(EntityType.EMPLOYEE, employee.id(), employee.name()));
+                }
+            }
+            if (!projectIds.isEmpty()) {
+                for (NamedNode project : readRepository.findNamesByIds("Project", projectIds)) {
+                    entries.add(new Entry(EntityType.PROJECT, project.id(), project.name()));
+                }
+            }
+
+            swap(entries);
+            log.info("Name gazetteer updated for {} changed employees and {} changed projects",
+                employeeIds.size(), projectIds.size());
+        } catch (Exception e) {
+            log.warn("Name gazetteer update failed, keeping previous index: {}", e.getMessage());
+        }
+    }
+
+    private void swap(List<Entry> entries) {
+        Index previous = index;
+        index = buildIndex(entries);
+        if (previous.fingerprint() != 0 && previous.fingerprint() != index.fingerprint()) {
+            // Cached extractions may carry names or ids that no longer resolve the same way
+            extractionCache.invalidateAll();
+        }
+    }
+
+    private static Index buildIndex(List<Entry> entries) {
+        NameTrie.Builder<Entry> names = NameTrie.builder();
+        NameTrie.Builder<Entry> aliases = NameTrie.builder();
+        int maxTokens = 0;
+        for (Entry entry : entries) {
+            List<String> tokens = lowerCase(tokenize(entry.name()));
+            if (tokens.isEmpty()) {
+                continue;
+            }
+            maxTokens = Math.max(maxTokens, tokens.size());
+            names.put(String.join(" ", tokens), entry);
+
+            // Employees are often referred to by first or last name alone
+            if (entry.type() == EntityType.EMPLOYEE && tokens.size() > 1) {
+                aliases.put(tokens.get(0), entry);
+                aliases.put(tokens.get(tokens.size() - 1), entry);
+            }
+        }
+        // Order-independent, so a full refresh and an incremental update of the same names agree
+        return new Index(List.copyOf(entries), names.build(), aliases.build(), maxTokens,
+            Set.copyOf(entries).hashCode());
+    }
+
+    /**
+     * Finds the longest name mentions in the query, left to right.
+     * Exact matches win; a single edit is tolerated for multi-word candidates of at least the configured length,
+     * outside the first word unless the candidate is capitalised throughout.
+     * A single capitalised word also matches an employee's first or last name.
+     */
+    public Set<Entry> match(String query) {
+        Index current = index;
+        Set<Entry> matches = new LinkedHashSet<>();
+        if (current.maxTokens() == 0) {
+            return matches;
+        }
+
+        List<String> original = tokenize(query);
+        List<String> tokens = lowerCase(original);
+        int i = 0;
+        while (i < tokens.size()) {
+            int consumed = 0;
+            for (int n = Math.min(current.maxTokens(), tokens.size() - i); n > 0 && consumed == 0; n--) {
+                String candidate = String.join(" ", tokens.subList(i, i + n));
+                Set<Entry> found = current.names().exact(candidate);
+                if (found.isEmpty() && n > 1 && candidate.length() >= fuzzyMinLength) {
+                    found = fuzzy(current, candidate, original.subList(i, i + n));
+                }
+                if (found.isEmpty() && n == 1 && Character.isUpperCase(original.get(i).charAt(0))) {
+                    found = current.aliases().exact(candidate);
+                }
+                if (!found.isEmpty()) {
+                    matches.addAll(found);
+                    consumed = n;
+                }
+            }
+            i += Math.max(consumed, 1);
+        }
+        return matches;
+    }
+
+    /**
+     * Lowercase text such as "grand young people" sits one edit from "Grant Young", so unless the mention is
+     * written like a name, the first word has to be spelled exactly.
+     */
+    private static Set<Entry> fuzzy(Index index, String candidate, List<String> original) {
+        Set<Entry> found = index.names().fuzzy(candidate, 1);
+        if (found.isEmpty() || original.stream().allMatch(token -> Character.isUpperCase(token.charAt(0)))) {
+            return found;
+        }
+        String prefix = lowerCase(original.subList(0, 1)).get(0) + " ";
+        Set<Entry> anchored = new LinkedHashSet<>();
+        for (Entry entry : found) {
+            if (String.join(" ", lowerCase(tokenize(entry.name()))).startsWith(prefix)) {
+                anchored.add(entry);
+            }
+        }
+        return anchored;
+    }
+
+    public boolean isLoaded() {
+        return index.maxTokens() > 0;
+    }
+
+    /**
+     * Word tokens in their original case, with a trailing possessive {@code 's} removed.
+     */
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = TOKEN.matcher(text);
+        while (matcher.find()) {
+            String token = matcher.group();
+            boolean possessive = token.length() > 2 && token.regionMatches(true, token.length() - 2, "'s", 0, 2);
+            tokens.add(possessive ? token.substring(0, token.length() - 2) : token);
+        }
+        return tokens;
+    }
+
+    private static List<String> lowerCase(List<String> tokens) {
+        return tokens.stream().map(token -> token.toLowerCase(Locale.ROOT)).toList();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.service.nlp;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable character trie over lowercased entity names with exact and edit-distance lookups.
+ * Built once per gazetteer refresh and then only read, so lookups need no locking.
+ */
+public final class NameTrie<T> {
+
+    private static final class Node<T> {
+        private final Map<Character, Node<T>> children = new HashMap<>();
+        private final Set<T> values = new LinkedHashSet<>();
+    }
+
+    private final Node<T> root;
+    private final int size;
+
+    private NameTrie(Node<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Set<T> exact(String key) {
+        Node<T> node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        return node == null ? Set.of() : Collections.unmodifiableSet(node.values);
+    }
+
+    /**
+     * Returns the values of every key within {@code maxEdits} insertions, deletions or substitutions of {@code key}.
+     * Walks the trie once, carrying one Levenshtein row per level and pruning branches that cannot match.
+     */
+    public Set<T> fuzzy(String key, int maxEdits) {
+        Set<T> results = new LinkedHashSet<>();
+        int[] firstRow = new int[key.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        for (Map.Entry<Character, Node<T>> child : root.children.entrySet()) {
+            fuzzy(child.getValue(), child.getKey(), key, firstRow, maxEdits, results);
+        }
+        return results;
+    }
+
+    private void fuzzy(Node<T> node, char c, String key, int[] previousRow, int maxEdits, Set<T> results) {
+        int[] row = new int[previousRow.length];
+        row[0] = previousRow[0] + 1;
+        int rowMin = row[0];
+        for (int j = 1; j < row.length; j++) {
+            int insert = row[j - 1] + 1;
+            int delete = previousRow[j] + 1;
+            int replace = previousRow[j - 1] + (key.charAt(j - 1) == c ? 0 : 1);
+            row[j] = Math.min(Math.min(insert, delete), replace);
+            rowMin = Math.min(rowMin, row[j]);
+        }
+
+        if (row[row.length - 1] <= maxEdits) {
+            results.addAll(node.values);
+        }
+        if (rowMin <= maxEdits) {
+            for (Map.Entry<Character, Node<T>> child : node.children.entrySet()) {
+                fuzzy(child.getValue(), child.getKey(), key, row, maxEdits, results);
+            }
+        }
+    }
+
+    public static final class Builder<T> {
+
+        private final Node<T> root = new Node<>();
+        private int size;
+
+        private Builder() {
+        }
+
+        public Builder<T> put(String key, T value) {
+            Node<T> node = root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Node<>());
+            }
+            if (node.values.isEmpty()) {
+                size++;
+            }
+            node.values.add(value);
+            return this;
+        }
+
+        public NameTrie<T> build() {
+            return new NameTrie<>(root, size);
+        }
+    }
+}
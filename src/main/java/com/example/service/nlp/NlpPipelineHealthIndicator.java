@@ -0,0 +1,31 @@
+package com.example.service.nlp;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports whether entity extraction runs with full NER or in keyword-only mode.
+ * The application serves traffic in both modes, so the indicator stays UP while models load.
+ */
+@Component
+@RequiredArgsConstructor
+public class NlpPipelineHealthIndicator implements HealthIndicator {
+
+    private final NlpPipelinePool pipelinePool;
+
+    @Override
+    public Health health() {
+        String mode = !pipelinePool.isEnabled() ? "GAZETTEER_ONLY"
+            : pipelinePool.isAvailable() ? "FULL_NER" : "KEYWORD_ONLY";
+        return Health.up()
+            .withDetail("profile", pipelinePool.getProfile())
+            .withDetail("state", pipelinePool.getState())
+            .withDetail("mode", mode)
+            .withDetail("pipelines", pipelinePool.getCreatedPipelines() + "/" + pipelinePool.getSize())
+            .withDetail("loadDurationMs", pipelinePool.getLoadDurationMillis())
+            .withDetail("heapBytes", pipelinePool.getHeapBytes())
+            .build();
+    }
+}
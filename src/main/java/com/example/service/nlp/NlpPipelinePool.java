@@ -0,0 +1,243 @@
+package com.example.service.nlp;
+
+import edu.stanford.nlp.pipeline.AnnotatorPool;
+import edu.stanford.nlp.pipeline.StanfordCoreNLP;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of CoreNLP pipelines shared by request threads.
+ * Callers check a pipeline out with {@link #acquire()}, which waits at most the configured timeout,
+ * and must hand it back with {@link #release(StanfordCoreNLP)}.
+ * <p>
+ * Models load on a background thread so startup does not wait for them; until the first pipeline
+ * is ready the pool is empty and extraction runs in keyword-only mode.
+ */
+@Component
+@Slf4j
+public class NlpPipelinePool {
+
+    public enum State {
+        LOADING, READY, FAILED, DISABLED
+    }
+
+    private final NlpProfile profile;
+    private final boolean measureHeap;
+    private final int size;
+    private final Duration acquireTimeout;
+    private final BlockingQueue<StanfordCoreNLP> idlePipelines;
+    private final AtomicInteger createdPipelines = new AtomicInteger();
+    private final AtomicInteger activePipelines = new AtomicInteger();
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "nlp-model-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile State state = State.LOADING;
+    private volatile long loadDurationMillis = -1;
+    private volatile long heapBytes = -1;
+
+    private final Timer waitTimer;
+    private final Counter exhaustedCounter;
+    private final Timer loadTimer;
+
+    public NlpPipelinePool(
+            @Value("${kag.nlp.profile:FULL}") NlpProfile profile,
+            @Value("${kag.nlp.measure-heap:false}") boolean measureHeap,
+            @Value("${kag.nlp.pool.size:2}") int size,
+            @Value("${kag.nlp.pool.acquire-timeout:200ms}") Duration acquireTimeout,
+            MeterRegistry meterRegistry) {
+        this.profile = profile;
+        this.measureHeap = measureHeap;
+        this.size = Math.max(1, size);
+        this.acquireTimeout = acquireTimeout;
+        this.idlePipelines = new ArrayBlockingQueue<>(this.size);
+
+        this.waitTimer = Timer.builder("kag.nlp.pool.wait")
+            .description("Time spent waiting to check out an NLP pipeline")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.exhaustedCounter = Counter.builder("kag.nlp.pool.exhausted")
+            .description("Checkouts that timed out and fell back to keyword-only extraction")
+            .register(meterRegistry);
+        this.loadTimer = Timer.builder("kag.nlp.pipeline.load")
+            .description("Time taken to load the models of one NLP pipeline")
+            .tag("profile", profile.name())
+            .register(meterRegistry);
+        Gauge.builder("kag.nlp.pipeline.heap", this, NlpPipelinePool::getHeapBytes)
+            .description("Heap retained by the NLP pipelines, measured after loading")
+            .tag("profile", profile.name())
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("kag.nlp.pipeline.ready", this, pool -> pool.isAvailable() ? 1 : 0)
+            .description("Whether full NER is available (1) or extraction is keyword-only (0)")
+            .register(meterRegistry);
+        Gauge.builder("kag.nlp.pool.size", createdPipelines, AtomicInteger::get)
+            .description("NLP pipelines created")
+            .register(meterRegistry);
+        Gauge.builder("kag.nlp.pool.active", activePipelines, AtomicInteger::get)
+            .description("NLP pipelines currently checked out")
+            .register(meterRegistry);
+        Gauge.builder("kag.nlp.pool.utilization", this, NlpPipelinePool::getUtilization)
+            .description("Fraction of NLP pipelines currently checked out")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void initialize() {
+        if (!profile.usesPipeline()) {
+            state = State.DISABLED;
+            log.info("NLP profile {} selected, no CoreNLP pipelines will be loaded", profile);
+            return;
+        }
+        log.info("NLP profile {} selected", profile);
+        log.info("Loading {} NLP pipelines in the background, serving keyword-only extraction until ready", size);
+        loader.execute(this::loadPipelines);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    private void loadPipelines() {
+        long heapBefore = measureHeap ? usedHeap() : 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < size && !Thread.currentThread().isInterrupted(); i++) {
+            try {
+                StanfordCoreNLP pipeline = loadTimer.recordCallable(this::createPipeline);
+                idlePipelines.add(pipeline);
+                createdPipelines.incrementAndGet();
+                if (state == State.LOADING) {
+                    // Full NER is usable as soon as the first pipeline is in the pool
+                    state = State.READY;
+                    log.info("First NLP pipeline ready after {} ms, switching to full NER",
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                }
+            } catch (Exception e) {
+                log.error("Failed to initialize NLP pipeline {} of {}: {}", i + 1, size, e.getMessage());
+                // Continue with fewer pipelines - extraction falls back to keywords when none are available
+                break;
+            }
+        }
+        loadDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (measureHeap) {
+            heapBytes = Math.max(0, usedHeap() - heapBefore);
+            log.info("NLP pipelines for profile {} retain about {} MB of heap", profile, heapBytes / (1024 * 1024));
+        }
+        if (state == State.LOADING) {
+            state = State.FAILED;
+        }
+        log.info("NLP pipeline pool loaded {} of {} pipelines in {} ms", createdPipelines.get(), size, loadDurationMillis);
+    }
+
+    /**
+     * Used heap after a full collection. Only called from the loader thread when heap measurement is enabled.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private StanfordCoreNLP createPipeline() {
+        Properties props = profile.pipelineProperties();
+        // A private annotator pool keeps CoreNLP from handing every pipeline the same cached annotators
+        return new StanfordCoreNLP(props, true, new AnnotatorPool());
+    }
+
+    /**
+     * Checks out a pipeline, waiting up to the configured timeout.
+     * Returns an empty optional when the pool has no pipelines or all of them stay busy.
+     */
+    public Optional<StanfordCoreNLP> acquire() {
+        if (createdPipelines.get() == 0) {
+            return Optional.empty();
+        }
+
+        long start = System.nanoTime();
+        try {
+            StanfordCoreNLP pipeline = idlePipelines.poll(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (pipeline == null) {
+                exhaustedCounter.increment();
+                log.warn("No NLP pipeline available within {} ms", acquireTimeout.toMillis());
+                return Optional.empty();
+            }
+            activePipelines.incrementAndGet();
+            return Optional.of(pipeline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    public void release(StanfordCoreNLP pipeline) {
+        activePipelines.decrementAndGet();
+        idlePipelines.offer(pipeline);
+    }
+
+    public boolean isAvailable() {
+        return createdPipelines.get() > 0;
+    }
+
+    /**
+     * False when the active profile runs without CoreNLP, so keyword and gazetteer results are final.
+     */
+    public boolean isEnabled() {
+        return profile.usesPipeline();
+    }
+
+    public NlpProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Heap retained by the loaded pipelines, or -1 when not measured.
+     */
+    public long getHeapBytes() {
+        return heapBytes;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getCreatedPipelines() {
+        return createdPipelines.get();
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Wall-clock time taken to load all pipelines, or -1 while loading is still in progress.
+     */
+    public long getLoadDurationMillis() {
+        return loadDurationMillis;
+    }
+
+    public double getUtilization() {
+        int created = createdPipelines.get();
+        return created == 0 ? 0.0 : (double) activePipelines.get() / created;
+    }
+}
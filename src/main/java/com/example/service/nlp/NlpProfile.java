@@ -0,0 +1,54 @@
+package com.example.service.nlp;
+
+import java.util.Properties;
+
+/**
+ * Selectable extraction profiles, trading NER coverage for heap and latency.
+ * The footprint of the active profile is measured when its pipelines load and published as
+ * {@code kag.nlp.pipeline.heap}; per-query latency is published as {@code kag.nlp.annotate}.
+ */
+public enum NlpProfile {
+
+    /**
+     * The original pipeline: tokenize, ssplit, pos, lemma and ner with CoreNLP's default model set
+     * (3-class, 7-class and 4-class CRFs plus fine-grained rules). Heaviest profile; pos and lemma
+     * output is never read by extraction.
+     */
+    FULL,
+
+    /**
+     * Tokenize, ssplit and the 3-class CRF only (PERSON, ORGANIZATION, LOCATION). Drops the pos and
+     * lemma models, the 7-class and 4-class classifiers and the fine-grained rules, which covers
+     * everything extraction reads at a fraction of the heap.
+     */
+    NER_3CLASS,
+
+    /**
+     * No CoreNLP pipeline at all. Person and project names come only from the name gazetteer,
+     * so names missing from the graph are not recognised. Smallest heap and fastest extraction.
+     */
+    GAZETTEER_ONLY;
+
+    private static final String NER_3CLASS_MODEL = "edu/stanford/nlp/models/ner/english.all.3class.distsim.crf.ser.gz";
+
+    public boolean usesPipeline() {
+        return this != GAZETTEER_ONLY;
+    }
+
+    public Properties pipelineProperties() {
+        Properties props = new Properties();
+        props.setProperty("ner.useSUTime", "false");
+        props.setProperty("ner.applyNumericClassifiers", "false");
+        switch (this) {
+            case FULL -> props.setProperty("annotators", "tokenize,ssplit,pos,lemma,ner");
+            case NER_3CLASS -> {
+                props.setProperty("annotators", "tokenize,ssplit,ner");
+                props.setProperty("ner.model", NER_3CLASS_MODEL);
+                props.setProperty("ner.applyFineGrained", "false");
+                props.setProperty("ner.buildEntityMentions", "true");
+            }
+            case GAZETTEER_ONLY -> throw new IllegalStateException("Profile " + this + " does not use a CoreNLP pipeline");
+        }
+        return props;
+    }
+}
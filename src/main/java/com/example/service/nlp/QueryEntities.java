@@ -5,7 +5,9 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 @Data
 @NoArgsConstructor
@@ -20,8 +22,33 @@ public class QueryEntities {
     private Set<String> personNames = new HashSet<>();
     private Set<String> organizations = new HashSet<>();
     
+    // Entity ids resolved directly from the name gazetteer
+    private Set<String> employeeIds = new HashSet<>();
+    private Set<String> projectIds = new HashSet<>();
+    
     private QueryIntent queryIntent = QueryIntent.COMPREHENSIVE_SEARCH;
     
+    // Classifier confidence for the predicted intent, null when intent came from rules
+    private Double intentConfidence;
+    
+    /**
+     * Returns an immutable copy, safe to share between requests.
+     */
+    public QueryEntities snapshot() {
+        QueryEntities snapshot = new QueryEntities();
+        snapshot.setEmployeeKeywords(Set.copyOf(employeeKeywords));
+        snapshot.setProjectKeywords(Set.copyOf(projectKeywords));
+        snapshot.setOutcomeKeywords(Set.copyOf(outcomeKeywords));
+        snapshot.setReportKeywords(Set.copyOf(reportKeywords));
+        snapshot.setPersonNames(Set.copyOf(personNames));
+        snapshot.setOrganizations(Set.copyOf(organizations));
+        snapshot.setEmployeeIds(Set.copyOf(employeeIds));
+        snapshot.setProjectIds(Set.copyOf(projectIds));
+        snapshot.setQueryIntent(queryIntent);
+        snapshot.setIntentConfidence(intentConfidence);
+        return snapshot;
+    }
+    
     public boolean hasEmployeeKeywords() {
         return !employeeKeywords.isEmpty() || !personNames.isEmpty();
     }
@@ -38,6 +65,18 @@ public class QueryEntities {
         return !reportKeywords.isEmpty();
     }
     
+    /**
+     * Every extracted keyword, deduplicated and sorted, used to search and rank graph nodes.
+     */
+    public List<String> allKeywords() {
+        Set<String> keywords = new TreeSet<>();
+        keywords.addAll(projectKeywords);
+        keywords.addAll(outcomeKeywords);
+        keywords.addAll(reportKeywords);
+        keywords.addAll(employeeKeywords);
+        return List.copyOf(keywords);
+    }
+    
     public String getPrimaryProjectCategory() {
         if (projectKeywords.contains("AI Safety") || employeeKeywords.contains("AI Safety")) {
             return "AI Safety";
@@ -0,0 +1,166 @@
+package com.example.tools;
+
+import com.example.service.nlp.IntentClassifier;
+import com.example.service.nlp.QueryIntent;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Offline trainer for {@link IntentClassifier}.
+ * Trains a multinomial logistic regression over hashed n-gram features with SGD, reports k-fold
+ * cross-validation accuracy and classification latency, then writes the model trained on all data.
+ *
+ * <pre>
+ * ./gradlew trainIntentModel
+ * </pre>
+ */
+public final class IntentClassifierTrainer {
+
+    private static final int DIMENSIONS = 4096;
+    private static final int EPOCHS = 40;
+    private static final double LEARNING_RATE = 0.2;
+    private static final double L2 = 1e-4;
+    private static final int FOLDS = 5;
+    private static final long SEED = 42L;
+    private static final int BENCHMARK_ITERATIONS = 200_000;
+
+    private record Example(QueryIntent label, String query) {}
+
+    private IntentClassifierTrainer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path trainingFile = Path.of(args.length > 0 ? args[0] : "src/main/resources/nlp/intent-training.tsv");
+        Path modelFile = Path.of(args.length > 1 ? args[1] : "src/main/resources/nlp/intent-model.tsv");
+
+        List<Example> examples = readExamples(trainingFile);
+        QueryIntent[] labels = QueryIntent.values();
+        System.out.printf("Loaded %d labelled queries from %s%n", examples.size(), trainingFile);
+
+        evaluate(examples, labels);
+
+        IntentClassifier classifier = train(examples, labels);
+        benchmark(classifier, examples);
+
+        try (Writer out = Files.newBufferedWriter(modelFile, StandardCharsets.UTF_8)) {
+            classifier.write(out);
+        }
+        System.out.printf("Model written to %s%n", modelFile);
+    }
+
+    private static List<Example> readExamples(Path file) throws IOException {
+        List<Example> examples = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t", 2);
+            examples.add(new Example(QueryIntent.valueOf(fields[0].trim()), fields[1].trim()));
+        }
+        return examples;
+    }
+
+    static IntentClassifier train(List<Example> examples, QueryIntent[] labels) {
+        int width = labels.length;
+        float[] weights = new float[DIMENSIONS * width];
+        float[] bias = new float[width];
+        List<Example> order = new ArrayList<>(examples);
+        Random random = new Random(SEED);
+
+        for (int epoch = 0; epoch < EPOCHS; epoch++) {
+            Collections.shuffle(order, random);
+            double rate = LEARNING_RATE / (1 + epoch * 0.1);
+            for (Example example : order) {
+                int[] features = IntentClassifier.features(example.query(), DIMENSIONS);
+                double[] scores = new double[width];
+                for (int k = 0; k < width; k++) {
+                    scores[k] = bias[k];
+                    for (int feature : features) {
+                        scores[k] += weights[feature * width + k];
+                    }
+                }
+                IntentClassifier.softmax(scores);
+
+                // Cross-entropy gradient: predicted probability minus the one-hot target
+                for (int k = 0; k < width; k++) {
+                    double gradient = scores[k] - (labels[k] == example.label() ? 1 : 0);
+                    bias[k] -= (float) (rate * gradient);
+                    for (int feature : features) {
+                        int index = feature * width + k;
+                        weights[index] -= (float) (rate * (gradient + L2 * weights[index]));
+                    }
+                }
+            }
+        }
+        return new IntentClassifier(labels, DIMENSIONS, weights, bias);
+    }
+
+    private static void evaluate(List<Example> examples, QueryIntent[] labels) {
+        List<Example> shuffled = new ArrayList<>(examples);
+        Collections.shuffle(shuffled, new Random(SEED));
+
+        int[][] confusion = new int[labels.length][labels.length];
+        int correct = 0;
+        for (int fold = 0; fold < FOLDS; fold++) {
+            List<Example> train = new ArrayList<>();
+            List<Example> test = new ArrayList<>();
+            for (int i = 0; i < shuffled.size(); i++) {
+                (i % FOLDS == fold ? test : train).add(shuffled.get(i));
+            }
+            IntentClassifier classifier = train(train, labels);
+            for (Example example : test) {
+                QueryIntent predicted = classifier.classify(example.query()).intent();
+                confusion[example.label().ordinal()][predicted.ordinal()]++;
+                if (predicted == example.label()) {
+                    correct++;
+                }
+            }
+        }
+
+        System.out.printf("%d-fold cross-validation accuracy: %.1f%% (%d/%d)%n",
+            FOLDS, 100.0 * correct / shuffled.size(), correct, shuffled.size());
+        System.out.printf("%-24s %9s %9s%n", "intent", "precision", "recall");
+        for (QueryIntent label : labels) {
+            int truePositives = confusion[label.ordinal()][label.ordinal()];
+            int actual = Arrays.stream(confusion[label.ordinal()]).sum();
+            int predicted = 0;
+            for (int[] row : confusion) {
+                predicted += row[label.ordinal()];
+            }
+            System.out.printf(Locale.ROOT, "%-24s %9.2f %9.2f%n", label,
+                predicted == 0 ? 0.0 : (double) truePositives / predicted,
+                actual == 0 ? 0.0 : (double) truePositives / actual);
+        }
+    }
+
+    private static void benchmark(IntentClassifier classifier, List<Example> examples) {
+        // Warm up so the JIT has compiled the scoring path before measuring
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            classifier.classify(examples.get(i % examples.size()).query());
+        }
+
+        long[] samples = new long[BENCHMARK_ITERATIONS];
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            String query = examples.get(i % examples.size()).query();
+            long start = System.nanoTime();
+            classifier.classify(query);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        System.out.printf(Locale.ROOT, "Classification latency over %d calls: p50 %.2f us, p99 %.2f us, max %.2f us%n",
+            BENCHMARK_ITERATIONS,
+            samples[samples.length / 2] / 1000.0,
+            samples[(int) (samples.length * 0.99)] / 1000.0,
+            samples[samples.length - 1] / 1000.0);
+    }
+}
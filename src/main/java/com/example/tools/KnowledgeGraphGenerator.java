@@ -0,0 +1,496 @@
+package com.example.tools;
+
+import com.example.repository.KnowledgeGraphReadRepository;
+import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.GraphDatabase;
+import org.neo4j.driver.Session;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Writes a seeded synthetic knowledge graph with every node label and relationship type of
+ * {@code knowledge-graph-schema.cypher}, for load and scale testing of the retrieval layer.
+ * Categories, departments, skills and names are drawn from Zipf distributions, so a few values are common
+ * and most are rare, as in real data. Employees work in department-sized neighbourhoods, so project teams,
+ * collaborations and report authors cluster the way an organisation does. The same seed and size always
+ * produce the same graph.
+ * <p>
+ * The target database is wiped first.
+ *
+ * <pre>
+ * ./gradlew generateKnowledgeGraph -Pnodes=100000
+ * </pre>
+ */
+public final class KnowledgeGraphGenerator {
+
+    public static final List<String> CATEGORIES = List.of(
+        "AI Safety", "Machine Learning", "Data Analytics", "Cloud Infrastructure", "AI Ethics", "Security",
+        "Customer Experience", "Platform Engineering", "Natural Language Processing", "Computer Vision",
+        "Data Engineering", "Mobile", "DevOps", "Compliance", "Search", "Recommendation Systems", "Observability",
+        "Payments", "Robotics", "Edge Computing", "Developer Tools", "Privacy", "Knowledge Management",
+        "Fraud Detection", "Supply Chain", "Quantum Computing", "Accessibility", "Sustainability");
+
+    private static final List<String> DEPARTMENTS = List.of(
+        "Engineering", "AI Research", "Data Science", "Product", "AI Safety", "Infrastructure", "Security",
+        "Operations", "Legal", "Design", "Sales Engineering", "Finance");
+
+    private static final List<String> SKILLS = List.of(
+        "Python", "Java", "Machine Learning", "Deep Learning", "Data Analysis", "SQL", "Kubernetes", "AI Safety",
+        "Statistics", "System Architecture", "API Development", "Cloud Computing", "Risk Assessment", "NLP",
+        "Computer Vision", "Bias Detection", "Distributed Systems", "Go", "React", "Compliance", "Project Management",
+        "Fairness Testing", "Security Auditing", "Spark", "Terraform", "Rust", "Policy Development", "Scala",
+        "Reinforcement Learning", "Graph Databases", "Technical Writing", "Product Strategy", "Ethics in AI");
+
+    private static final List<String> FIRST_NAMES = List.of(
+        "James", "Mary", "Wei", "Priya", "Mohammed", "Anna", "Carlos", "Yuki", "Olga", "David", "Fatima", "John",
+        "Sofia", "Ahmed", "Elena", "Raj", "Grace", "Luca", "Aisha", "Michael", "Chen", "Maria", "Omar", "Emma",
+        "Hiroshi", "Sarah", "Ivan", "Leila", "Daniel", "Mei", "Kwame", "Laura", "Arjun", "Nina", "Pedro", "Alice",
+        "Bob", "Carol", "Eve", "Frank", "Zara", "Tomas", "Ingrid", "Kofi", "Ana", "Samuel", "Hana", "Lucas");
+
+    private static final List<String> LAST_NAMES = List.of(
+        "Smith", "Wang", "Patel", "Garcia", "Kim", "Nguyen", "Johnson", "Müller", "Rossi", "Ivanov", "Khan", "Lee",
+        "Brown", "Silva", "Tanaka", "Chen", "Rodriguez", "Williams", "Singh", "Cohen", "Martin", "Okafor", "Haddad",
+        "Novak", "Andersson", "Kowalski", "Dubois", "Yamamoto", "Lopez", "Wilson", "Mensah", "Ali", "Jones", "Park",
+        "Fischer", "Costa", "Murphy", "Sato", "Schmidt", "Das");
+
+    private static final List<String> PROJECT_NOUNS = List.of(
+        "Platform", "Framework", "Pipeline", "Initiative", "Toolkit", "Service", "Dashboard", "Engine", "Migration",
+        "Assessment", "Program", "Pilot");
+
+    private static final List<String> OUTCOME_VERBS = List.of(
+        "Reduced incidents", "Improved accuracy", "Cut latency", "Lowered costs", "Increased adoption",
+        "Improved reliability", "Reduced bias", "Raised throughput", "Shortened release cycle", "Improved coverage");
+
+    private static final List<String> IMPACT_LEVELS = List.of("Medium", "High", "Low", "Critical");
+
+    private static final List<String> REPORT_TYPES = List.of(
+        "Technical Report", "Quarterly Assessment", "Final Report", "Policy Document", "Research Paper", "Post-mortem");
+
+    private static final int BATCH_SIZE = 5_000;
+    private static final int MIN_NODES = 1_000;
+    private static final int MAX_NODES = 10_000_000;
+    private static final LocalDate EPOCH = LocalDate.of(2019, 1, 1);
+
+    /**
+     * Node counts per label for a total size: a quarter employees, a tenth projects, the rest outcomes and reports.
+     */
+    public record Scale(int employees, int projects, int outcomes, int reports) {
+
+        public static Scale of(int nodes) {
+            if (nodes < MIN_NODES || nodes > MAX_NODES) {
+                throw new IllegalArgumentException("Graph size must be between " + MIN_NODES + " and " + MAX_NODES + " nodes");
+            }
+            int employees = nodes / 4;
+            int projects = nodes / 10;
+            int outcomes = nodes * 3 / 10;
+            return new Scale(employees, projects, outcomes, nodes - employees - projects - outcomes);
+        }
+
+        public int total() {
+            return employees + projects + outcomes + reports;
+        }
+    }
+
+    private final Driver driver;
+    private final long seed;
+    private final Zipf categories = new Zipf(CATEGORIES.size(), 1.1);
+    private final Zipf departments = new Zipf(DEPARTMENTS.size(), 0.9);
+    private final Zipf skills = new Zipf(SKILLS.size(), 1.0);
+    private final Zipf firstNames = new Zipf(FIRST_NAMES.size(), 0.7);
+    private final Zipf lastNames = new Zipf(LAST_NAMES.size(), 0.7);
+
+    public KnowledgeGraphGenerator(Driver driver, long seed) {
+        this.driver = driver;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String uri = args.length > 0 ? args[0] : "bolt://localhost:7687";
+        String user = args.length > 1 ? args[1] : "neo4j";
+        String password = args.length > 2 ? args[2] : "password123";
+        int nodes = args.length > 3 ? Integer.parseInt(args[3]) : 100_000;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42L;
+
+        try (Driver driver = GraphDatabase.driver(uri, AuthTokens.basic(user, password))) {
+            new KnowledgeGraphGenerator(driver, seed).generate(Scale.of(nodes), Path.of("knowledge-graph-schema.cypher"));
+        }
+    }
+
+    /**
+     * Wipes the database, applies the schema file and writes a graph of the given scale.
+     */
+    public void generate(Scale scale, Path schemaFile) throws IOException {
+        long start = System.nanoTime();
+        try (Session session = driver.session()) {
+            System.out.printf("Clearing database%n");
+            session.run("MATCH (n) CALL { WITH n DETACH DELETE n } IN TRANSACTIONS OF 10000 ROWS").consume();
+            applySchema(session, schemaFile);
+
+            System.out.printf("Writing %d employees, %d projects, %d outcomes, %d reports (seed %d)%n",
+                scale.employees(), scale.projects(), scale.outcomes(), scale.reports(), seed);
+            writeEmployees(session, scale);
+            writeProjects(session, scale);
+            writeOutcomes(session, scale);
+            writeReports(session, scale);
+            writeTeams(session, scale);
+            writeProjectLinks(session, scale);
+            writeReportLinks(session, scale);
+            session.run("CALL db.awaitIndexes(600)").consume();
+        }
+        System.out.printf(Locale.ROOT, "Generated %d nodes in %.1f s%n", scale.total(), (System.nanoTime() - start) / 1e9);
+    }
+
+    private static void applySchema(Session session, Path schemaFile) throws IOException {
+        StringBuilder statements = new StringBuilder();
+        for (String line : Files.readAllLines(schemaFile, StandardCharsets.UTF_8)) {
+            if (!line.trim().startsWith("//")) {
+                statements.append(line).append('\n');
+            }
+        }
+        for (String statement : statements.toString().split(";")) {
+            if (!statement.isBlank()) {
+                session.run(statement).consume();
+            }
+        }
+        session.run("CALL db.awaitIndexes(600)").consume();
+    }
+
+    // ---- Nodes ----
+
+    private void writeEmployees(Session session, Scale scale) {
+        Batch batch = new Batch(session, "UNWIND $rows AS row CREATE (e:Employee) SET e = row", "employees");
+        SplittableRandom random = random(1);
+        for (int i = 0; i < scale.employees(); i++) {
+            String first = FIRST_NAMES.get(firstNames.sample(random));
+            String last = LAST_NAMES.get(lastNames.sample(random));
+            String name = first + " " + last;
+            Set<String> employeeSkills = new LinkedHashSet<>();
+            int skillCount = 3 + random.nextInt(4);
+            while (employeeSkills.size() < skillCount) {
+                employeeSkills.add(SKILLS.get(skills.sample(random)));
+            }
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", employeeId(i));
+            row.put("name", name);
+            row.put("nameLower", KnowledgeGraphReadRepository.normalizeName(name));
+            row.put("email", (first + "." + last + "." + i + "@company.com").toLowerCase(Locale.ROOT));
+            row.put("department", DEPARTMENTS.get(departmentOf(i, scale)));
+            row.put("role", roleFor(random));
+            row.put("joinDate", date(random, 0, 2500));
+            row.put("skills", List.copyOf(employeeSkills));
+            batch.add(row);
+        }
+        batch.flush();
+    }
+
+    private void writeProjects(Session session, Scale scale) {
+        Batch batch = new Batch(session, "UNWIND $rows AS row CREATE (p:Project) SET p = row", "projects");
+        SplittableRandom random = random(2);
+        for (int p = 0; p < scale.projects(); p++) {
+            String category = CATEGORIES.get(categoryOf(p));
+            String noun = PROJECT_NOUNS.get(random.nextInt(PROJECT_NOUNS.size()));
+            int startDay = random.nextInt(2200);
+            int length = 60 + random.nextInt(540);
+            boolean finished = EPOCH.plusDays(startDay + length).isBefore(LocalDate.now());
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", projectId(p));
+            row.put("name", category + " " + noun + " " + (p + 1));
+            row.put("description", "Delivers a " + noun.toLowerCase(Locale.ROOT) + " for " +
+                category.toLowerCase(Locale.ROOT) + " across " + DEPARTMENTS.get(departments.sample(random)) + " teams");
+            row.put("category", category);
+            row.put("startDate", EPOCH.plusDays(startDay).toString());
+            row.put("endDate", EPOCH.plusDays(startDay + length).toString());
+            row.put("status", finished ? "Completed" : random.nextInt(5) == 0 ? "On Hold" : "In Progress");
+            row.put("budget", 25_000 + random.nextInt(40) * 25_000);
+            batch.add(row);
+        }
+        batch.flush();
+    }
+
+    private void writeOutcomes(Session session, Scale scale) {
+        Batch batch = new Batch(session, "UNWIND $rows AS row CREATE (o:Outcome) SET o = row", "outcomes");
+        SplittableRandom random = random(3);
+        for (int o = 0; o < scale.outcomes(); o++) {
+            int project = owner(o, scale.outcomes(), scale.projects());
+            String category = CATEGORIES.get(categoryOf(project));
+            String verb = OUTCOME_VERBS.get(random.nextInt(OUTCOME_VERBS.size()));
+            int percent = 5 + random.nextInt(70);
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", outcomeId(o));
+            row.put("description", verb + " in " + category.toLowerCase(Locale.ROOT) + " by " + percent + "%");
+            row.put("impactLevel", IMPACT_LEVELS.get(Math.min(random.nextInt(6), IMPACT_LEVELS.size() - 1)));
+            row.put("metrics", percent + "% change in " + category.toLowerCase(Locale.ROOT) + " KPIs");
+            row.put("achievedDate", date(random, 180, 2400));
+            row.put("category", category);
+            batch.add(row);
+        }
+        batch.flush();
+    }
+
+    private void writeReports(Session session, Scale scale) {
+        Batch batch = new Batch(session, "UNWIND $rows AS row CREATE (r:Report) SET r = row", "reports");
+        SplittableRandom random = random(4);
+        for (int r = 0; r < scale.reports(); r++) {
+            int project = owner(r, scale.reports(), scale.projects());
+            String category = CATEGORIES.get(categoryOf(project));
+            String type = REPORT_TYPES.get(random.nextInt(REPORT_TYPES.size()));
+            String date = date(random, 120, 2500);
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", reportId(r));
+            row.put("title", category + " " + type + " " + date.substring(0, 7));
+            row.put("content", "Analysis of " + category.toLowerCase(Locale.ROOT) + " work on project " + projectId(project) +
+                ", covering delivery, risks and measured results.");
+            row.put("type", type);
+            row.put("date", date);
+            row.put("filePath", "/reports/" + reportId(r) + ".pdf");
+            row.put("summary", type + " for " + category.toLowerCase(Locale.ROOT));
+            batch.add(row);
+        }
+        batch.flush();
+    }
+
+    // ---- Relationships ----
+
+    /**
+     * WORKED_ON and MANAGED for every project team, and COLLABORATED_WITH between the lead and the rest of it.
+     */
+    private void writeTeams(Session session, Scale scale) {
+        Batch workedOn = new Batch(session,
+            "UNWIND $rows AS row MATCH (e:Employee {id: row.employee}) MATCH (p:Project {id: row.project}) " +
+            "CREATE (e)-[:WORKED_ON {role: row.role, hoursContributed: row.hours}]->(p)", "WORKED_ON");
+        Batch managed = new Batch(session,
+            "UNWIND $rows AS row MATCH (e:Employee {id: row.employee}) MATCH (p:Project {id: row.project}) " +
+            "CREATE (e)-[:MANAGED]->(p)", "MANAGED");
+        Batch collaborated = new Batch(session,
+            "UNWIND $rows AS row MATCH (a:Employee {id: row.source}) MATCH (b:Employee {id: row.target}) " +
+            "CREATE (a)-[:COLLABORATED_WITH {projectId: row.project, collaborationType: 'Project Team'}]->(b)",
+            "COLLABORATED_WITH");
+        SplittableRandom random = random(5);
+        for (int p = 0; p < scale.projects(); p++) {
+            int[] team = team(p, scale);
+            for (int m = 0; m < team.length; m++) {
+                workedOn.add(Map.of("employee", employeeId(team[m]), "project", projectId(p),
+                    "role", m == 0 ? "Lead" : "Contributor", "hours", 40 + random.nextInt(1200)));
+                if (m > 0 && m <= 5) {
+                    collaborated.add(Map.of("source", employeeId(team[0]), "target", employeeId(team[m]), "project", projectId(p)));
+                }
+            }
+            managed.add(Map.of("employee", employeeId(team[0]), "project", projectId(p)));
+        }
+        workedOn.flush();
+        managed.flush();
+        collaborated.flush();
+    }
+
+    private void writeProjectLinks(Session session, Scale scale) {
+        Batch achieved = new Batch(session,
+            "UNWIND $rows AS row MATCH (p:Project {id: row.project}) MATCH (o:Outcome {id: row.outcome}) " +
+            "CREATE (p)-[:ACHIEVED {contributionLevel: 'Primary'}]->(o)", "ACHIEVED");
+        for (int o = 0; o < scale.outcomes(); o++) {
+            achieved.add(Map.of("project", projectId(owner(o, scale.outcomes(), scale.projects())), "outcome", outcomeId(o)));
+        }
+        achieved.flush();
+
+        Batch produced = new Batch(session,
+            "UNWIND $rows AS row MATCH (p:Project {id: row.project}) MATCH (r:Report {id: row.report}) " +
+            "CREATE (p)-[:PRODUCED]->(r)", "PRODUCED");
+        for (int r = 0; r < scale.reports(); r++) {
+            produced.add(Map.of("project", projectId(owner(r, scale.reports(), scale.projects())), "report", reportId(r)));
+        }
+        produced.flush();
+    }
+
+    /**
+     * DOCUMENTS links a report to outcomes of its own project; authors and reviewers come from the project team.
+     */
+    private void writeReportLinks(Session session, Scale scale) {
+        Batch documents = new Batch(session,
+            "UNWIND $rows AS row MATCH (r:Report {id: row.report}) MATCH (o:Outcome {id: row.outcome}) " +
+            "CREATE (r)-[:DOCUMENTS {evidenceLevel: 'Primary Evidence'}]->(o)", "DOCUMENTS");
+        Batch authored = new Batch(session,
+            "UNWIND $rows AS row MATCH (e:Employee {id: row.employee}) MATCH (r:Report {id: row.report}) " +
+            "CREATE (e)-[:AUTHORED {authorRole: row.role}]->(r)", "AUTHORED");
+        Batch reviewed = new Batch(session,
+            "UNWIND $rows AS row MATCH (e:Employee {id: row.employee}) MATCH (r:Report {id: row.report}) " +
+            "CREATE (e)-[:REVIEWED {reviewStatus: 'Approved'}]->(r)", "REVIEWED");
+        SplittableRandom random = random(6);
+        for (int r = 0; r < scale.reports(); r++) {
+            int project = owner(r, scale.reports(), scale.projects());
+            int firstOutcome = first(project, scale.projects(), scale.outcomes());
+            int outcomeCount = first(project + 1, scale.projects(), scale.outcomes()) - firstOutcome;
+            for (int d = 0; d < Math.min(outcomeCount, 1 + random.nextInt(3)); d++) {
+                documents.add(Map.of("report", reportId(r), "outcome", outcomeId(firstOutcome + d)));
+            }
+
+            int[] team = team(project, scale);
+            int author = random.nextInt(team.length);
+            authored.add(Map.of("employee", employeeId(team[author]), "report", reportId(r), "role", "Primary Author"));
+            if (team.length > 1) {
+                int reviewer = (author + 1 + random.nextInt(team.length - 1)) % team.length;
+                reviewed.add(Map.of("employee", employeeId(team[reviewer]), "report", reportId(r)));
+            }
+        }
+        documents.flush();
+        authored.flush();
+        reviewed.flush();
+    }
+
+    // ---- Deterministic structure ----
+
+    /**
+     * Team of a project, lead first. Members come from a window of employees around the project's position,
+     * so nearby projects share people. Derived from the seed and project alone, so every pass sees the same team.
+     */
+    private int[] team(int project, Scale scale) {
+        SplittableRandom random = new SplittableRandom(seed * 1_000_003L + project);
+        // Geometric team size, mean about 6, at least 2
+        int size = 2;
+        while (size < 40 && random.nextDouble() < 0.8) {
+            size++;
+        }
+        size = Math.min(size, scale.employees());
+        int centre = (int) ((long) project * scale.employees() / scale.projects());
+        int window = Math.min(scale.employees(), 400);
+        Set<Integer> members = new LinkedHashSet<>();
+        while (members.size() < size) {
+            int offset = random.nextInt(window) - window / 2;
+            members.add(Math.floorMod(centre + offset, scale.employees()));
+        }
+        return members.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private int categoryOf(int project) {
+        return categories.sample(new SplittableRandom(seed * 7_919L + project));
+    }
+
+    private int departmentOf(int employee, Scale scale) {
+        // Departments are contiguous blocks of roughly 200 people, drawn with Zipf weights
+        return departments.sample(new SplittableRandom(seed * 104_729L + employee / Math.min(200, scale.employees())));
+    }
+
+    // Owner of item i when count items are spread evenly over owners, and the first item of an owner
+    private static int owner(int item, int count, int owners) {
+        return (int) ((long) item * owners / count);
+    }
+
+    private static int first(int owner, int owners, int count) {
+        return (int) (((long) owner * count + owners - 1) / owners);
+    }
+
+    private static String roleFor(SplittableRandom random) {
+        String[] levels = {"Junior", "", "", "Senior", "Senior", "Staff", "Principal"};
+        String[] roles = {"Software Engineer", "Data Scientist", "Researcher", "Product Manager", "Analyst", "Designer"};
+        String level = levels[random.nextInt(levels.length)];
+        String role = roles[random.nextInt(roles.length)];
+        return level.isEmpty() ? role : level + " " + role;
+    }
+
+    private static String date(SplittableRandom random, int fromDay, int toDay) {
+        return EPOCH.plusDays(fromDay + random.nextInt(toDay - fromDay)).toString();
+    }
+
+    private SplittableRandom random(int stream) {
+        return new SplittableRandom(seed * 31 + stream);
+    }
+
+    public static String employeeId(int i) {
+        return String.format("emp%07d", i + 1);
+    }
+
+    public static String projectId(int i) {
+        return String.format("proj%07d", i + 1);
+    }
+
+    public static String outcomeId(int i) {
+        return String.format("out%07d", i + 1);
+    }
+
+    public static String reportId(int i) {
+        return String.format("rep%07d", i + 1);
+    }
+
+    /**
+     * Zipf sampler over ranks 0..n-1 by inverse CDF.
+     */
+    static final class Zipf {
+        private final double[] cdf;
+
+        Zipf(int n, double exponent) {
+            cdf = new double[n];
+            double sum = 0;
+            for (int k = 0; k < n; k++) {
+                sum += 1.0 / Math.pow(k + 1, exponent);
+                cdf[k] = sum;
+            }
+            for (int k = 0; k < n; k++) {
+                cdf[k] /= sum;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            double u = random.nextDouble();
+            int low = 0;
+            int high = cdf.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cdf[mid] < u) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Rows for one UNWIND statement, written in transactions of {@link #BATCH_SIZE}.
+     */
+    private static final class Batch {
+        private final Session session;
+        private final String cypher;
+        private final String name;
+        private List<Map<String, Object>> rows = new ArrayList<>(BATCH_SIZE);
+        private long written;
+
+        Batch(Session session, String cypher, String name) {
+            this.session = session;
+            this.cypher = cypher;
+            this.name = name;
+        }
+
+        void add(Map<String, Object> row) {
+            rows.add(row);
+            if (rows.size() == BATCH_SIZE) {
+                write();
+            }
+        }
+
+        void flush() {
+            write();
+            System.out.printf("  %-18s %,d%n", name, written);
+        }
+
+        private void write() {
+            if (!rows.isEmpty()) {
+                List<Map<String, Object>> batch = rows;
+                session.executeWrite(tx -> tx.run(cypher, Map.of("rows", batch)).consume());
+                written += batch.size();
+                rows = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.tools;
+
+import com.example.repository.GraphExpansion;
+import com.example.repository.KnowledgeGraphReadRepository;
+import com.example.repository.QueryProfiler;
+import com.example.repository.RetrievalRanking;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.GraphDatabase;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Session;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+
+/**
+ * Scale benchmark for the retrieval layer. For every requested size it generates a graph with
+ * {@link KnowledgeGraphGenerator}, then runs each intent's context statement of {@link KnowledgeGraphReadRepository}
+ * against it with varied categories, keywords and seed entities, and prints latency percentiles per intent.
+ * Comparing the rows across sizes shows which statement stops scaling first.
+ * <p>
+ * Runs against the local Neo4j from {@code docker-compose.yml}, whose data is replaced.
+ *
+ * <pre>
+ * ./gradlew benchmarkRetrieval -Pscales=1000,10000,100000,1000000
+ * </pre>
+ */
+public final class RetrievalBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int ITERATIONS = 200;
+    private static final int SAMPLE_SIZE = 500;
+    private static final long SEED = 42L;
+    private static final KnowledgeGraphGenerator.Zipf CATEGORY_POPULARITY =
+        new KnowledgeGraphGenerator.Zipf(KnowledgeGraphGenerator.CATEGORIES.size(), 1.1);
+
+    private record Samples(List<String> employeeIds, List<String> projectIds, List<String> names) {}
+
+    private RetrievalBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        String uri = args.length > 0 ? args[0] : "bolt://localhost:7687";
+        String user = args.length > 1 ? args[1] : "neo4j";
+        String password = args.length > 2 ? args[2] : "password123";
+        int[] scales = Arrays.stream((args.length > 3 ? args[3] : "1000,10000,100000").split(","))
+            .mapToInt(scale -> Integer.parseInt(scale.trim()))
+            .toArray();
+        int iterations = args.length > 4 ? Integer.parseInt(args[4]) : ITERATIONS;
+
+        try (Driver driver = GraphDatabase.driver(uri, AuthTokens.basic(user, password))) {
+            // Same settings as the application defaults in application.properties
+            RetrievalRanking ranking = new RetrievalRanking(20, 10, 20, 10, 1.0, 0.5);
+            GraphExpansion expansion = new GraphExpansion(true, List.of("COLLABORATED_WITH", "WORKED_ON", "AUTHORED", "REVIEWED"), 2, 25, 40);
+            KnowledgeGraphReadRepository repository = new KnowledgeGraphReadRepository(
+                driver, "", 50, Duration.ofMinutes(5), ranking, new QueryProfiler(new SimpleMeterRegistry(), 0.0));
+
+            System.out.printf("%-10s %-24s %9s %9s %9s %9s%n", "nodes", "statement", "p50 ms", "p90 ms", "p99 ms", "max ms");
+            for (int nodes : scales) {
+                new KnowledgeGraphGenerator(driver, SEED).generate(KnowledgeGraphGenerator.Scale.of(nodes),
+                    Path.of("knowledge-graph-schema.cypher"));
+                Samples samples = sample(driver);
+                for (Map.Entry<String, IntConsumer> statement : statements(repository, expansion, samples).entrySet()) {
+                    long[] latencies = measure(statement.getValue(), iterations);
+                    System.out.printf(Locale.ROOT, "%-10d %-24s %9.2f %9.2f %9.2f %9.2f%n", nodes, statement.getKey(),
+                        percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                        latencies[latencies.length - 1] / 1e6);
+                }
+            }
+        }
+    }
+
+    /**
+     * One call per intent, each picking its inputs from iteration {@code i} so runs are repeatable.
+     * Categories follow the generator's Zipf order, so common categories are queried more often.
+     */
+    private static Map<String, IntConsumer> statements(KnowledgeGraphReadRepository repository, GraphExpansion expansion,
+                                                       Samples samples) {
+        Map<String, IntConsumer> statements = new LinkedHashMap<>();
+        statements.put("peopleByProjectContext", i -> repository.findPeopleByProjectContext(category(i), keywords(i)));
+        statements.put("outcomesContext", i -> repository.findOutcomesContext(category(i), "reduced", keywords(i)));
+        statements.put("projectOutcomesContext", i -> repository.findProjectOutcomesContext(category(i), keywords(i)));
+        statements.put("reportsContext", i -> repository.findReportsContext(category(i), keywords(i)));
+        statements.put("comprehensiveContext", i -> repository.findComprehensiveContext(category(i), "", keywords(i),
+            List.of(pick(samples.employeeIds(), i)), List.of()));
+        statements.put("employeesByNames", i -> repository.findEmployeesByNames(List.of(pick(samples.names(), i))));
+        statements.put("neighbourhoodContext", i -> repository.findNeighbourhoodContext(
+            List.of(pick(samples.employeeIds(), i)), List.of(pick(samples.projectIds(), i)), expansion));
+        return statements;
+    }
+
+    private static long[] measure(IntConsumer statement, int iterations) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            statement.accept(i);
+        }
+        long[] latencies = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            statement.accept(WARMUP_ITERATIONS + i);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))] / 1e6;
+    }
+
+    private static Samples sample(Driver driver) {
+        try (Session session = driver.session()) {
+            List<String> employeeIds = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            for (Record record : session.run("MATCH (e:Employee) RETURN e.id AS id, e.nameLower AS name LIMIT $limit",
+                    Map.of("limit", SAMPLE_SIZE)).list()) {
+                employeeIds.add(record.get("id").asString());
+                names.add(record.get("name").asString());
+            }
+            List<String> projectIds = session.run("MATCH (p:Project) RETURN p.id AS id LIMIT $limit", Map.of("limit", SAMPLE_SIZE))
+                .list(record -> record.get("id").asString());
+            return new Samples(employeeIds, projectIds, names);
+        }
+    }
+
+    private static String category(int i) {
+        return KnowledgeGraphGenerator.CATEGORIES.get(CATEGORY_POPULARITY.sample(new SplittableRandom(SEED + i)));
+    }
+
+    private static List<String> keywords(int i) {
+        return List.of(category(i + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static String pick(List<String> values, int i) {
+        return values.get(Math.floorMod(i * 31, values.size()));
+    }
+}
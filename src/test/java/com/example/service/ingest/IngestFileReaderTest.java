@@ -0,0 +1,132 @@
+package com.example.service.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class IngestFileReaderTest {
+
+    private record Collected(List<Map<String, Object>> rows, List<String> rejects) implements IngestFileReader.RowHandler {
+
+        Collected() {
+            this(new ArrayList<>(), new ArrayList<>());
+        }
+
+        @Override
+        public void row(Map<String, Object> row) {
+            rows.add(row);
+        }
+
+        @Override
+        public void reject(long line, String reason) {
+            rejects.add(line + ": " + reason);
+        }
+    }
+
+    @TempDir
+    Path directory;
+
+    private final IngestFileReader reader = new IngestFileReader(new ObjectMapper());
+
+    private Collected read(String fileName, String content) throws IOException {
+        Path file = directory.resolve(fileName);
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        Collected collected = new Collected();
+        reader.read(file, collected);
+        return collected;
+    }
+
+    @Test
+    void csvQuotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        Collected collected = read("employees.csv", """
+            id,name,title
+            e1,"Lee, Ann","She said ""hi"""
+            e2,"Line one
+            line two",plain
+            """);
+
+        assertThat(collected.rejects()).isEmpty();
+        assertThat(collected.rows()).containsExactly(
+            Map.of("id", "e1", "name", "Lee, Ann", "title", "She said \"hi\""),
+            Map.of("id", "e2", "name", "Line one\nline two", "title", "plain"));
+    }
+
+    @Test
+    void csvCellsAreTypedExceptIdColumns() throws IOException {
+        Collected collected = read("worked_on.csv", """
+            source,target,hours,share,code,note
+            007,42,1200,0.25,0123,1e5
+            e2,p2,-3,-0.5,12345678901234567890,
+            """);
+
+        assertThat(collected.rows()).hasSize(2);
+        assertThat(collected.rows().get(0)).containsExactly(
+            entry("source", "007"), entry("target", "42"), entry("hours", 1200L), entry("share", 0.25),
+            entry("code", "0123"), entry("note", "1e5"));
+        assertThat(collected.rows().get(1)).containsExactly(
+            entry("source", "e2"), entry("target", "p2"), entry("hours", -3L), entry("share", -0.5),
+            entry("code", "12345678901234567890"));
+    }
+
+    @Test
+    void csvListColumnsSplitOnSemicolons() throws IOException {
+        Collected collected = read("employees.csv", """
+            id,skills[]
+            e1,Java; SQL ;;
+            e2,
+            """);
+
+        assertThat(collected.rows()).containsExactly(
+            Map.of("id", "e1", "skills", List.of("Java", "SQL")),
+            Map.of("id", "e2"));
+    }
+
+    @Test
+    void csvRowsWithTheWrongColumnCountAreRejectedWithTheirLine() throws IOException {
+        Collected collected = read("projects.csv", """
+            id,name,category
+            p1,"Multi
+            line",AI
+
+            p2,Too few
+            p3,Fine,AI
+            """);
+
+        assertThat(collected.rows()).extracting(row -> row.get("id")).containsExactly("p1", "p3");
+        assertThat(collected.rejects()).containsExactly("5: expected 3 columns but found 2");
+    }
+
+    @Test
+    void jsonLinesSkipBlankLinesAndRejectInvalidOnes() throws IOException {
+        Collected collected = read("outcomes.jsonl", """
+            {"id": "o1", "impactLevel": "High", "score": 3}
+
+            not json
+            {"id": "o2"}
+            """);
+
+        assertThat(collected.rows()).containsExactly(
+            Map.of("id", "o1", "impactLevel", "High", "score", 3),
+            Map.of("id", "o2"));
+        assertThat(collected.rejects()).singleElement().asString().startsWith("3: invalid JSON");
+    }
+
+    @Test
+    void supportsJsonLinesAndCsvFiles() {
+        assertThat(IngestFileReader.isSupported(Path.of("employees.JSONL"))).isTrue();
+        assertThat(IngestFileReader.isSupported(Path.of("employees.ndjson"))).isTrue();
+        assertThat(IngestFileReader.isSupported(Path.of("worked_on.csv"))).isTrue();
+        assertThat(IngestFileReader.isSupported(Path.of("notes.txt"))).isFalse();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.service.kag;
+
+import com.example.repository.KnowledgeGraphReadRepository.NodeChange;
+import com.example.repository.projection.OutcomeView;
+import com.example.repository.projection.ProjectSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContextFragmentCacheTest {
+
+    private final ContextFragmentCache cache = new ContextFragmentCache(100, new SimpleMeterRegistry());
+    private final AtomicInteger renders = new AtomicInteger();
+    private final Function<OutcomeView, String> renderer = outcome -> {
+        renders.incrementAndGet();
+        return ContextPacker.renderOutcome(outcome);
+    };
+
+    private static final OutcomeView OUTCOME = new OutcomeView("out-1", "Cut latency", "HIGH", "p99 -40%", "Performance", 3);
+
+    @Test
+    void reusesTheFragmentWhileTheEntityHasTheSameVersion() {
+        byte[] first = get(OUTCOME);
+        byte[] second = get(new OutcomeView("out-1", "Cut latency", "HIGH", "p99 -40%", "Performance", 3));
+
+        assertThat(second).isSameAs(first);
+        assertThat(renders).hasValue(1);
+    }
+
+    @Test
+    void rendersAgainWhenTheVersionChanged() {
+        get(OUTCOME);
+        byte[] changed = get(new OutcomeView("out-1", "Cut latency", "MEDIUM", "p99 -40%", "Performance", 4));
+        byte[] older = get(OUTCOME);
+
+        assertThat(new String(changed)).contains("Impact: MEDIUM");
+        assertThat(new String(older)).contains("Impact: HIGH");
+        assertThat(renders).hasValue(3);
+    }
+
+    @Test
+    void summariesAreReusedOnlyWhileEqual() {
+        Function<ProjectSummary, String> summaryRenderer = summary -> {
+            renders.incrementAndGet();
+            return ContextPacker.renderSummary(summary);
+        };
+        ProjectSummary summary = new ProjectSummary("Streaming", "Moved to streaming", List.of("Ann Lee"),
+            List.of("Cut latency"), List.of("p99 -40%"), List.of("Latency review"));
+        ProjectSummary grown = new ProjectSummary("Streaming", "Moved to streaming", List.of("Ann Lee", "Bob Ray"),
+            List.of("Cut latency"), List.of("p99 -40%"), List.of("Latency review"));
+
+        cache.get(ContextPacker.Section.PROJECT_SUMMARIES, "Streaming", summary, summary, summaryRenderer);
+        cache.get(ContextPacker.Section.PROJECT_SUMMARIES, "Streaming", summary, summary, summaryRenderer);
+        byte[] changed = cache.get(ContextPacker.Section.PROJECT_SUMMARIES, "Streaming", grown, grown, summaryRenderer);
+
+        assertThat(new String(changed)).contains("Bob Ray");
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void changeFeedEvictsReportedOutcomes() {
+        get(OUTCOME);
+        cache.onGraphChanged(new GraphChangeEvent(1, 2, List.of(new NodeChange("Outcome", "out-1", 2)), List.of(), false));
+        get(OUTCOME);
+
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void versionBumpClearsEveryFragment() {
+        get(OUTCOME);
+        cache.onGraphVersionChanged(new GraphVersion.ChangedEvent(1, "manual"));
+        get(OUTCOME);
+
+        assertThat(renders).hasValue(2);
+    }
+
+    private byte[] get(OutcomeView outcome) {
+        return cache.get(ContextPacker.Section.OUTCOMES, outcome.id(), outcome.changeVersion(), outcome, renderer);
+    }
+}
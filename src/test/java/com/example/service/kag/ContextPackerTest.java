@@ -0,0 +1,155 @@
+package com.example.service.kag;
+
+import com.example.repository.projection.EmployeeView;
+import com.example.repository.projection.OutcomeView;
+import com.example.repository.projection.ReportView;
+import com.example.service.nlp.QueryEntities;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class ContextPackerTest {
+
+    private static final String NO_MINIMUMS = "employees=0,projects=0,project-summaries=0,outcomes=0,reports=0";
+
+    private static final List<EmployeeView> EMPLOYEES = List.of(
+        new EmployeeView("emp-0", "Ann Lee", "Engineer", "Platform", "ann@example.com", 0),
+        new EmployeeView("emp-1", "Bob Ray", "Engineer", "Platform", "bob@example.com", 0),
+        new EmployeeView("emp-2", "Cat Fox", "Engineer", "Platform", "cat@example.com", 0),
+        new EmployeeView("emp-3", "Dan Orr", "Engineer", "Streaming", "dan@example.com", 0));
+    private static final List<OutcomeView> OUTCOMES = List.of(
+        new OutcomeView("out-0", "Cut latency", "HIGH", "p99 -40%", "Performance", 0),
+        new OutcomeView("out-1", "Moved to streaming", "MEDIUM", null, "Migration", 0));
+    private static final ReportView REPORT =
+        new ReportView("rep-0", "Latency review", "Technical", "2024-03-01", "/reports/latency.pdf", "How latency was cut", 0);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ContextPacker packer(int budget, String minimums) {
+        // One token per character keeps the budget arithmetic readable
+        return new ContextPacker(budget, "gpt-4o=24000", minimums, 1.0,
+            new ContextFragmentCache(100, meterRegistry), meterRegistry);
+    }
+
+    private static KnowledgeGraphContext context() {
+        KnowledgeGraphContext context = new KnowledgeGraphContext();
+        context.setEmployees(EMPLOYEES);
+        context.setOutcomes(OUTCOMES);
+        context.setReports(List.of(REPORT));
+        return context;
+    }
+
+    private static QueryEntities keywords(String... keywords) {
+        QueryEntities entities = new QueryEntities();
+        entities.setProjectKeywords(Set.of(keywords));
+        return entities;
+    }
+
+    private static int sectionCost(String heading, String fragment) {
+        return heading.length() + 1 + fragment.length();
+    }
+
+    @Test
+    void rendersOutcomesAndReportsInRetrievalOrderWhenUnconstrained() {
+        KnowledgeGraphContext context = new KnowledgeGraphContext();
+        context.setEmployees(List.of(EMPLOYEES.get(0)));
+        context.setOutcomes(OUTCOMES);
+        context.setReports(List.of(REPORT));
+
+        ContextPacker.PackedContext packed = packer(10_000, "").pack(context, keywords("streaming"), null);
+
+        assertThat(packed.text()).isEqualTo("""
+            KNOWLEDGE GRAPH CONTEXT:
+
+            EMPLOYEES:
+            - Ann Lee (Engineer) - Platform, ann@example.com
+
+            OUTCOMES:
+            - Cut latency (Impact: HIGH) - Metrics: p99 -40%
+            - Moved to streaming (Impact: MEDIUM)
+
+            SUPPORTING REPORTS:
+            - Latency review (Technical, 2024-03-01): How latency was cut
+
+            """);
+        assertThat(packed.report().dropped()).isEmpty();
+        assertThat(packed.report().estimatedTokens()).isEqualTo(packed.text().length());
+    }
+
+    @Test
+    void keepsTheBestRankedEntityOfEachSectionMinimum() {
+        String employee = ContextPacker.renderEmployee(EMPLOYEES.get(3));
+        String outcome = ContextPacker.renderOutcome(OUTCOMES.get(1));
+        int budget = ContextPacker.HEADER.length()
+            + sectionCost("EMPLOYEES:\n", employee) + sectionCost("OUTCOMES:\n", outcome) + 5;
+
+        ContextPacker.PackedContext packed = packer(budget, "employees=1,projects=0,project-summaries=0,outcomes=1,reports=0")
+            .pack(context(), keywords("streaming"), null);
+
+        assertThat(packed.text()).contains(employee, outcome).doesNotContain("Ann Lee", "Latency review");
+        assertThat(packed.report().included())
+            .containsExactly(entry(ContextPacker.Section.EMPLOYEES, 1), entry(ContextPacker.Section.OUTCOMES, 1));
+        assertThat(packed.report().dropped()).containsEntry(ContextPacker.Section.EMPLOYEES, 3)
+            .containsEntry(ContextPacker.Section.OUTCOMES, 1)
+            .containsEntry(ContextPacker.Section.REPORTS, 1);
+        assertThat(packed.report().droppedTotal()).isEqualTo(5);
+        assertThat(packed.report().estimatedTokens()).isLessThanOrEqualTo(budget);
+    }
+
+    @Test
+    void fillsTheBudgetWithTheBestRankedEntitiesOfAnySection() {
+        String report = ContextPacker.renderReport(REPORT);
+        int budget = ContextPacker.HEADER.length() + sectionCost("SUPPORTING REPORTS:\n", report);
+
+        ContextPacker.PackedContext packed = packer(budget, NO_MINIMUMS).pack(context(), keywords("review"), null);
+
+        assertThat(packed.text()).isEqualTo(ContextPacker.HEADER + "SUPPORTING REPORTS:\n" + report + "\n");
+        assertThat(packed.report().included()).containsOnlyKeys(ContextPacker.Section.REPORTS);
+        assertThat(packed.report().droppedTotal()).isEqualTo(EMPLOYEES.size() + OUTCOMES.size());
+        assertThat(meterRegistry.counter("kag.context.dropped", "section", "employees").count()).isEqualTo(4.0);
+    }
+
+    @Test
+    void resolvedIdsRankAboveKeywordMatches() {
+        String employee = ContextPacker.renderEmployee(EMPLOYEES.get(1));
+        int budget = ContextPacker.HEADER.length() + sectionCost("EMPLOYEES:\n", employee);
+        QueryEntities entities = keywords("streaming");
+        entities.setEmployeeIds(Set.of("emp-1"));
+
+        ContextPacker.PackedContext packed = packer(budget, NO_MINIMUMS).pack(context(), entities, null);
+
+        assertThat(packed.text()).contains(employee).doesNotContain("Dan Orr");
+    }
+
+    @Test
+    void minimumsThatDoNotFitAreDropped() {
+        ContextPacker.PackedContext packed = packer(ContextPacker.HEADER.length(), "")
+            .pack(context(), keywords(), null);
+
+        assertThat(packed.text()).isEqualTo(ContextPacker.HEADER);
+        assertThat(packed.report().included()).isEmpty();
+        assertThat(packed.report().droppedTotal()).isEqualTo(EMPLOYEES.size() + OUTCOMES.size() + 1);
+    }
+
+    @Test
+    void budgetFollowsTheModel() {
+        ContextPacker packer = packer(3000, "");
+
+        assertThat(packer.budgetFor("GPT-4o")).isEqualTo(24000);
+        assertThat(packer.budgetFor("qwen2.5:7b")).isEqualTo(3000);
+        assertThat(packer.budgetFor(null)).isEqualTo(3000);
+    }
+
+    @Test
+    void rejectsUnknownSections() {
+        assertThatThrownBy(() -> packer(3000, "people=2"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("people");
+    }
+}
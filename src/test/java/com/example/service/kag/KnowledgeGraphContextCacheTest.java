@@ -0,0 +1,150 @@
+package com.example.service.kag;
+
+import com.example.repository.KnowledgeGraphReadRepository;
+import com.example.repository.KnowledgeGraphReadRepository.NodeChange;
+import com.example.repository.KnowledgeGraphReadRepository.RelationshipChange;
+import com.example.repository.projection.EmployeeView;
+import com.example.repository.projection.OutcomeView;
+import com.example.repository.projection.ProjectView;
+import com.example.service.kag.KnowledgeGraphContextCache.Key;
+import com.example.service.nlp.QueryIntent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class KnowledgeGraphContextCacheTest {
+
+    private static final ProjectView SAFETY_PROJECT =
+        new ProjectView("proj-1", "Safety Blueprint", "Safety protocols", "AI Safety", "Completed", "2023-01-15", 0);
+    private static final ProjectView ETHICS_PROJECT =
+        new ProjectView("proj-2", "Ethics Board", "Review process", "ethics", "Active", "2024-02-01", 0);
+
+    private final KnowledgeGraphReadRepository readRepository = mock(KnowledgeGraphReadRepository.class);
+    private final KnowledgeGraphContextCache cache = new KnowledgeGraphContextCache(100, Duration.ofHours(1),
+        new GraphVersion(mock(ApplicationEventPublisher.class), new SimpleMeterRegistry()), readRepository,
+        new SimpleMeterRegistry());
+
+    private final Key safety = key(QueryIntent.FIND_PEOPLE_BY_PROJECT, "AI Safety", List.of());
+    private final Key ethics = key(QueryIntent.FIND_PEOPLE_BY_PROJECT, "ethics", List.of());
+
+    @Test
+    void newProjectEvictsTheContextsWhoseKeyItMatches() {
+        cache(safety, context(SAFETY_PROJECT));
+        cache(ethics, context(ETHICS_PROJECT));
+        when(readRepository.findProjectsByIds(any())).thenReturn(List.of(
+            new ProjectView("proj-9", "Red Teaming", "Adversarial testing", "AI Safety", "Active", "2025-03-01", 0)));
+
+        cache.onGraphChanged(event(List.of(new NodeChange("Project", "proj-9", 2)), List.of()));
+
+        assertThat(cache.get(safety)).isEmpty();
+        assertThat(cache.get(ethics)).isPresent();
+    }
+
+    @Test
+    void keywordsMatchRegardlessOfCaseAndPunctuation() {
+        Key keyword = key(QueryIntent.FIND_PEOPLE_BY_PROJECT, "", List.of("Bias Detection"));
+        cache(keyword, context(ETHICS_PROJECT));
+        when(readRepository.findProjectsByIds(any())).thenReturn(List.of(
+            new ProjectView("proj-9", "Bias-detection pipeline", null, "Tooling", "Active", "2025-03-01", 0)));
+
+        cache.onGraphChanged(event(List.of(new NodeChange("Project", "proj-9", 2)), List.of()));
+
+        assertThat(cache.get(keyword)).isEmpty();
+    }
+
+    @Test
+    void newOutcomeOnlyEvictsIntentsThatSearchOutcomeText() {
+        Key outcomes = key(QueryIntent.FIND_OUTCOMES, "bias", List.of());
+        Key people = key(QueryIntent.FIND_PEOPLE_BY_PROJECT, "bias", List.of());
+        cache(outcomes, context(ETHICS_PROJECT));
+        cache(people, context(ETHICS_PROJECT));
+        when(readRepository.findOutcomesByIds(any())).thenReturn(List.of(
+            new OutcomeView("out-9", "Reduced bias incidents by 40%", "High", "40% fewer incidents", "Safety", 0)));
+
+        cache.onGraphChanged(event(List.of(new NodeChange("Outcome", "out-9", 2)), List.of()));
+
+        assertThat(cache.get(outcomes)).isEmpty();
+        assertThat(cache.get(people)).isPresent();
+    }
+
+    @Test
+    void relationshipToAMatchingProjectEvictsContextsNotHoldingEitherEnd() {
+        cache(safety, context(SAFETY_PROJECT));
+        cache(ethics, context(ETHICS_PROJECT));
+        when(readRepository.findProjectsByIds(any())).thenReturn(List.of(
+            new ProjectView("proj-5", "Alignment Audit", "Audits", "AI Safety", "Completed", "2022-05-01", 0)));
+
+        cache.onGraphChanged(event(List.of(), List.of(new RelationshipChange("ACHIEVED", "proj-5", "out-7", 2))));
+
+        assertThat(cache.get(safety)).isEmpty();
+        assertThat(cache.get(ethics)).isPresent();
+    }
+
+    @Test
+    void projectThatStoppedMatchingEvictsContextsHoldingItsNeighbours() {
+        KnowledgeGraphContext context = new KnowledgeGraphContext();
+        context.setProjects(List.of(SAFETY_PROJECT));
+        context.setOutcomes(List.of(new OutcomeView("out-7", "Fewer incidents", "High", null, "Safety", 0)));
+        cache(safety, context.snapshot());
+        when(readRepository.findProjectsByIds(any())).thenReturn(List.of(
+            new ProjectView("proj-5", "Alignment Audit", "Audits", "Robotics", "Completed", "2022-05-01", 0)));
+        when(readRepository.findNeighbourIds(eq("Project"), any())).thenReturn(List.of("out-7"));
+
+        cache.onGraphChanged(event(List.of(new NodeChange("Project", "proj-5", 2)), List.of()));
+
+        assertThat(cache.get(safety)).isEmpty();
+    }
+
+    @Test
+    void employeeNamedByTheKeyEvictsIt() {
+        Key named = new Key(QueryIntent.COMPREHENSIVE_SEARCH, "", "", List.of(), List.of(), List.of(),
+            List.of("grant young"), 0);
+        cache(named, context(ETHICS_PROJECT));
+        cache(ethics, context(ETHICS_PROJECT));
+        when(readRepository.findEmployeesByIds(any())).thenReturn(List.of(
+            new EmployeeView("emp-9", "Grant  Young", "Engineer", "Research", "grant@example.com", 0)));
+
+        cache.onGraphChanged(event(List.of(new NodeChange("Employee", "emp-9", 2)), List.of()));
+
+        assertThat(cache.get(named)).isEmpty();
+        assertThat(cache.get(ethics)).isPresent();
+    }
+
+    @Test
+    void contextReadBeforeAChangeIsNotCached() {
+        long mark = cache.changeMark();
+        cache.onGraphChanged(event(List.of(new NodeChange("Report", "rep-9", 2)), List.of()));
+
+        cache.put(ethics, mark, context(ETHICS_PROJECT));
+
+        assertThat(cache.get(ethics)).isEmpty();
+    }
+
+    private void cache(Key key, KnowledgeGraphContext context) {
+        cache.put(key, cache.changeMark(), context);
+        assertThat(cache.get(key)).isPresent();
+    }
+
+    private static Key key(QueryIntent intent, String category, List<String> keywords) {
+        return new Key(intent, category, "", keywords, List.of(), List.of(), List.of(), 0);
+    }
+
+    private static KnowledgeGraphContext context(ProjectView project) {
+        KnowledgeGraphContext context = new KnowledgeGraphContext();
+        context.setProjects(List.of(project));
+        return context.snapshot();
+    }
+
+    private static GraphChangeEvent event(List<NodeChange> nodes, List<RelationshipChange> relationships) {
+        return new GraphChangeEvent(1, 2, nodes, relationships, false);
+    }
+}
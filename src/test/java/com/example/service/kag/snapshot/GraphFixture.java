@@ -0,0 +1,95 @@
+package com.example.service.kag.snapshot;
+
+import com.example.repository.KnowledgeGraphReadRepository.ContextRows;
+import com.example.repository.RetrievalRanking;
+import com.example.repository.projection.EmployeeView;
+import com.example.repository.projection.OutcomeView;
+import com.example.repository.projection.ProjectView;
+import com.example.repository.projection.ReportView;
+import com.example.service.kag.snapshot.GraphSnapshot.Relationship;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A small graph shared by the snapshot tests: two machine learning projects with overlapping teams and an
+ * infrastructure project on its own. Recency is weighted 0 so rankings do not depend on today's date.
+ */
+final class GraphFixture {
+
+    static final RetrievalRanking RANKING = new RetrievalRanking(10, 10, 10, 10, 0.5, 0.0);
+    static final int SEARCH_LIMIT = 50;
+
+    static final List<EmployeeView> EMPLOYEES = List.of(
+        new EmployeeView("e1", "Ann Lee", "Engineer", "AI", "ann@example.com", 0),
+        new EmployeeView("e2", "Bob Ray", "Scientist", "AI", "bob@example.com", 0),
+        new EmployeeView("e3", "Cat Fox", "Engineer", "Platform", "cat@example.com", 0),
+        new EmployeeView("e4", "Dan Orr", "Analyst", "Finance", "dan@example.com", 0));
+    static final List<ProjectView> PROJECTS = List.of(
+        new ProjectView("p1", "Fraud Detection", "Detects payment fraud", "Machine Learning", "Active", "2024-01-01", 0),
+        new ProjectView("p2", "Search Ranking", "Ranks search results", "Machine Learning", "Done", "2023-01-01", 0),
+        new ProjectView("p3", "Data Lake", "Central storage", "Infrastructure", "Done", "2022-06-01", 0));
+    static final List<OutcomeView> OUTCOMES = List.of(
+        new OutcomeView("o1", "Cut fraud losses", "High", "losses -30%", "Risk", 0),
+        new OutcomeView("o2", "Better ranking", "Medium", "ndcg +5%", "Quality", 0),
+        new OutcomeView("o3", "Cheaper storage", "Low", "cost -20%", "Cost", 0));
+    static final List<ReportView> REPORTS = List.of(
+        new ReportView("r1", "Fraud review", "Technical", "2024-06-01", "/reports/r1.pdf", "Fraud results", 0),
+        new ReportView("r2", "Ranking study", "Research", "2023-06-01", "/reports/r2.pdf", "Ranking results", 0),
+        new ReportView("r3", "Lake migration", "Technical", "2022-09-01", "/reports/r3.pdf", "Migration notes", 0));
+
+    static final Map<Relationship, List<String[]>> EDGES = Map.of(
+        Relationship.WORKED_ON, List.of(edge("e1", "p1"), edge("e2", "p1"), edge("e2", "p2"), edge("e3", "p3")),
+        Relationship.ACHIEVED, List.of(edge("p1", "o1"), edge("p2", "o2"), edge("p3", "o3")),
+        Relationship.PRODUCED, List.of(edge("p1", "r1"), edge("p2", "r2"), edge("p3", "r3")),
+        Relationship.DOCUMENTS, List.of(edge("r1", "o1"), edge("r2", "o2")),
+        // A lone String[] would be taken as the varargs array itself
+        Relationship.AUTHORED, List.<String[]>of(edge("e1", "r1")),
+        Relationship.COLLABORATED_WITH, List.<String[]>of(edge("e1", "e2")));
+
+    private GraphFixture() {
+    }
+
+    private static String[] edge(String sourceId, String targetId) {
+        return new String[] {sourceId, targetId};
+    }
+
+    static GraphSnapshot.Builder builder() {
+        GraphSnapshot.Builder builder = GraphSnapshot.builder();
+        EMPLOYEES.forEach(builder::add);
+        PROJECTS.forEach(builder::add);
+        OUTCOMES.forEach(builder::add);
+        REPORTS.forEach(builder::add);
+        for (Relationship type : Relationship.values()) {
+            for (String[] edge : EDGES.getOrDefault(type, List.of())) {
+                builder.addEdge(type, edge[0], edge[1]);
+            }
+        }
+        return builder;
+    }
+
+    static GraphSnapshot snapshot() {
+        return builder().build(0, 0, SEARCH_LIMIT, RANKING);
+    }
+
+    static <T> List<String> ids(List<T> views, Function<T, String> id) {
+        return views.stream().map(id).toList();
+    }
+
+    static List<String> employeeIds(ContextRows rows) {
+        return ids(rows.employees(), EmployeeView::id);
+    }
+
+    static List<String> projectIds(ContextRows rows) {
+        return ids(rows.projects(), ProjectView::id);
+    }
+
+    static List<String> outcomeIds(ContextRows rows) {
+        return ids(rows.outcomes(), OutcomeView::id);
+    }
+
+    static List<String> reportIds(ContextRows rows) {
+        return ids(rows.reports(), ReportView::id);
+    }
+}
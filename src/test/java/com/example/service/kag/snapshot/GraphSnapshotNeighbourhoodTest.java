@@ -0,0 +1,95 @@
+package com.example.service.kag.snapshot;
+
+import com.example.repository.GraphExpansion;
+import com.example.repository.KnowledgeGraphReadRepository.ContextRows;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.example.service.kag.snapshot.GraphFixture.employeeIds;
+import static com.example.service.kag.snapshot.GraphFixture.outcomeIds;
+import static com.example.service.kag.snapshot.GraphFixture.projectIds;
+import static com.example.service.kag.snapshot.GraphFixture.reportIds;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GraphSnapshotNeighbourhoodTest {
+
+    private static final List<String> PEOPLE_AND_PROJECTS = List.of("WORKED_ON", "COLLABORATED_WITH");
+
+    private final GraphSnapshot snapshot = GraphFixture.snapshot();
+
+    private ContextRows expand(List<String> employeeIds, List<String> projectIds, List<String> types,
+                               int maxHops, int fanOut, int nodeBudget) {
+        return snapshot.findNeighbourhoodContext(employeeIds, projectIds,
+            new GraphExpansion(true, types, maxHops, fanOut, nodeBudget));
+    }
+
+    @Test
+    void walksBothDirectionsNearestFirstAndLeavesOutTheSeeds() {
+        ContextRows rows = expand(List.of("e1"), List.of(), PEOPLE_AND_PROJECTS, 2, 10, 10);
+
+        assertThat(projectIds(rows)).containsExactly("p1", "p2");
+        assertThat(employeeIds(rows)).containsExactly("e2");
+    }
+
+    @Test
+    void followsOnlyTheConfiguredRelationshipTypes() {
+        ContextRows rows = expand(List.of(), List.of("p1"), List.of("ACHIEVED", "PRODUCED", "DOCUMENTS"), 3, 10, 10);
+
+        assertThat(outcomeIds(rows)).containsExactly("o1");
+        assertThat(reportIds(rows)).containsExactly("r1");
+        assertThat(rows.employees()).isEmpty();
+        assertThat(rows.projects()).isEmpty();
+    }
+
+    @Test
+    void doesNotContinueThroughNodesAboveTheFanOut() {
+        ContextRows rows = expand(List.of("e1"), List.of(), PEOPLE_AND_PROJECTS, 2, 2, 10);
+
+        // e2 has three relationships, so p2 behind it is not reached; p1 has two and is walked through
+        assertThat(projectIds(rows)).containsExactly("p1");
+        assertThat(employeeIds(rows)).containsExactly("e2");
+    }
+
+    @Test
+    void hubSeedsAreLeftThroughTheirFanOutNeighboursWithTheLowestIds() {
+        ContextRows rows = expand(List.of("e2"), List.of(), PEOPLE_AND_PROJECTS, 2, 2, 10);
+
+        // e2 has three neighbours; e1 and p1 are taken, p2 is not, and e1 and p1 lead nowhere new
+        assertThat(employeeIds(rows)).containsExactly("e1");
+        assertThat(projectIds(rows)).containsExactly("p1");
+    }
+
+    @Test
+    void seedsWithinTheFanOutAreExpandedFully() {
+        ContextRows rows = expand(List.of("e2"), List.of(), PEOPLE_AND_PROJECTS, 1, 3, 10);
+
+        assertThat(projectIds(rows)).containsExactly("p1", "p2");
+        assertThat(employeeIds(rows)).containsExactly("e1");
+    }
+
+    @Test
+    void stopsAtTheNodeBudget() {
+        ContextRows rows = expand(List.of("e1"), List.of(), PEOPLE_AND_PROJECTS, 2, 10, 1);
+
+        assertThat(projectIds(rows)).containsExactly("p1");
+        assertThat(rows.employees()).isEmpty();
+    }
+
+    @Test
+    void unknownSeedsExpandToNothing() {
+        ContextRows rows = expand(List.of("nobody"), List.of("nothing"), PEOPLE_AND_PROJECTS, 2, 10, 10);
+
+        assertThat(rows.employees()).isEmpty();
+        assertThat(rows.projects()).isEmpty();
+    }
+
+    @Test
+    void rejectsRelationshipTypesThatCannotBeSplicedIntoCypher() {
+        assertThatThrownBy(() -> new GraphExpansion(true, List.of("WORKED_ON]-() DETACH DELETE n //"), 2, 10, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new GraphExpansion(true, PEOPLE_AND_PROJECTS, 0, 10, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
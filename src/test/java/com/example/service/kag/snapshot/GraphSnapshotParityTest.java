@@ -0,0 +1,205 @@
+package com.example.service.kag.snapshot;
+
+import com.example.repository.GraphExpansion;
+import com.example.repository.KnowledgeGraphReadRepository;
+import com.example.repository.KnowledgeGraphReadRepository.ContextRows;
+import com.example.repository.KnowledgeGraphReadRepository.Edge;
+import com.example.repository.KnowledgeGraphReadRepository.EmployeeProjects;
+import com.example.repository.QueryProfiler;
+import com.example.repository.projection.ProjectSummary;
+import com.example.service.kag.snapshot.GraphSnapshot.Relationship;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.GraphDatabase;
+import org.neo4j.driver.Session;
+import org.testcontainers.containers.Neo4jContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.example.service.kag.snapshot.GraphFixture.employeeIds;
+import static com.example.service.kag.snapshot.GraphFixture.outcomeIds;
+import static com.example.service.kag.snapshot.GraphFixture.projectIds;
+import static com.example.service.kag.snapshot.GraphFixture.reportIds;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every intent query against Neo4j and against a snapshot loaded from it, on the same graph. Neo4j ranks
+ * text matches by full-text score and the snapshot by matched clauses, so ranked lists are compared as sets;
+ * lists ordered by the graph alone are compared in order.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class GraphSnapshotParityTest {
+
+    @Container
+    private static final Neo4jContainer<?> NEO4J = new Neo4jContainer<>("neo4j:5.15-community").withoutAuthentication();
+
+    private static Driver driver;
+    private static KnowledgeGraphReadRepository cypher;
+    private static GraphSnapshot snapshot;
+
+    @BeforeAll
+    static void loadGraph() throws IOException {
+        driver = GraphDatabase.driver(NEO4J.getBoltUrl(), AuthTokens.none());
+        try (Session session = driver.session()) {
+            for (String statement : schemaStatements()) {
+                session.run(statement).consume();
+            }
+            session.run("CALL db.awaitIndexes(60)").consume();
+            session.run("UNWIND $rows AS row CREATE (e:Employee) SET e = row, e.nameLower = toLower(row.name)",
+                Map.of("rows", rows(GraphFixture.EMPLOYEES, e -> Map.of("id", e.id(), "name", e.name(), "role", e.role(),
+                    "department", e.department(), "email", e.email())))).consume();
+            session.run("UNWIND $rows AS row CREATE (p:Project) SET p = row",
+                Map.of("rows", rows(GraphFixture.PROJECTS, p -> Map.of("id", p.id(), "name", p.name(),
+                    "description", p.description(), "category", p.category(), "status", p.status(),
+                    "startDate", p.startDate())))).consume();
+            session.run("UNWIND $rows AS row CREATE (o:Outcome) SET o = row",
+                Map.of("rows", rows(GraphFixture.OUTCOMES, o -> Map.of("id", o.id(), "description", o.description(),
+                    "impactLevel", o.impactLevel(), "metrics", o.metrics(), "category", o.category())))).consume();
+            session.run("UNWIND $rows AS row CREATE (r:Report) SET r = row",
+                Map.of("rows", rows(GraphFixture.REPORTS, r -> Map.of("id", r.id(), "title", r.title(), "type", r.type(),
+                    "date", r.date(), "filePath", r.filePath(), "summary", r.summary())))).consume();
+            for (Map.Entry<Relationship, List<String[]>> edges : GraphFixture.EDGES.entrySet()) {
+                Relationship type = edges.getKey();
+                session.run("UNWIND $edges AS edge MATCH (a:" + type.source().neo4jLabel() + " {id: edge[0]}), " +
+                        "(b:" + type.target().neo4jLabel() + " {id: edge[1]}) CREATE (a)-[:" + type.name() + "]->(b)",
+                    Map.of("edges", edges.getValue().stream().map(Arrays::asList).toList())).consume();
+            }
+        }
+        cypher = new KnowledgeGraphReadRepository(driver, "", GraphFixture.SEARCH_LIMIT, Duration.ofMinutes(1),
+            GraphFixture.RANKING, new QueryProfiler(new SimpleMeterRegistry(), 0.0));
+
+        // Loaded the way GraphSnapshotEngine loads it
+        GraphSnapshot.Builder builder = GraphSnapshot.builder();
+        cypher.findAllEmployees().forEach(builder::add);
+        cypher.findAllProjects().forEach(builder::add);
+        cypher.findAllOutcomes().forEach(builder::add);
+        cypher.findAllReports().forEach(builder::add);
+        for (Relationship type : Relationship.values()) {
+            for (Edge edge : cypher.findEdges(type.source().neo4jLabel(), type.name(), type.target().neo4jLabel())) {
+                builder.addEdge(type, edge.sourceId(), edge.targetId());
+            }
+        }
+        snapshot = builder.build(0, cypher.findChangeVersion(), GraphFixture.SEARCH_LIMIT, GraphFixture.RANKING);
+    }
+
+    @AfterAll
+    static void closeDriver() {
+        if (driver != null) {
+            driver.close();
+        }
+    }
+
+    // Index and constraint statements of the schema script, without its data backfills
+    private static List<String> schemaStatements() throws IOException {
+        String script = Files.readAllLines(Path.of("knowledge-graph-schema.cypher")).stream()
+            .filter(line -> !line.trim().startsWith("//"))
+            .collect(Collectors.joining("\n"));
+        return Arrays.stream(script.split(";"))
+            .map(String::trim)
+            .filter(statement -> statement.startsWith("CREATE"))
+            .toList();
+    }
+
+    private static <T> List<Map<String, Object>> rows(List<T> views, Function<T, Map<String, Object>> properties) {
+        return views.stream().map(properties).toList();
+    }
+
+    private static void assertSameNodes(ContextRows expected, ContextRows actual) {
+        assertThat(employeeIds(actual)).containsExactlyInAnyOrderElementsOf(employeeIds(expected));
+        assertThat(projectIds(actual)).containsExactlyInAnyOrderElementsOf(projectIds(expected));
+        assertThat(outcomeIds(actual)).containsExactlyInAnyOrderElementsOf(outcomeIds(expected));
+        assertThat(reportIds(actual)).containsExactlyInAnyOrderElementsOf(reportIds(expected));
+    }
+
+    @Test
+    void snapshotHoldsTheWholeGraph() {
+        assertThat(snapshot.getNodeCount()).isEqualTo(13);
+        assertThat(snapshot.getEdgeCount()).isEqualTo(14);
+    }
+
+    @Test
+    void peopleByProjectMatchesCypher() {
+        for (List<String> keywords : List.of(List.<String>of(), List.of("Search"), List.of("storage"))) {
+            ContextRows expected = cypher.findPeopleByProjectContext("Machine Learning", keywords);
+            assertThat(projectIds(expected)).isNotEmpty();
+            assertSameNodes(expected, snapshot.findPeopleByProjectContext("Machine Learning", keywords));
+        }
+    }
+
+    @Test
+    void outcomesMatchCypher() {
+        assertSameNodes(cypher.findOutcomesContext("Machine Learning", "fraud", List.of()),
+            snapshot.findOutcomesContext("Machine Learning", "fraud", List.of()));
+    }
+
+    @Test
+    void projectSummariesMatchCypher() {
+        Function<ContextRows, Map<String, List<List<String>>>> summaries = rows -> rows.projectSummaries().stream()
+            .collect(Collectors.toMap(ProjectSummary::projectName, summary -> List.of(
+                summary.teamMembers().stream().sorted().toList(),
+                summary.outcomes().stream().sorted().toList(),
+                summary.supportingReports().stream().sorted().toList())));
+
+        ContextRows expected = cypher.findProjectOutcomesContext("Machine Learning", List.of());
+        ContextRows actual = snapshot.findProjectOutcomesContext("Machine Learning", List.of());
+
+        assertThat(summaries.apply(actual)).isEqualTo(summaries.apply(expected)).hasSize(2);
+        assertSameNodes(expected, actual);
+    }
+
+    @Test
+    void reportsMatchCypher() {
+        assertSameNodes(cypher.findReportsContext("Infrastructure", List.of()),
+            snapshot.findReportsContext("Infrastructure", List.of()));
+    }
+
+    @Test
+    void comprehensiveSearchMatchesCypher() {
+        ContextRows expected = cypher.findComprehensiveContext("Machine Learning", "", List.of(), List.of("e2"), List.of("p3"));
+        ContextRows actual = snapshot.findComprehensiveContext("Machine Learning", "", List.of(), List.of("e2"), List.of("p3"));
+
+        assertThat(employeeIds(actual)).isEqualTo(employeeIds(expected));
+        assertThat(projectIds(actual)).isEqualTo(projectIds(expected));
+        assertSameNodes(expected, actual);
+        assertSameNodes(cypher.findComprehensiveContext("Infrastructure", "cost", List.of(), List.of(), List.of()),
+            snapshot.findComprehensiveContext("Infrastructure", "cost", List.of(), List.of(), List.of()));
+    }
+
+    @Test
+    void employeesByNamesMatchCypher() {
+        List<String> names = List.of("bob ray", "ann lee", "nobody");
+        Function<List<EmployeeProjects>, Map<String, List<String>>> byEmployee = found -> found.stream()
+            .collect(Collectors.toMap(entry -> entry.employee().id(), entry -> GraphFixture.ids(entry.projects(), p -> p.id())));
+
+        assertThat(byEmployee.apply(snapshot.findEmployeesByNames(names)))
+            .isEqualTo(byEmployee.apply(cypher.findEmployeesByNames(names)))
+            .hasSize(2);
+    }
+
+    @Test
+    void neighbourhoodMatchesCypher() {
+        for (int maxHops : new int[] {1, 2, 3}) {
+            for (int fanOut : new int[] {1, 2, 10}) {
+                GraphExpansion expansion = new GraphExpansion(true, List.of("WORKED_ON", "COLLABORATED_WITH"), maxHops, fanOut, 10);
+                for (String seed : List.of("e1", "e2")) {
+                    assertSameNodes(cypher.findNeighbourhoodContext(List.of(seed), List.of(), expansion),
+                        snapshot.findNeighbourhoodContext(List.of(seed), List.of(), expansion));
+                }
+            }
+        }
+    }
+}
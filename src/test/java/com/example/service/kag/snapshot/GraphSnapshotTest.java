@@ -0,0 +1,156 @@
+package com.example.service.kag.snapshot;
+
+import com.example.repository.KnowledgeGraphReadRepository.ContextRows;
+import com.example.repository.KnowledgeGraphReadRepository.Edge;
+import com.example.repository.KnowledgeGraphReadRepository.EmployeeProjects;
+import com.example.repository.projection.EmployeeView;
+import com.example.repository.projection.ProjectSummary;
+import com.example.repository.projection.ProjectView;
+import com.example.service.kag.snapshot.GraphSnapshot.Label;
+import com.example.service.kag.snapshot.GraphSnapshot.Relationship;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.example.service.kag.snapshot.GraphFixture.employeeIds;
+import static com.example.service.kag.snapshot.GraphFixture.ids;
+import static com.example.service.kag.snapshot.GraphFixture.outcomeIds;
+import static com.example.service.kag.snapshot.GraphFixture.projectIds;
+import static com.example.service.kag.snapshot.GraphFixture.reportIds;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GraphSnapshotTest {
+
+    private final GraphSnapshot snapshot = GraphFixture.snapshot();
+
+    @Test
+    void builderKeepsTheFirstNodeAndDropsDanglingEdges() {
+        GraphSnapshot.Builder builder = GraphFixture.builder()
+            .add(new EmployeeView("e1", "Someone Else", "Engineer", "AI", "else@example.com", 0))
+            .addEdge(Relationship.WORKED_ON, "e4", "missing");
+        GraphSnapshot built = builder.build(3, 7, GraphFixture.SEARCH_LIMIT, GraphFixture.RANKING);
+
+        assertThat(built.getNodeCount()).isEqualTo(13);
+        assertThat(built.getEdgeCount()).isEqualTo(14);
+        assertThat(builder.getSkippedEdges()).isEqualTo(1);
+        assertThat(built.getGraphVersion()).isEqualTo(3);
+        assertThat(built.getChangeVersion()).isEqualTo(7);
+        assertThat(built.findEmployeesByNames(List.of("someone else"))).isEmpty();
+    }
+
+    @Test
+    void peopleByProjectRankPeopleByTheProjectsTheyWorkedOn() {
+        ContextRows rows = snapshot.findPeopleByProjectContext("Machine Learning", List.of());
+
+        assertThat(projectIds(rows)).containsExactly("p1", "p2");
+        assertThat(employeeIds(rows)).containsExactly("e2", "e1");
+        assertThat(outcomeIds(rows)).containsExactly("o1", "o2");
+        assertThat(reportIds(rows)).containsExactly("r1", "r2");
+    }
+
+    @Test
+    void keywordsRaiseTheProjectsTheyMatch() {
+        ContextRows rows = snapshot.findPeopleByProjectContext("Machine Learning", List.of("Search"));
+
+        assertThat(projectIds(rows)).containsExactly("p2", "p1");
+        assertThat(employeeIds(rows)).containsExactly("e2", "e1");
+        assertThat(outcomeIds(rows)).containsExactly("o2", "o1");
+        assertThat(reportIds(rows)).containsExactly("r2", "r1");
+    }
+
+    @Test
+    void keywordMatchesOutsideTheCategoryAddProjectsButNotTheirOutcomes() {
+        ContextRows rows = snapshot.findPeopleByProjectContext("Machine Learning", List.of("storage"));
+
+        assertThat(projectIds(rows)).containsExactly("p1", "p2", "p3");
+        assertThat(employeeIds(rows)).containsExactly("e2", "e1", "e3");
+        assertThat(outcomeIds(rows)).containsExactly("o1", "o2");
+        assertThat(reportIds(rows)).containsExactly("r1", "r2");
+    }
+
+    @Test
+    void outcomesComeFromTheirOwnTextAndProjectsMustHaveAchievedOne() {
+        ContextRows rows = snapshot.findOutcomesContext("Machine Learning", "fraud", List.of());
+
+        assertThat(outcomeIds(rows)).containsExactly("o1");
+        assertThat(projectIds(rows)).containsExactly("p1", "p2");
+        assertThat(rows.employees()).isEmpty();
+        assertThat(rows.reports()).isEmpty();
+    }
+
+    @Test
+    void projectSummariesCollectTeamOutcomesAndDocumentingReports() {
+        ContextRows rows = snapshot.findProjectOutcomesContext("Machine Learning", List.of());
+
+        assertThat(rows.projectSummaries()).containsExactly(
+            new ProjectSummary("Fraud Detection", "Detects payment fraud", List.of("Ann Lee", "Bob Ray"),
+                List.of("Cut fraud losses"), List.of("losses -30%"), List.of("Fraud review")),
+            new ProjectSummary("Search Ranking", "Ranks search results", List.of("Bob Ray"),
+                List.of("Better ranking"), List.of("ndcg +5%"), List.of("Ranking study")));
+        assertThat(outcomeIds(rows)).containsExactly("o1", "o2");
+    }
+
+    @Test
+    void reportsComeFromTheMatchedProjects() {
+        ContextRows rows = snapshot.findReportsContext("Infrastructure", List.of());
+
+        assertThat(reportIds(rows)).containsExactly("r3");
+        assertThat(outcomeIds(rows)).containsExactly("o3");
+    }
+
+    @Test
+    void comprehensiveSearchUsesResolvedPeopleAndProjects() {
+        ContextRows rows = snapshot.findComprehensiveContext("Machine Learning", "", List.of(), List.of("e2"), List.of("p3"));
+
+        assertThat(employeeIds(rows)).containsExactly("e2");
+        assertThat(projectIds(rows)).containsExactly("p1", "p2", "p3");
+        assertThat(outcomeIds(rows)).containsExactly("o1", "o2");
+        assertThat(reportIds(rows)).containsExactly("r1", "r2");
+    }
+
+    @Test
+    void comprehensiveSearchFallsBackToRankedPeopleWithoutResolvedIds() {
+        ContextRows rows = snapshot.findComprehensiveContext("Infrastructure", "cost", List.of(), List.of("unknown"), List.of());
+
+        assertThat(employeeIds(rows)).containsExactly("e3");
+        assertThat(projectIds(rows)).containsExactly("p3");
+        assertThat(outcomeIds(rows)).containsExactly("o3");
+    }
+
+    @Test
+    void employeesByNamesListTheirProjectsNewestFirst() {
+        List<EmployeeProjects> found = snapshot.findEmployeesByNames(List.of("bob ray", "bob ray", "nobody"));
+
+        assertThat(found).hasSize(1);
+        assertThat(found.get(0).employee().id()).isEqualTo("e2");
+        assertThat(ids(found.get(0).projects(), project -> project.id())).containsExactly("p1", "p2");
+    }
+
+    @Test
+    void patchReplacesAddsAndRemovesNodesAndAddsNewEdgesOnce() {
+        GraphSnapshot.Patch patch = new GraphSnapshot.Patch(
+            List.of(new EmployeeView("e5", "Eve Moss", "Engineer", "AI", "eve@example.com", 0)),
+            List.of(new ProjectView("p3", "Data Lake", "Central storage", "Machine Learning", "Active", "2022-06-01", 0)),
+            List.of(),
+            List.of(),
+            Map.of(Label.OUTCOME, Set.of("o2")),
+            Map.of(Relationship.WORKED_ON, List.of(new Edge("e5", "p3"), new Edge("e1", "p2"), new Edge("e2", "p1"))));
+
+        GraphSnapshot patched = snapshot.patch(9, patch);
+
+        assertThat(patched.getChangeVersion()).isEqualTo(9);
+        assertThat(patched.getGraphVersion()).isEqualTo(snapshot.getGraphVersion());
+        assertThat(patched.getNodeCount()).isEqualTo(13);
+        // e5-p3 and e1-p2 are new, e2-p1 already existed, and o2 took ACHIEVED and DOCUMENTS edges with it
+        assertThat(patched.getEdgeCount()).isEqualTo(14);
+
+        ContextRows rows = patched.findPeopleByProjectContext("Machine Learning", List.of());
+        assertThat(projectIds(rows)).containsExactlyInAnyOrder("p1", "p2", "p3");
+        assertThat(employeeIds(rows)).containsExactlyInAnyOrder("e1", "e2", "e3", "e5");
+        assertThat(outcomeIds(rows)).containsExactlyInAnyOrder("o1", "o3");
+        assertThat(projectIds(snapshot.findPeopleByProjectContext("Machine Learning", List.of())))
+            .containsExactly("p1", "p2");
+    }
+}
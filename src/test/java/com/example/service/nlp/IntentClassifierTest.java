@@ -0,0 +1,92 @@
+package com.example.service.nlp;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class IntentClassifierTest {
+
+    private static final QueryIntent[] LABELS = {QueryIntent.FIND_PEOPLE_BY_PROJECT, QueryIntent.FIND_REPORTS};
+    private static final int DIMENSIONS = 1 << 12;
+
+    /**
+     * A two-intent model where the words of {@code who worked} vote for people and {@code reports} for reports.
+     */
+    private static IntentClassifier model() {
+        float[] weights = new float[DIMENSIONS * LABELS.length];
+        for (int feature : IntentClassifier.features("who worked", DIMENSIONS)) {
+            weights[feature * LABELS.length] += 1.25f;
+        }
+        for (int feature : IntentClassifier.features("reports", DIMENSIONS)) {
+            weights[feature * LABELS.length + 1] += 1.5f;
+        }
+        return new IntentClassifier(LABELS, DIMENSIONS, weights, new float[] {0.125f, -0.125f});
+    }
+
+    private static IntentClassifier roundTrip(IntentClassifier classifier) throws IOException {
+        StringWriter out = new StringWriter();
+        classifier.write(out);
+        return IntentClassifier.read(new ByteArrayInputStream(out.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void classifiesByTheWeightsOfTheQueryFeatures() {
+        IntentClassifier classifier = model();
+
+        IntentClassifier.Prediction people = classifier.classify("Who worked on AI safety?");
+        IntentClassifier.Prediction reports = classifier.classify("Which reports cover it?");
+
+        assertThat(people.intent()).isEqualTo(QueryIntent.FIND_PEOPLE_BY_PROJECT);
+        assertThat(reports.intent()).isEqualTo(QueryIntent.FIND_REPORTS);
+        assertThat(people.scores()[0] + people.scores()[1]).isCloseTo(1.0, within(1e-9));
+        assertThat(people.confidence()).isEqualTo(people.scores()[0]);
+    }
+
+    @Test
+    void writtenModelReadsBackWithTheSamePredictions() throws IOException {
+        IntentClassifier classifier = model();
+        IntentClassifier read = roundTrip(classifier);
+
+        assertThat(read.getLabels()).containsExactly(LABELS);
+        assertThat(read.getDimensions()).isEqualTo(DIMENSIONS);
+        for (String query : List.of("Who worked on AI safety?", "Which reports cover it?", "anything else")) {
+            assertThat(read.classify(query).scores()).containsExactly(classifier.classify(query).scores(), within(1e-9));
+        }
+    }
+
+    @Test
+    void shippedModelSurvivesARoundTrip() throws IOException {
+        IntentClassifier shipped = IntentClassifier.loadResource("nlp/intent-model.tsv");
+        assertThat(shipped).isNotNull();
+
+        IntentClassifier read = roundTrip(shipped);
+
+        for (String query : List.of("Who worked on the fraud detection project?", "What reports document the outcomes?")) {
+            assertThat(read.classify(query).intent()).isEqualTo(shipped.classify(query).intent());
+            assertThat(read.classify(query).scores()).containsExactly(shipped.classify(query).scores(), within(1e-6));
+        }
+    }
+
+    @Test
+    void featuresIgnoreCaseAndPunctuation() {
+        assertThat(IntentClassifier.features("Who WORKED, on it?", DIMENSIONS))
+            .containsExactly(IntentClassifier.features("who worked on it", DIMENSIONS));
+        assertThat(IntentClassifier.features("   ", DIMENSIONS)).isEmpty();
+    }
+
+    @Test
+    void missingResourceLoadsAsNullAndIncompleteModelIsRejected() {
+        assertThat(IntentClassifier.loadResource("nlp/no-such-model.tsv")).isNull();
+        assertThatThrownBy(() -> IntentClassifier.read(
+                new ByteArrayInputStream("dimensions\t16\n".getBytes(StandardCharsets.UTF_8))))
+            .isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.service.nlp;
+
+import com.example.service.nlp.KeywordMatcher.Category;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeywordMatcherTest {
+
+    @Test
+    void reportsOverlappingKeywordsFoundThroughFailureLinks() {
+        KeywordMatcher matcher = KeywordMatcher.builder()
+            .add(Category.PROJECT, List.of("machine learning", "learning", "deep learning platform", "platform"))
+            .build();
+
+        Map<Category, Set<String>> matches = matcher.scan("our deep learning platform and machine learning work");
+
+        assertThat(matches.get(Category.PROJECT))
+            .containsExactly("learning", "deep learning platform", "platform", "machine learning");
+    }
+
+    @Test
+    void matchesOnlyOnWordBoundaries() {
+        KeywordMatcher matcher = KeywordMatcher.builder()
+            .add(Category.OUTCOME, List.of("cost", "ai"))
+            .build();
+
+        assertThat(matcher.scan("costly said chains").get(Category.OUTCOME)).isEmpty();
+        assertThat(matcher.scan("ai cost-savings, (cost)").get(Category.OUTCOME)).containsExactly("ai", "cost");
+    }
+
+    @Test
+    void reportsCuesUnderTheirValueAndEveryCategory() {
+        KeywordMatcher matcher = KeywordMatcher.builder()
+            .add(Category.INTENT_CUE, "who worked", "people")
+            .add(Category.INTENT_CUE, "which employees", "people")
+            .add(Category.REPORT, List.of("report"))
+            .build();
+
+        Map<Category, Set<String>> matches = matcher.scan("who worked on the report");
+
+        assertThat(matches).containsOnlyKeys(Category.values());
+        assertThat(matches.get(Category.INTENT_CUE)).containsExactly("people");
+        assertThat(matches.get(Category.REPORT)).containsExactly("report");
+        assertThat(matches.get(Category.EMPLOYEE)).isEmpty();
+    }
+
+    @Test
+    void sameKeywordCountsOncePerCategory() {
+        KeywordMatcher matcher = KeywordMatcher.builder()
+            .add(Category.PROJECT, List.of("analytics"))
+            .add(Category.OUTCOME, List.of("analytics"))
+            .add(Category.PROJECT, List.of("analytics", "", "  "))
+            .build();
+
+        Map<Category, Set<String>> matches = matcher.scan("analytics");
+
+        assertThat(matcher.getKeywordCount()).isEqualTo(2);
+        assertThat(matches.get(Category.PROJECT)).containsExactly("analytics");
+        assertThat(matches.get(Category.OUTCOME)).containsExactly("analytics");
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.service.nlp;
+
+import com.example.repository.KnowledgeGraphReadRepository;
+import com.example.repository.KnowledgeGraphReadRepository.NamedNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NameGazetteerTest {
+
+    private static final NameGazetteer.Entry GRANT_YOUNG =
+        new NameGazetteer.Entry(NameGazetteer.EntityType.EMPLOYEE, "emp-1", "Grant Young");
+    private static final NameGazetteer.Entry SARAH_CHEN =
+        new NameGazetteer.Entry(NameGazetteer.EntityType.EMPLOYEE, "emp-2", "Sarah Chen");
+    private static final NameGazetteer.Entry BIAS_DETECTION =
+        new NameGazetteer.Entry(NameGazetteer.EntityType.PROJECT, "proj-1", "Bias Detection Framework");
+
+    private NameGazetteer gazetteer;
+
+    @BeforeEach
+    void setUp() {
+        KnowledgeGraphReadRepository readRepository = mock(KnowledgeGraphReadRepository.class);
+        when(readRepository.findEmployeeNames()).thenReturn(List.of(
+            new NamedNode("emp-1", "Grant Young"), new NamedNode("emp-2", "Sarah Chen")));
+        when(readRepository.findProjectNames()).thenReturn(List.of(
+            new NamedNode("proj-1", "Bias Detection Framework")));
+        gazetteer = new NameGazetteer(readRepository,
+            new EntityExtractionCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()), 5);
+        gazetteer.refresh();
+    }
+
+    @Test
+    void resolvesFullNamesRegardlessOfCase() {
+        assertThat(gazetteer.match("what did grant young deliver?")).containsExactly(GRANT_YOUNG);
+        assertThat(gazetteer.match("Who worked on the bias detection framework?")).containsExactly(BIAS_DETECTION);
+    }
+
+    @Test
+    void commonWordsMatchingAFirstOrLastNameDoNotResolve() {
+        assertThat(gazetteer.match("can you grant access to the reports of young teams?")).isEmpty();
+        assertThat(gazetteer.match("which projects grand young people")).isEmpty();
+    }
+
+    @Test
+    void capitalisedFirstOrLastNameResolves() {
+        assertThat(gazetteer.match("What did Grant deliver?")).containsExactly(GRANT_YOUNG);
+        assertThat(gazetteer.match("Show me Chen's reports")).containsExactly(SARAH_CHEN);
+    }
+
+    @Test
+    void singleWordsAreNotMatchedFuzzily() {
+        assertThat(gazetteer.match("What did Grnt deliver?")).isEmpty();
+        assertThat(gazetteer.match("What did Sarahh deliver?")).isEmpty();
+    }
+
+    @Test
+    void multiWordNamesTolerateOneTypo() {
+        assertThat(gazetteer.match("what did sarah chan work on")).containsExactly(SARAH_CHEN);
+        assertThat(gazetteer.match("outcomes of the bias detection framwork")).containsExactly(BIAS_DETECTION);
+    }
+
+    @Test
+    void typoInTheFirstWordOnlyResolvesWhenWrittenAsAName() {
+        assertThat(gazetteer.match("which projects grand young people")).isEmpty();
+        assertThat(gazetteer.match("Grand young people")).isEmpty();
+        assertThat(gazetteer.match("which projects did Grand Young lead")).containsExactly(GRANT_YOUNG);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.service.nlp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NameTrieTest {
+
+    private final NameTrie<String> trie = NameTrie.<String>builder()
+        .put("sarah chen", "emp-1")
+        .put("sara chen", "emp-2")
+        .put("sarah cheng", "emp-3")
+        .put("grant young", "emp-4")
+        .build();
+
+    @Test
+    void exactLookupNeedsTheWholeKey() {
+        assertThat(trie.exact("sarah chen")).containsExactly("emp-1");
+        assertThat(trie.exact("sarah")).isEmpty();
+        assertThat(trie.exact("sarah chen jr")).isEmpty();
+        assertThat(trie.size()).isEqualTo(4);
+    }
+
+    @Test
+    void exactResultsCannotChangeTheTrie() {
+        assertThatThrownBy(() -> trie.exact("sarah chen").add("emp-9"))
+            .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(trie.exact("sarah chen")).containsExactly("emp-1");
+    }
+
+    @Test
+    void fuzzyCountsSubstitutionsInsertionsAndDeletions() {
+        assertThat(trie.fuzzy("sarah chan", 1)).containsExactly("emp-1");
+        assertThat(trie.fuzzy("grant yung", 1)).containsExactly("emp-4");
+        assertThat(trie.fuzzy("grant youngg", 1)).containsExactly("emp-4");
+    }
+
+    @Test
+    void fuzzyReturnsEveryKeyWithinTheDistance() {
+        assertThat(trie.fuzzy("sarah chen", 0)).containsExactly("emp-1");
+        assertThat(trie.fuzzy("sarah chen", 1)).containsExactlyInAnyOrder("emp-1", "emp-2", "emp-3");
+        assertThat(trie.fuzzy("sara cheng", 1)).containsExactlyInAnyOrder("emp-2", "emp-3");
+    }
+
+    @Test
+    void fuzzyRejectsKeysBeyondTheDistance() {
+        assertThat(trie.fuzzy("sorah chon", 1)).isEmpty();
+        assertThat(trie.fuzzy("grant", 2)).isEmpty();
+        assertThat(trie.fuzzy("", 1)).isEmpty();
+    }
+
+    @Test
+    void keysSharingAPathKeepAllTheirValues() {
+        NameTrie<String> shared = NameTrie.<String>builder()
+            .put("alex kim", "emp-1")
+            .put("alex kim", "emp-2")
+            .build();
+
+        assertThat(shared.size()).isEqualTo(1);
+        assertThat(shared.exact("alex kim")).containsExactly("emp-1", "emp-2");
+        assertThat(shared.fuzzy("alex kin", 1)).containsExactly("emp-1", "emp-2");
+    }
+}